@@ -0,0 +1,144 @@
+package mlp;
+
+import mlp.activations.ActivationType;
+import mlp.quantization.QuantizedInferenceContext;
+import mlp.quantization.QuantizedMultilayerPerceptron;
+import mlp.quantization.ScaleGranularity;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 15:20
+ * Purpose: JMH benchmarks for the steps of training and for prediction. Every combination of the parameters below is
+ * measured. A subset can be selected from the command line, e.g.
+ * `-p nh=150 -p batchSize=50 -p type=RELU -p precision=FLOAT`.
+ **/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MultilayerPerceptronBenchmark {
+    @Param({"16"})
+    private int ni; //Number of input units
+    @Param({"32", "150"})
+    private int nh; //Number of hidden layer units
+    @Param({"26"})
+    private int no; //Number of output units
+    @Param({"1", "50"})
+    private int batchSize; //Batch size of gradient descent
+    @Param({"TANH", "SIGMOID", "LINEAR", "RELU", "LEAKY_RELU", "FAST_TANH", "FAST_SIGMOID"})
+    private ActivationType type; //Activation of the hidden layer
+    @Param({"1000"})
+    private int rows; //Number of samples used for an epoch of `fit` and for `predict`
+    @Param({"DOUBLE", "FLOAT"})
+    private Precision precision; //Floating point type of the weights and of the buffers
+
+    private MultilayerPerceptron mlp;
+    private double[][] x; //Inputs
+    private double[][] y; //One-hot targets
+    private int[] order; //Samples in their original order
+    private BatchWorkspace workspace; //Buffers for the batched benchmarks
+    private InferenceContext context; //Scratch for the single sample prediction
+    private InferenceContext batchContext; //Scratch for the prediction of a batch
+    private double[][] batch; //Inputs of the batch predicted by `predictBatch`
+    private QuantizedMultilayerPerceptron quantized; //8 bit copy of the mlp
+    private QuantizedInferenceContext quantizedContext; //Scratch for the single sample prediction of the 8 bit copy
+    private int next; //Index of the next sample (or batch) to use
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(20);
+        this.x = new double[this.rows][this.ni];
+        this.y = new double[this.rows][this.no];
+        for (int i = 0; i < this.rows; i++) {
+            for (int j = 0; j < this.ni; j++) {
+                this.x[i][j] = random.nextDouble();
+            }
+            this.y[i][random.nextInt(this.no)] = 1;
+        }
+        this.order = new int[this.rows];
+        for (int i = 0; i < this.rows; i++) {
+            this.order[i] = i;
+        }
+
+        //A single epoch so that `fit` measures one pass over the samples
+        this.mlp = new MultilayerPerceptron(this.ni, new int[]{this.nh}, new ActivationType[]{this.type}, this.no, 20,
+                0.01, 1, true, true, this.batchSize, this.precision);
+        this.workspace = this.mlp.newWorkspace(this.batchSize);
+        this.context = this.mlp.createInferenceContext();
+        this.batchContext = this.mlp.createInferenceContext(this.batchSize);
+        this.batch = Arrays.copyOf(this.x, this.batchSize);
+        this.quantized = QuantizedMultilayerPerceptron.quantize(this.mlp, this.x, ScaleGranularity.PER_CHANNEL);
+        this.quantizedContext = this.quantized.createInferenceContext();
+
+        //`backward` needs the values of a forward pass
+        this.mlp.forward(this.x[0]);
+        this.mlp.forwardBatch(this.workspace, this.x, this.order, 0, this.batchSize);
+    }
+
+    /**
+     * @return index of the first sample of the next batch
+     */
+    private int nextBatch() {
+        int from = this.next;
+        this.next += this.batchSize;
+        if (this.next + this.batchSize > this.rows) {
+            this.next = 0;
+        }
+        return from;
+    }
+
+    @Benchmark
+    public void forward() {
+        if (this.batchSize == 1) {
+            this.mlp.forward(this.x[this.nextBatch()]);
+        } else {
+            this.mlp.forwardBatch(this.workspace, this.x, this.order, this.nextBatch(), this.batchSize);
+        }
+    }
+
+    @Benchmark
+    public void backward() {
+        if (this.batchSize == 1) {
+            this.mlp.backward(this.y[0]);
+        } else {
+            this.mlp.backwardBatch(this.workspace, this.y, this.order, 0, this.batchSize);
+        }
+    }
+
+    @Benchmark
+    public void updateWeights() {
+        this.mlp.updateWeights(this.batchSize);
+    }
+
+    @Benchmark
+    public void fit() {
+        this.mlp.fit(this.x, this.y);
+    }
+
+    @Benchmark
+    public double[][] predict() {
+        return this.mlp.predict(this.x);
+    }
+
+    @Benchmark
+    public double[] predictWithContext() {
+        return this.mlp.predict(this.x[this.nextBatch()], this.context);
+    }
+
+    @Benchmark
+    public double[] predictBatch() {
+        return this.mlp.predict(this.batch, this.batchSize, this.batchContext);
+    }
+
+    @Benchmark
+    public double[] predictQuantized() {
+        return this.quantized.predict(this.x[this.nextBatch()], this.quantizedContext);
+    }
+}
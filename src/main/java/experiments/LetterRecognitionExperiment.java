@@ -3,12 +3,13 @@ package experiments;
 import experiments.utils.Utils;
 import mlp.MultilayerPerceptron;
 import mlp.activations.ActivationType;
+import mlp.data.CsvLoader;
+import mlp.data.Dataset;
 import mlp.exceptions.MLPException;
+import mlp.listeners.ConsoleLogger;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.util.Scanner;
+import java.io.IOException;
+import java.nio.file.Paths;
 
 /**
  * Created By: Prashant Chaubey
@@ -17,7 +18,7 @@ import java.util.Scanner;
  * (http://archive.ics.uci.edu/ml/machine-learning-databases/letter-recognition/letter-recognition.data)
  **/
 public class LetterRecognitionExperiment {
-    public static void main(String[] args) throws FileNotFoundException {
+    public static void main(String[] args) throws IOException {
         //Hyper parameters
         int randomState = 20;
         int hiddenUnits = 150;
@@ -25,36 +26,21 @@ public class LetterRecognitionExperiment {
         int epochs = 1000;
         ActivationType type = ActivationType.RELU;
         int batchSize = 50;
+        int threads = 1; //Threads used to train on a mini-batch. Results are repeatable for a fixed number of threads.
+        boolean shuffle = true; //Visit the training samples in a new order in every epoch
 
-        //Input and output
-        int count = 20000;
-        int outputVectorSize = 26;
-        int inputVectorSize = 16;
-        double[][] input = new double[count][inputVectorSize];
-        double[][] output = new double[count][outputVectorSize];
+        //Input and output. The first column is the target alphabet which is one-hot encoded into 26 outputs.
         String filePath = "letter-recognition.data"; //The file is at the root of the project currently. Update the path
         // here accordingly if changed.
-
-        Scanner in = new Scanner(new FileInputStream(new File(filePath)));
-        for (int i = 0; i < count; i++) {
-            String line = in.nextLine(); //Read a line
-            String[] tokens = line.split(","); //Split the line by commas
-
-            //Validation. +1 because of the target alphabet
-            if (tokens.length != inputVectorSize + 1) {
-                throw new RuntimeException("Invalid input");
-            }
-
-            //Get the character
-            char target = tokens[0].charAt(0); //Get the target alphabet
-            output[i][target - 'A'] = 1; // Mark the position represented by the alphabet (0-25) with 1.
-
-            //Get the input
-            for (int j = 1; j < tokens.length; j++) {
-                input[i][j - 1] = Double.parseDouble(tokens[j]);
-            }
+        String[] alphabets = new String[26];
+        for (int i = 0; i < alphabets.length; i++) {
+            alphabets[i] = String.valueOf((char) ('A' + i));
         }
-        in.close();
+        CsvLoader loader = new CsvLoader(',');
+        loader.setLabelColumn(0, alphabets);
+        Dataset dataset = loader.load(Paths.get(filePath));
+        double[][] input = dataset.inputArrays();
+        double[][] output = dataset.outputArrays();
 
         //Split the data into 80:20 ratio for training and testing respectively.
         double splitSize = 0.8;
@@ -69,6 +55,9 @@ public class LetterRecognitionExperiment {
         //Multilayer perceptron object - Multi-class classification problem
         MultilayerPerceptron mlp = new MultilayerPerceptron(input[0].length, hiddenUnits, output[0].length,
                 randomState, learningRate, epochs, type, true, true, batchSize);
+        mlp.setThreads(threads);
+        mlp.setShuffle(shuffle);
+        mlp.addListener(new ConsoleLogger()); //Loss of every epoch on the console
 
         //Training
         long now = System.currentTimeMillis();
@@ -3,6 +3,7 @@ package experiments;
 import experiments.utils.Utils;
 import mlp.MultilayerPerceptron;
 import mlp.activations.ActivationType;
+import mlp.listeners.ConsoleLogger;
 
 import java.util.Random;
 
@@ -43,6 +44,7 @@ public class SinExperiment {
         //Multilayer perceptron object for regression problem
         MultilayerPerceptron mlp = new MultilayerPerceptron(input[0].length, hiddenUnits, output[0].length,
                 randomStateMLP, learningRate, epochs, type, false, false);
+        mlp.addListener(new ConsoleLogger()); //Loss of every epoch on the console
 
         //Training
         mlp.fit(trainTestSplit.trainInput, trainTestSplit.trainOutput);
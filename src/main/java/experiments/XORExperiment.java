@@ -4,6 +4,7 @@ import experiments.utils.Utils;
 import mlp.MultilayerPerceptron;
 import mlp.activations.ActivationType;
 import mlp.exceptions.MLPException;
+import mlp.listeners.ConsoleLogger;
 
 import java.util.Arrays;
 
@@ -28,6 +29,7 @@ public class XORExperiment {
         //Multi layer perceptron object for binary classification problem
         MultilayerPerceptron mlp = new MultilayerPerceptron(input[0].length, hiddenUnits, output[0].length,
                 randomState, learningRate, epochs, type, true, false);
+        mlp.addListener(new ConsoleLogger()); //Loss of every epoch on the console
 
         //Training
         mlp.fit(input, output);
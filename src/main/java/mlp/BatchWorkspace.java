@@ -0,0 +1,87 @@
+package mlp;
+
+import mlp.layers.FloatLayer;
+import mlp.layers.FloatLayerWorkspace;
+import mlp.layers.Layer;
+import mlp.layers.LayerWorkspace;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 10:31
+ * Purpose: Preallocated buffers used by the forward/backward pass of a batch: the inputs of the batch and a workspace
+ * for every layer. When training on multiple threads each worker has its own workspace, so it also carries the
+ * weight/bias changes accumulated by that worker. Only the buffers of the precision of the mlp are allocated and the
+ * others are null.
+ **/
+class BatchWorkspace {
+    final int capacity; //Maximum number of samples in a batch
+    final double input[]; //Inputs of the batch (capacity x ni)
+    final LayerWorkspace layers[]; //Workspace of each layer
+    final float floatInput[]; //Inputs of the batch for a single precision mlp (capacity x ni)
+    final FloatLayerWorkspace floatLayers[]; //Workspace of each layer of a single precision mlp
+    long forwardNanos; //Time spent by the forward passes in this workspace since the start of the epoch
+    long backwardNanos; //Time spent by the backward passes in this workspace since the start of the epoch
+    long updateNanos; //Time spent by Hogwild updates from this workspace since the start of the epoch
+    double gradientNorms; //Sum of the gradient norms of the Hogwild samples of this workspace in the epoch
+
+    /**
+     * @param capacity maximum number of samples in a batch
+     * @param layers   layers of the mlp
+     */
+    BatchWorkspace(int capacity, Layer[] layers) {
+        this.capacity = capacity;
+        this.input = new double[capacity * layers[0].getInputSize()];
+        this.layers = new LayerWorkspace[layers.length];
+        for (int i = 0; i < layers.length; i++) {
+            this.layers[i] = layers[i].createWorkspace(capacity);
+        }
+        this.floatInput = null;
+        this.floatLayers = null;
+    }
+
+    /**
+     * @param capacity maximum number of samples in a batch
+     * @param layers   layers of a single precision mlp
+     */
+    BatchWorkspace(int capacity, FloatLayer[] layers) {
+        this.capacity = capacity;
+        this.input = null;
+        this.layers = null;
+        this.floatInput = new float[capacity * layers[0].getInputSize()];
+        this.floatLayers = new FloatLayerWorkspace[layers.length];
+        for (int i = 0; i < layers.length; i++) {
+            this.floatLayers[i] = layers[i].createWorkspace(capacity);
+        }
+    }
+
+    /**
+     * @return workspace of the output layer
+     */
+    LayerWorkspace output() {
+        return this.layers[this.layers.length - 1];
+    }
+
+    /**
+     * @return workspace of the output layer of a single precision mlp
+     */
+    FloatLayerWorkspace floatOutput() {
+        return this.floatLayers[this.floatLayers.length - 1];
+    }
+
+    /**
+     * Add the changes accumulated by this workspace to the changes of another workspace and reset them to zeroes
+     *
+     * @param other workspace receiving the changes
+     */
+    void drainChangesInto(BatchWorkspace other) {
+        if (this.floatLayers != null) {
+            for (int i = 0; i < this.floatLayers.length; i++) {
+                this.floatLayers[i].drainChangesInto(other.floatLayers[i]);
+            }
+            return;
+        }
+        for (int i = 0; i < this.layers.length; i++) {
+            this.layers[i].drainChangesInto(other.layers[i]);
+        }
+    }
+}
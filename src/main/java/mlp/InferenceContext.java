@@ -0,0 +1,63 @@
+package mlp;
+
+import mlp.layers.FloatLayer;
+import mlp.layers.Layer;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 12:05
+ * Purpose: Scratch space for predicting a single sample with `MultilayerPerceptron.predict(double[], InferenceContext)`.
+ * The mlp only reads its weights during such a prediction and all the intermediate values go into the context, so
+ * many threads can predict with the same mlp at once as long as each of them uses its own context. A context can be
+ * reused for any number of predictions, which then don't allocate any memory. A context created with a capacity of
+ * more than one sample is also used by `MultilayerPerceptron.predict(double[][], int, InferenceContext)` to predict
+ * a batch of samples with matrix-matrix products, its buffers then holding one row per sample.
+ **/
+public class InferenceContext {
+    final int capacity; //Maximum number of samples predicted at once
+    final double input[]; //Inputs of a batch (capacity x ni). Null for a single precision mlp.
+    final double z[][]; //Activations of each layer
+    final double a[][]; //Values of the units of each layer
+    final float floatInput[]; //Input converted to single precision. Null for a double precision mlp.
+    final float floatZ[][]; //Activations of each layer of a single precision mlp
+    final float floatA[][]; //Values of the units of each layer of a single precision mlp
+    final double output[]; //Output of a single precision mlp converted to double
+
+    /**
+     * @param layers   layers of the mlp
+     * @param capacity maximum number of samples predicted at once
+     */
+    InferenceContext(Layer[] layers, int capacity) {
+        this.capacity = capacity;
+        this.input = new double[capacity * layers[0].getInputSize()];
+        this.z = new double[layers.length][];
+        this.a = new double[layers.length][];
+        for (int i = 0; i < layers.length; i++) {
+            this.z[i] = new double[capacity * layers[i].getOutputSize()];
+            this.a[i] = new double[capacity * layers[i].getOutputSize()];
+        }
+        this.floatInput = null;
+        this.floatZ = null;
+        this.floatA = null;
+        this.output = null;
+    }
+
+    /**
+     * @param layers   layers of a single precision mlp
+     * @param capacity maximum number of samples predicted at once
+     */
+    InferenceContext(FloatLayer[] layers, int capacity) {
+        this.capacity = capacity;
+        this.input = null;
+        this.z = null;
+        this.a = null;
+        this.floatInput = new float[capacity * layers[0].getInputSize()];
+        this.floatZ = new float[layers.length][];
+        this.floatA = new float[layers.length][];
+        for (int i = 0; i < layers.length; i++) {
+            this.floatZ[i] = new float[capacity * layers[i].getOutputSize()];
+            this.floatA[i] = new float[capacity * layers[i].getOutputSize()];
+        }
+        this.output = new double[capacity * layers[layers.length - 1].getOutputSize()];
+    }
+}
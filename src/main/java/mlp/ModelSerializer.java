@@ -0,0 +1,273 @@
+package mlp;
+
+import mlp.activations.ActivationType;
+import mlp.exceptions.MLPException;
+import mlp.layers.FloatLayer;
+import mlp.layers.Layer;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 13:40
+ * Purpose: Binary format of a saved mlp. Files are read and written through memory mappings, so the weights and
+ * biases are moved in bulk between the mapping and the flat arrays of the layers without any parsing.
+ * <p>
+ * Layout (little endian):
+ * <pre>
+ *  0  int    magic number
+ *  4  int    version of the format
+ *  8  int    flags (1 = classification, 2 = multi-class, 4 = single precision)
+ * 12  int    number of input units
+ * 16  int    number of output units
+ * 20  int    number of hidden layers (h)
+ * 24  int    random state
+ * 28  int    epochs
+ * 32  int    batch size
+ * 36  int    reserved
+ * 40  double learning rate
+ * 48  int[h] units in each hidden layer
+ *     byte[h] activation type of each hidden layer
+ *     padding up to a multiple of 8 bytes
+ *     for each layer from the lowest to the output layer: weights (in x out) followed by biases (out) as doubles,
+ *     or as floats for a single precision mlp
+ * </pre>
+ **/
+final class ModelSerializer {
+    private static final int MAGIC = 0x3150_4C4D; //"MLP1" when read as bytes
+    private static final int VERSION = 1;
+    private static final int CLASSIFICATION = 1;
+    private static final int MULTI_CLASS = 2;
+    private static final int SINGLE_PRECISION = 4;
+    private static final int HEADER_SIZE = 48; //Bytes before the units of the hidden layers
+    //Code of an activation type is its index in this array. New types must only be appended, so the codes of saved
+    //files don't change.
+    private static final ActivationType[] TYPE_CODES = {ActivationType.TANH, ActivationType.SIGMOID,
+            ActivationType.LINEAR, ActivationType.RELU, ActivationType.LEAKY_RELU, ActivationType.FAST_TANH,
+            ActivationType.FAST_SIGMOID};
+
+    private ModelSerializer() {
+    }
+
+    /**
+     * Write the mlp to the given file
+     *
+     * @param mlp  mlp to save
+     * @param path file to write
+     * @throws IOException if the file can't be written
+     */
+    static void save(MultilayerPerceptron mlp, Path path) throws IOException {
+        ActivationType[] types = mlp.getHiddenActivationTypes();
+        int[] units = units(mlp);
+        boolean single = mlp.getPrecision() == Precision.FLOAT;
+        long weightsOffset = weightsOffset(types.length);
+        long size = weightsOffset + (single ? 4L : 8L) * parameterCount(units);
+        if (size > Integer.MAX_VALUE) {
+            throw new MLPException(String.format("Model of %s bytes is too large to be saved", size));
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC);
+            buffer.putInt(VERSION);
+            buffer.putInt((mlp.isClassification() ? CLASSIFICATION : 0) | (mlp.isMultiClass() ? MULTI_CLASS : 0) |
+                    (single ? SINGLE_PRECISION : 0));
+            buffer.putInt(mlp.getInputSize());
+            buffer.putInt(mlp.getOutputSize());
+            buffer.putInt(types.length);
+            buffer.putInt(mlp.getRandomState());
+            buffer.putInt(mlp.getEpochs());
+            buffer.putInt(mlp.getBatchSize());
+            buffer.putInt(0);
+            buffer.putDouble(mlp.getLearningRate());
+            for (int l = 0; l < types.length; l++) {
+                buffer.putInt(units[l + 1]);
+            }
+            for (ActivationType type : types) {
+                buffer.put(typeCode(type));
+            }
+
+            //Weights and biases of all the layers one after the other
+            if (single) {
+                FloatBuffer parameters = parameters(buffer, weightsOffset).asFloatBuffer();
+                for (FloatLayer layer : mlp.getFloatLayers()) {
+                    parameters.put(layer.getWeights());
+                    parameters.put(layer.getBiases());
+                }
+            } else {
+                DoubleBuffer parameters = parameters(buffer, weightsOffset).asDoubleBuffer();
+                for (Layer layer : mlp.getLayers()) {
+                    parameters.put(layer.getWeights());
+                    parameters.put(layer.getBiases());
+                }
+            }
+            buffer.force();
+        }
+    }
+
+    /**
+     * Read an mlp from the given file
+     *
+     * @param path file to read
+     * @return saved mlp
+     * @throws IOException if the file can't be read
+     */
+    static MultilayerPerceptron load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new MLPException(String.format("File of %s bytes is too small to be a saved mlp", size));
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            int magic = buffer.getInt();
+            if (magic != MAGIC) {
+                throw new MLPException(String.format("Not a saved mlp. Found magic number %08x", magic));
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new MLPException(String.format("Unsupported version of saved mlp: %s", version));
+            }
+            int flags = buffer.getInt();
+            int ni = buffer.getInt();
+            int no = buffer.getInt();
+            int nHidden = buffer.getInt();
+            int randomState = buffer.getInt();
+            int epochs = buffer.getInt();
+            int batchSize = buffer.getInt();
+            buffer.getInt();
+            double learningRate = buffer.getDouble();
+            if (nHidden < 0 || size < weightsOffset(nHidden)) {
+                throw new MLPException(String.format("Saved mlp with %s hidden layers is truncated", nHidden));
+            }
+            int[] hiddenUnits = new int[nHidden];
+            for (int l = 0; l < nHidden; l++) {
+                hiddenUnits[l] = buffer.getInt();
+            }
+            ActivationType[] types = new ActivationType[nHidden];
+            for (int l = 0; l < nHidden; l++) {
+                types[l] = activationType(buffer.get());
+            }
+
+            //The sizes are checked against the file before any layer is allocated
+            int[] units = new int[nHidden + 2];
+            units[0] = ni;
+            System.arraycopy(hiddenUnits, 0, units, 1, nHidden);
+            units[nHidden + 1] = no;
+            for (int l = 0; l < units.length; l++) {
+                if (units[l] < 1) {
+                    throw new MLPException(String.format("Saved mlp has %s units in layer %s", units[l], l));
+                }
+            }
+            boolean single = (flags & SINGLE_PRECISION) != 0;
+            long expected;
+            try {
+                expected = Math.addExact(weightsOffset(nHidden),
+                        Math.multiplyExact(single ? 4L : 8L, parameterCount(units)));
+            } catch (ArithmeticException e) {
+                expected = Long.MAX_VALUE;
+            }
+            if (size != expected) {
+                throw new MLPException(String.format("Expected saved mlp of %s bytes but found %s", expected, size));
+            }
+
+            MultilayerPerceptron mlp = new MultilayerPerceptron(ni, hiddenUnits, types, no, randomState,
+                    learningRate, epochs, (flags & CLASSIFICATION) != 0, (flags & MULTI_CLASS) != 0, batchSize,
+                    single ? Precision.FLOAT : Precision.DOUBLE, false);
+
+            //Bulk copy from the mapping into the layers
+            if (single) {
+                FloatBuffer parameters = parameters(buffer, weightsOffset(nHidden)).asFloatBuffer();
+                for (FloatLayer layer : mlp.getFloatLayers()) {
+                    parameters.get(layer.getWeights());
+                    parameters.get(layer.getBiases());
+                }
+            } else {
+                DoubleBuffer parameters = parameters(buffer, weightsOffset(nHidden)).asDoubleBuffer();
+                for (Layer layer : mlp.getLayers()) {
+                    parameters.get(layer.getWeights());
+                    parameters.get(layer.getBiases());
+                }
+            }
+            return mlp;
+        }
+    }
+
+    /**
+     * @param nHidden number of hidden layers
+     * @return offset of the weights in the file
+     */
+    private static long weightsOffset(int nHidden) {
+        long end = HEADER_SIZE + 5L * nHidden;
+        return (end + 7) & ~7L;
+    }
+
+    /**
+     * @param mlp mlp
+     * @return units of the input layer, of each hidden layer and of the output layer
+     */
+    private static int[] units(MultilayerPerceptron mlp) {
+        boolean single = mlp.getPrecision() == Precision.FLOAT;
+        int depth = single ? mlp.getFloatLayers().length : mlp.getLayers().length;
+        int[] units = new int[depth + 1];
+        units[0] = mlp.getInputSize();
+        for (int l = 0; l < depth; l++) {
+            units[l + 1] = single ? mlp.getFloatLayers()[l].getOutputSize() : mlp.getLayers()[l].getOutputSize();
+        }
+        return units;
+    }
+
+    /**
+     * @param units units of every layer from the input layer to the output layer
+     * @return number of weights and biases of all the layers
+     * @throws ArithmeticException if the count overflows
+     */
+    private static long parameterCount(int[] units) {
+        //Exact arithmetic, as the units of a corrupt file can make the count overflow
+        long count = 0;
+        for (int l = 1; l < units.length; l++) {
+            count = Math.addExact(count, Math.addExact(Math.multiplyExact((long) units[l - 1], units[l]), units[l]));
+        }
+        return count;
+    }
+
+    /**
+     * View of the mapping from the given offset as little endian values
+     *
+     * @param buffer mapping of the file
+     * @param offset offset of the weights
+     * @return weights and biases of the file
+     */
+    private static ByteBuffer parameters(ByteBuffer buffer, long offset) {
+        //Casting to Buffer keeps the calls binary compatible with Java 8 where position isn't covariant
+        ((Buffer) buffer).position((int) offset);
+        return buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static byte typeCode(ActivationType type) {
+        for (int i = 0; i < TYPE_CODES.length; i++) {
+            if (TYPE_CODES[i] == type) {
+                return (byte) i;
+            }
+        }
+        throw new MLPException(String.format("Activation type %s can't be saved", type));
+    }
+
+    private static ActivationType activationType(byte code) {
+        if (code < 0 || code >= TYPE_CODES.length) {
+            throw new MLPException(String.format("Unknown activation type code in saved mlp: %s", code));
+        }
+        return TYPE_CODES[code];
+    }
+}
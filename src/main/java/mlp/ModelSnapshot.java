@@ -0,0 +1,49 @@
+package mlp;
+
+import mlp.layers.FloatLayer;
+import mlp.layers.Layer;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 22:40
+ * Purpose: Layers an mlp predicts with. By default they are the layers being trained. When snapshots are used (see
+ * `MultilayerPerceptron.setSnapshots`) they are copies which are never changed once published, and a prediction reads
+ * all its weights from the one snapshot it started with.
+ **/
+final class ModelSnapshot {
+    final Layer layers[]; //Layers of the mlp. Null for a single precision mlp.
+    final FloatLayer floatLayers[]; //Layers of a single precision mlp
+    final long version; //Number of snapshots published including this one. 0 for the layers being trained.
+
+    /**
+     * @param layers      layers of the mlp
+     * @param floatLayers layers of a single precision mlp
+     * @param version     number of snapshots published including this one
+     */
+    ModelSnapshot(Layer[] layers, FloatLayer[] floatLayers, long version) {
+        this.layers = layers;
+        this.floatLayers = floatLayers;
+        this.version = version;
+    }
+
+    /**
+     * @param layers      layers being trained
+     * @param floatLayers layers being trained of a single precision mlp
+     * @param version     number of snapshots published including this one
+     * @return snapshot with copies of the layers
+     */
+    static ModelSnapshot copyOf(Layer[] layers, FloatLayer[] floatLayers, long version) {
+        if (floatLayers != null) {
+            FloatLayer[] copies = new FloatLayer[floatLayers.length];
+            for (int l = 0; l < floatLayers.length; l++) {
+                copies[l] = floatLayers[l].copy();
+            }
+            return new ModelSnapshot(null, copies, version);
+        }
+        Layer[] copies = new Layer[layers.length];
+        for (int l = 0; l < layers.length; l++) {
+            copies[l] = layers[l].copy();
+        }
+        return new ModelSnapshot(copies, null, version);
+    }
+}
@@ -1,45 +1,88 @@
 package mlp;
 
 import mlp.activations.*;
+import mlp.data.DatasetFile;
+import mlp.distributed.RingCommunicator;
 import mlp.exceptions.MLPException;
+import mlp.kernels.MatrixKernels;
+import mlp.layers.DenseLayer;
+import mlp.layers.FloatDenseLayer;
+import mlp.layers.FloatLayer;
+import mlp.layers.FloatLayerWorkspace;
+import mlp.layers.Layer;
+import mlp.layers.LayerWorkspace;
+import mlp.listeners.EpochMetrics;
+import mlp.listeners.TrainingListener;
 import mlp.loss_functions.BinaryCrossEntropyLossFn;
 import mlp.loss_functions.CategoricalCrossEntropyLossFn;
 import mlp.loss_functions.LossFn;
 import mlp.loss_functions.SquaredErrorLossFn;
+import mlp.optimizers.Optimizer;
+import mlp.optimizers.SgdOptimizer;
+import mlp.schedules.ConstantSchedule;
+import mlp.schedules.LearningRateSchedule;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Created By: Prashant Chaubey
  * Created On: 23-03-2020 09:41
- * Purpose: Class that implements a multi layer perceptron with a single hidden layer
+ * Purpose: Class that implements a multi layer perceptron. It has a single hidden layer by default and can be built
+ * with any number of hidden layers.
  **/
 @SuppressWarnings("unused")
 public class MultilayerPerceptron {
     private int ni; //Number of input units
-    private int nh; //Number of hidden layer units
     private int no; //Number of output units
-    private ActivationFn hiddenActivationFn; //Activation function used in hidden layers
-    private ActivationFn outputActivationFn; //Activation function used in output layers
+    private Precision precision; //Floating point type of the weights and of the buffers
+    private Layer layers[]; //Hidden layers followed by the output layer. Null for a single precision mlp.
+    private FloatLayer floatLayers[]; //Hidden layers followed by the output layer of a single precision mlp
+    private final ModelSnapshot live; //Layers being trained, as a snapshot which is never copied
+    private volatile ModelSnapshot served; //Layers predictions are made with. `live` unless snapshots are used.
+    private boolean snapshots; //True if the predictions use snapshots published at the end of every epoch
+    private long snapshotVersion; //Number of snapshots published
     private LossFn lossFn; // Function to calculate loss between actual output and mlp predictions
     private int epochs; //Epochs to train the mlp
     private double learningRate; //Learning rate for the weight updates
-    private double w1[][]; //Weights of the lower layer
-    private double w2[][]; //Weights of the upper layer
-    private double dw1[][]; //Weight changes going to be applied to lower layer
-    private double dw2[][]; //Weight changes going to be applied to upper layer
-    private double b1[]; //Biases of the lower layer
-    private double b2[]; //Biases of the upper layer
-    private double db1[]; //Bias changes going to be applied to lower layer
-    private double db2[]; //Bias changes going to be applied to upper layer
-    private double z1[]; //Activations of the lower layer
-    private double z2[]; //Activations of the upper layer
-    private double input[]; //Contains value of input units
-    private double h[]; //Contains value of hidden units
-    private double o[]; //Contains value of the outputs
+    private BatchWorkspace workspace; //Buffers of the forward/backward pass on the calling thread. It also holds the
+    // weight/bias changes going to be applied to the layers.
     private int randomState; //Random state to control the outcomes of mlp
     private int batchSize; //Batch size for mini-batch gradient descent. If it is 1 then it is stochastic gradient
     // descent and if it is equal to size of the training data then it is batch gradient descent.
+    private int threads = 1; //Number of threads used to train on a mini-batch
+    private boolean shuffle; //True to visit the training samples in a different order in every epoch
+    private boolean hogwild; //True to train batches of one sample on many threads without locks
+    private Optimizer optimizer; //Rule updating the weights/biases from their changes
+    private LearningRateSchedule schedule = new ConstantSchedule(); //Learning rate of each epoch
+    private double rate; //Learning rate of the current epoch
+    private double validationX[][]; //Inputs of the held-out samples for early stopping. Null if it is not used.
+    private double validationY[][]; //Outputs of the held-out samples for early stopping
+    private int validationEvery; //Epochs between two checks of the validation loss
+    private int patience; //Checks without improvement of the validation loss before training stops
+    private WeightSnapshot best; //Weights/biases with the lowest validation loss so far
+    private double bestLoss; //Lowest validation loss so far
+    private int staleChecks; //Checks since the validation loss last improved
+    private int trainedEpochs; //Epochs run by the last call of `fit`
+    private final List<TrainingListener> listeners = new ArrayList<>(); //Receivers of the progress of `fit`
+    private boolean listening; //True if the current training measures its progress for the listeners
+    private RingCommunicator communicator; //Other workers of the current distributed training. Null otherwise.
+    private long epochStart; //Time at the start of the current epoch
+    private long updateNanos; //Time spent updating the weights/biases in the current epoch
+    private double gradientNorms; //Sum of the gradient norms of the batches of the current epoch
+    private int batches; //Number of batches in the current epoch
+    private ActivationType types[]; //Types of activation of the hidden layers
+    private boolean classification; //True if it is a classification problem
+    private boolean multiClass; //True if it is a multi-class classification problem
 
     /**
      * MLP for stochastic gradient descent (batch size = 1)
@@ -114,303 +157,1524 @@ public class MultilayerPerceptron {
      */
     public MultilayerPerceptron(int ni, int nh, int no, int randomState, double learningRate, int epochs,
                                 ActivationType type, boolean classification, boolean multiClass, int batchSize) {
+        this(ni, new int[]{nh}, new ActivationType[]{type}, no, randomState, learningRate, epochs, classification,
+                multiClass, batchSize);
+    }
+
+    /**
+     * MLP with any number of hidden layers for mini-batch gradient descent.
+     *
+     * @param ni             units in input layers
+     * @param hiddenUnits    units in each hidden layer from the lowest to the highest
+     * @param types          type of activation for each hidden layer
+     * @param no             units in output layers
+     * @param learningRate   learning rate for gradient descent
+     * @param epochs         number of epochs to run for training
+     * @param classification true if it is a classification problem
+     * @param multiClass     true if it is a multi-class classification problem
+     * @param batchSize      batch size of gradient descent
+     */
+    public MultilayerPerceptron(int ni, int[] hiddenUnits, ActivationType[] types, int no, double learningRate,
+                                int epochs, boolean classification, boolean multiClass, int batchSize) {
+        this(ni, hiddenUnits, types, no, new Random().nextInt(Integer.MAX_VALUE), learningRate, epochs,
+                classification, multiClass, batchSize);
+    }
+
+    /**
+     * MLP with any number of hidden layers for mini-batch gradient descent. We can pass a random state to make initial
+     * weight and bias initialization predictable.
+     *
+     * @param ni             units in input layers
+     * @param hiddenUnits    units in each hidden layer from the lowest to the highest
+     * @param types          type of activation for each hidden layer
+     * @param no             units in output layers
+     * @param randomState    seed for random initialization of weights and biases
+     * @param learningRate   learning rate for gradient descent
+     * @param epochs         number of epochs to run for training
+     * @param classification true if it is a classification problem
+     * @param multiClass     true if it is a multi-class classification problem
+     * @param batchSize      batch size of gradient descent
+     */
+    public MultilayerPerceptron(int ni, int[] hiddenUnits, ActivationType[] types, int no, int randomState,
+                                double learningRate, int epochs, boolean classification, boolean multiClass,
+                                int batchSize) {
+        this(ni, hiddenUnits, types, no, randomState, learningRate, epochs, classification, multiClass, batchSize,
+                Precision.DOUBLE);
+    }
+
+    /**
+     * MLP with any number of hidden layers for mini-batch gradient descent with the given precision. A single
+     * precision (`Precision.FLOAT`) mlp keeps its weights, biases, activations and weight changes in `float` arrays,
+     * which halves the memory traffic of training and prediction on large layers. Its layers are returned by
+     * `getFloatLayers`.
+     *
+     * @param ni             units in input layers
+     * @param hiddenUnits    units in each hidden layer from the lowest to the highest
+     * @param types          type of activation for each hidden layer
+     * @param no             units in output layers
+     * @param randomState    seed for random initialization of weights and biases
+     * @param learningRate   learning rate for gradient descent
+     * @param epochs         number of epochs to run for training
+     * @param classification true if it is a classification problem
+     * @param multiClass     true if it is a multi-class classification problem
+     * @param batchSize      batch size of gradient descent
+     * @param precision      floating point type of the weights and of the buffers
+     */
+    public MultilayerPerceptron(int ni, int[] hiddenUnits, ActivationType[] types, int no, int randomState,
+                                double learningRate, int epochs, boolean classification, boolean multiClass,
+                                int batchSize, Precision precision) {
+        this(ni, hiddenUnits, types, no, randomState, learningRate, epochs, classification, multiClass, batchSize,
+                precision, true);
+    }
+
+    /**
+     * MLP with any number of hidden layers. Used by `load` to create the mlp without initializing the weights and
+     * biases which are read from the file.
+     *
+     * @param randomise true to randomly initialize weights and biases
+     */
+    MultilayerPerceptron(int ni, int[] hiddenUnits, ActivationType[] types, int no, int randomState,
+                         double learningRate, int epochs, boolean classification, boolean multiClass, int batchSize,
+                         Precision precision, boolean randomise) {
+        if (hiddenUnits.length != types.length) {
+            throw new MLPException(String.format("Expected an activation type for each of the %s hidden layers but " +
+                    "found %s", hiddenUnits.length, types.length));
+        }
         this.ni = ni;
-        this.nh = nh;
         this.no = no;
+        this.precision = precision;
         this.randomState = randomState;
-        this.hiddenActivationFn = this.getActivation(type);
+        this.types = types.clone();
+        this.classification = classification;
+        this.multiClass = multiClass;
+
+        //Choosing loss function and outer layer activation according to the problem (regression, binary/multi-label
+        //classification, multi-class classification)
+        ActivationFn outputActivationFn;
+        if (!classification) {
+            //Regression
+            outputActivationFn = new LinearActivationFn();
+            this.lossFn = new SquaredErrorLossFn();
+        } else if (multiClass) {
+            //Multi-class classification
+            outputActivationFn = new SoftmaxActivationFn();
+            this.lossFn = new CategoricalCrossEntropyLossFn();
+        } else {
+            //Multi-label/binary classification
+            outputActivationFn = new SigmoidActivationFn();
+            this.lossFn = new BinaryCrossEntropyLossFn();
+        }
+
+        //Stack of hidden layers followed by the output layer
+        if (precision == Precision.FLOAT) {
+            this.floatLayers = new FloatLayer[hiddenUnits.length + 1];
+            int below = ni;
+            for (int i = 0; i < hiddenUnits.length; i++) {
+                this.floatLayers[i] = new FloatDenseLayer(below, hiddenUnits[i], this.getActivation(types[i]));
+                below = hiddenUnits[i];
+            }
+            this.floatLayers[hiddenUnits.length] = new FloatDenseLayer(below, no, outputActivationFn);
+        } else {
+            this.layers = new Layer[hiddenUnits.length + 1];
+            int below = ni;
+            for (int i = 0; i < hiddenUnits.length; i++) {
+                this.layers[i] = new DenseLayer(below, hiddenUnits[i], this.getActivation(types[i]));
+                below = hiddenUnits[i];
+            }
+            this.layers[hiddenUnits.length] = new DenseLayer(below, no, outputActivationFn);
+        }
+
+        this.batchSize = batchSize;
+        this.epochs = epochs;
+        this.learningRate = learningRate;
+        this.rate = learningRate;
+        this.workspace = this.newWorkspace(1); //Grows to the size of the batches in `fit`
+        this.live = new ModelSnapshot(this.layers, this.floatLayers, 0);
+        this.served = this.live;
+        this.setOptimizer(new SgdOptimizer());
+        if (randomise) {
+            randomise();
+        }
+    }
+
+    /**
+     * Set the number of threads used for training. Every mini-batch is split into one slice per thread and each thread
+     * accumulates the weight/bias changes of its slice in its own buffers. The buffers are added up in a fixed order
+     * before the weights are updated, so for the same random state and number of threads the results are the same
+     * from run to run. Only used for mini-batches of more than one sample.
+     *
+     * @param threads number of threads
+     */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new MLPException(String.format("Number of threads should be at least 1 but found %s", threads));
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Train without locks (Hogwild) when the batch size is 1 and more than one thread is set. The samples of every
+     * epoch are split into one shard per thread and each thread trains on its shard with its own buffers, adding its
+     * changes straight into the shared weights/biases after each sample. The threads can overwrite each other's
+     * changes now and then, which costs little as each change is small, and in exchange there is no synchronization
+     * between the samples. Only plain gradient descent (`SgdOptimizer`) can be used, as the state of the other
+     * optimizers can't be shared without locks. Unlike the other modes the result depends on the scheduling of the
+     * threads, so it isn't the same from run to run. Data-sets on disk are always trained on a single thread.
+     *
+     * @param hogwild true to train without locks
+     */
+    public void setHogwild(boolean hogwild) {
+        this.hogwild = hogwild;
+    }
+
+    /**
+     * Predict with snapshots of the weights, so that the mlp can keep serving predictions from other threads while
+     * `fit` trains it. The predictions then read a copy of the weights which is never changed, and `fit` publishes a
+     * new copy at the end of every epoch (and once more when early stopping restores the best weights). A prediction
+     * reads all its weights from the snapshot published when it started, so it never waits for the training and never
+     * mixes the weights of two epochs. A snapshot is published when they are enabled, and `publishSnapshot` publishes
+     * changes made directly to the weights. Without snapshots the predictions read the weights being trained and
+     * nothing is copied.
+     *
+     * @param snapshots true to predict with snapshots of the weights
+     */
+    public void setSnapshots(boolean snapshots) {
+        this.snapshots = snapshots;
+        if (snapshots) {
+            this.publishSnapshot();
+        } else {
+            this.served = this.live;
+        }
+    }
+
+    /**
+     * Copy the weights being trained into a new snapshot and make the predictions use it from now on. The previous
+     * snapshot isn't changed, so the predictions already using it finish with it.
+     */
+    public void publishSnapshot() {
+        if (!this.snapshots) {
+            throw new MLPException("Snapshots are not used. Enable them with setSnapshots(true)");
+        }
+        this.served = ModelSnapshot.copyOf(this.layers, this.floatLayers, ++this.snapshotVersion);
+    }
+
+    /**
+     * @return number of snapshots published so far that the predictions use, 0 if they use the weights being trained
+     */
+    public long getSnapshotVersion() {
+        return this.served.version;
+    }
+
+    /**
+     * Visit the training samples of `fit` in a new random order in every epoch. The order is drawn from the random
+     * state of the mlp, so it is the same from run to run. Data-sets on disk are always read in the order of the file
+     * to keep the reads sequential.
+     *
+     * @param shuffle true to shuffle the samples in every epoch
+     */
+    public void setShuffle(boolean shuffle) {
+        this.shuffle = shuffle;
+    }
+
+    /**
+     * Set the rule used to update the weights/biases after each batch. Plain gradient descent is used by default. The
+     * optimizer allocates its state for the layers of this mlp, so it shouldn't be shared with another mlp.
+     *
+     * @param optimizer optimizer
+     */
+    public void setOptimizer(Optimizer optimizer) {
+        //The weights and the biases of each layer are separate slots
+        int[] sizes = new int[2 * this.depth()];
+        for (int l = 0; l < this.depth(); l++) {
+            sizes[2 * l] = this.inputSize(l) * this.outputSize(l);
+            sizes[2 * l + 1] = this.outputSize(l);
+        }
+        optimizer.initialize(sizes);
+        this.optimizer = optimizer;
+    }
+
+    /**
+     * Set the rule giving the learning rate of each epoch. The learning rate of the mlp is used as the base rate of
+     * the schedule. A constant learning rate is used by default.
+     *
+     * @param schedule learning rate schedule
+     */
+    public void setLearningRateSchedule(LearningRateSchedule schedule) {
+        this.schedule = schedule;
+    }
+
+    /**
+     * Monitor the loss on held-out samples during `fit` and stop when it stops improving. The weights/biases with the
+     * lowest validation loss are kept in a snapshot allocated here and are restored at the end of the training.
+     *
+     * @param x        inputs of the held-out samples
+     * @param y        outputs of the held-out samples
+     * @param every    epochs between two checks of the validation loss
+     * @param patience checks without improvement before training stops
+     */
+    public void setEarlyStopping(double[][] x, double[][] y, int every, int patience) {
+        if (x.length != y.length || x.length == 0) {
+            throw new MLPException(String.format("Expected the same non-zero number of validation inputs and outputs " +
+                    "but found %s and %s", x.length, y.length));
+        }
+        if (every < 1 || patience < 1) {
+            throw new MLPException(String.format("Validation interval and patience should be at least 1 but found " +
+                    "%s and %s", every, patience));
+        }
+        this.validationX = x;
+        this.validationY = y;
+        this.validationEvery = every;
+        this.patience = patience;
+        this.best = this.floatLayers != null ? new WeightSnapshot(this.floatLayers) : new WeightSnapshot(this.layers);
+    }
+
+    /**
+     * Add a receiver of the progress of `fit`. Nothing is measured or reported when there is no listener.
+     *
+     * @param listener listener
+     */
+    public void addListener(TrainingListener listener) {
+        this.listeners.add(listener);
+    }
+
+    /**
+     * @param listener listener added before
+     */
+    public void removeListener(TrainingListener listener) {
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * @return epochs run by the last call of `fit`. Less than the epochs of the mlp if training stopped early.
+     */
+    public int getTrainedEpochs() {
+        return this.trainedEpochs;
+    }
+
+    /**
+     * Layers of the mlp: the hidden layers from the lowest to the highest followed by the output layer. The layers
+     * are the ones used by the mlp and not copies.
+     *
+     * @return layers of the mlp
+     */
+    public Layer[] getLayers() {
+        if (this.layers == null) {
+            throw new MLPException("The layers of a single precision mlp are returned by getFloatLayers");
+        }
+        return this.layers;
+    }
+
+    /**
+     * Layers of a single precision mlp in the same order as `getLayers`
+     *
+     * @return layers of the mlp
+     */
+    public FloatLayer[] getFloatLayers() {
+        if (this.floatLayers == null) {
+            throw new MLPException("The layers of a double precision mlp are returned by getLayers");
+        }
+        return this.floatLayers;
+    }
+
+    /**
+     * @return floating point type of the weights and of the buffers
+     */
+    public Precision getPrecision() {
+        return this.precision;
+    }
+
+    /**
+     * @return number of input units
+     */
+    public int getInputSize() {
+        return this.ni;
+    }
+
+    /**
+     * @return number of output units
+     */
+    public int getOutputSize() {
+        return this.no;
+    }
+
+    /**
+     * @return types of activation of the hidden layers from the lowest to the highest
+     */
+    public ActivationType[] getHiddenActivationTypes() {
+        return this.types.clone();
+    }
+
+    /**
+     * @return true if it is a classification problem
+     */
+    public boolean isClassification() {
+        return this.classification;
+    }
+
+    /**
+     * @return true if it is a multi-class classification problem
+     */
+    public boolean isMultiClass() {
+        return this.multiClass;
+    }
+
+    /**
+     * @return seed used for random initialization of weights and biases
+     */
+    public int getRandomState() {
+        return this.randomState;
+    }
+
+    /**
+     * @return learning rate for gradient descent
+     */
+    public double getLearningRate() {
+        return this.learningRate;
+    }
+
+    /**
+     * @return number of epochs to run for training
+     */
+    public int getEpochs() {
+        return this.epochs;
+    }
+
+    /**
+     * @return batch size of gradient descent
+     */
+    public int getBatchSize() {
+        return this.batchSize;
+    }
+
+    /**
+     * Save the configuration, weights and biases of this mlp in a binary file. See `ModelSerializer` for the format.
+     *
+     * @param path file to write. It is overwritten if it exists.
+     * @throws IOException if the file can't be written
+     */
+    public void save(Path path) throws IOException {
+        ModelSerializer.save(this, path);
+    }
+
+    /**
+     * Load an mlp saved with `save`. The file is memory mapped and the weights and biases are copied in bulk from the
+     * mapping into the layers without any parsing.
+     *
+     * @param path file to read
+     * @return mlp with the saved configuration, weights and biases
+     * @throws IOException if the file can't be read
+     */
+    public static MultilayerPerceptron load(Path path) throws IOException {
+        return ModelSerializer.load(path);
+    }
+
+    /**
+     * Get activation function from the given type
+     *
+     * @param type type of the activation function
+     * @return activation function
+     */
+    private ActivationFn getActivation(ActivationType type) {
+        switch (type) {
+            case RELU:
+                return new ReluActivationFn();
+            case SIGMOID:
+                return new SigmoidActivationFn();
+            case LINEAR:
+                return new LinearActivationFn();
+            case TANH:
+                return new TanhActivationFn();
+            case LEAKY_RELU:
+                return new LeakyReluActivationFn();
+            case FAST_TANH:
+                return new FastTanhActivationFn();
+            case FAST_SIGMOID:
+                return new FastSigmoidActivationFn();
+        }
+        throw new MLPException(String.format("Type: %s cannot be applied as an activation for hidden layers", type));
+    }
+
+    /**
+     * Method to initialize the weights of the mlp to small random values. This randomization is controlled by
+     * variable `randomState`. Same values of it will cause same weight initialization
+     * <p>
+     * Xavier initialization is used. REF: http://proceedings.mlr.press/v9/glorot10a/glorot10a.pdf
+     */
+    private void randomise() {
+        Random random = new Random(this.randomState);
+
+        for (int l = 0; l < this.depth(); l++) {
+            //The factor depends on the activation of the hidden units. The output layer uses the one of the highest
+            //hidden layer.
+            ActivationFn activationFn = this.activationFn(Math.max(0, Math.min(l, this.depth() - 2)));
+            double factor = 6;
+            if (activationFn instanceof SigmoidActivationFn || activationFn instanceof FastSigmoidActivationFn) {
+                factor = 2;
+            }
+
+            //Bound for weights between the layer below and this layer. Xavier Initialization
+            double initBound = Math.sqrt(factor / (this.inputSize(l) + this.outputSize(l)));
+
+            //Random values for weights and then biases of the layer. A single precision mlp draws the same values
+            //rounded to float.
+            if (this.floatLayers != null) {
+                uniform(this.floatLayers[l].getWeights(), random, initBound);
+                uniform(this.floatLayers[l].getBiases(), random, initBound);
+            } else {
+                uniform(this.layers[l].getWeights(), random, initBound);
+                uniform(this.layers[l].getBiases(), random, initBound);
+            }
+        }
+    }
+
+    /**
+     * Fill an array with random values between (-bound, bound)
+     *
+     * @param values array to fill
+     * @param random source of randomness
+     * @param bound  bound of the values
+     */
+    private static void uniform(double[] values, Random random, double bound) {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (random.nextDouble() * (bound - (-bound))) + (-bound);
+        }
+    }
+
+    /**
+     * Fill a single precision array with random values between (-bound, bound)
+     *
+     * @param values array to fill
+     * @param random source of randomness
+     * @param bound  bound of the values
+     */
+    private static void uniform(float[] values, Random random, double bound) {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (float) ((random.nextDouble() * (bound - (-bound))) + (-bound));
+        }
+    }
+
+    /**
+     * @return number of layers including the output layer
+     */
+    private int depth() {
+        return this.floatLayers != null ? this.floatLayers.length : this.layers.length;
+    }
+
+    /**
+     * @param l index of a layer
+     * @return units in the layer below the layer
+     */
+    private int inputSize(int l) {
+        return this.floatLayers != null ? this.floatLayers[l].getInputSize() : this.layers[l].getInputSize();
+    }
+
+    /**
+     * @param l index of a layer
+     * @return units in the layer
+     */
+    private int outputSize(int l) {
+        return this.floatLayers != null ? this.floatLayers[l].getOutputSize() : this.layers[l].getOutputSize();
+    }
+
+    /**
+     * @param l index of a layer
+     * @return activation function of the layer
+     */
+    private ActivationFn activationFn(int l) {
+        return this.floatLayers != null ? this.floatLayers[l].getActivationFn() : this.layers[l].getActivationFn();
+    }
+
+    /**
+     * Forward pass of the mlp. This and the other steps of training are package-private so that the benchmarks in
+     * `src/jmh/java` can measure them on their own.
+     *
+     * @param input input applied to the mlp
+     */
+    void forward(double[] input) {
+        if (input.length != this.ni) {
+            throw new MLPException(String.format("Expected no of units in input: %s but found %s", this.ni, input.length));
+        }
+
+        //Save the input for calculations during back-propagation
+        this.gather(this.workspace, input, 0);
+        this.forward(this.workspace, 1);
+    }
+
+    /**
+     * Backward propagation of the mlp
+     *
+     * @param target target values for mlp
+     */
+    void backward(double[] target) {
+        this.outputDeltas(this.workspace, target, 0);
+        this.backward(this.workspace, 1);
+    }
+
+    /**
+     * Forward pass of the mlp for a whole batch. The batch goes through every layer as matrix-matrix products.
+     *
+     * @param workspace buffers for the batch
+     * @param x         inputs
+     * @param order     indices of the samples in the order they are visited
+     * @param from      position in `order` of the first sample of the batch
+     * @param nSamples  number of samples in the batch
+     */
+    void forwardBatch(BatchWorkspace workspace, double[][] x, int[] order, int from, int nSamples) {
+        //Gather the samples of the batch into one contiguous matrix
+        for (int r = 0; r < nSamples; r++) {
+            double[] input = x[order[from + r]];
+            if (input.length != this.ni) {
+                throw new MLPException(String.format("Expected no of units in input: %s but found %s", this.ni,
+                        input.length));
+            }
+            this.gather(workspace, input, r);
+        }
+        this.forward(workspace, nSamples);
+    }
+
+    /**
+     * Copy an input into a row of the inputs of a workspace. It is rounded to float for a single precision mlp.
+     *
+     * @param workspace buffers for the batch
+     * @param input     input of a sample
+     * @param r         index of the sample in the workspace
+     */
+    private void gather(BatchWorkspace workspace, double[] input, int r) {
+        if (workspace.floatInput != null) {
+            int row = r * this.ni;
+            for (int i = 0; i < this.ni; i++) {
+                workspace.floatInput[row + i] = (float) input[i];
+            }
+        } else {
+            System.arraycopy(input, 0, workspace.input, r * this.ni, this.ni);
+        }
+    }
+
+    /**
+     * Backward propagation of the mlp for a whole batch. The weight/bias changes of all the samples are accumulated
+     * into the workspace in a single pass.
+     *
+     * @param workspace buffers for the batch filled by `forwardBatch`
+     * @param y         targets
+     * @param order     indices of the samples in the order they are visited
+     * @param from      position in `order` of the first sample of the batch
+     * @param nSamples  number of samples in the batch
+     * @return sum of the losses of the samples in the batch, found along with the deltas of the output layer
+     */
+    double backwardBatch(BatchWorkspace workspace, double[][] y, int[] order, int from, int nSamples) {
+        double loss = 0;
+        for (int r = 0; r < nSamples; r++) {
+            loss += this.outputDeltas(workspace, y[order[from + r]], r);
+        }
+        this.backward(workspace, nSamples);
+        return loss;
+    }
+
+    /**
+     * Forward pass through every layer of the inputs in the workspace
+     *
+     * @param workspace buffers holding the inputs
+     * @param nSamples  number of samples in the workspace
+     */
+    private void forward(BatchWorkspace workspace, int nSamples) {
+        if (this.floatLayers != null) {
+            float[] x = workspace.floatInput;
+            for (int l = 0; l < this.floatLayers.length; l++) {
+                FloatLayerWorkspace layerWorkspace = workspace.floatLayers[l];
+                this.floatLayers[l].forward(x, layerWorkspace.z, layerWorkspace.a, nSamples);
+                x = layerWorkspace.a;
+            }
+            return;
+        }
+        double[] x = workspace.input;
+        for (int l = 0; l < this.layers.length; l++) {
+            LayerWorkspace layerWorkspace = workspace.layers[l];
+            this.layers[l].forward(x, layerWorkspace.z, layerWorkspace.a, nSamples);
+            x = layerWorkspace.a;
+        }
+    }
+
+    /**
+     * Delta of the output layer for a sample
+     *
+     * @param workspace buffers holding the outputs
+     * @param target    target values of the sample
+     * @param r         index of the sample in the workspace
+     * @return loss of the sample
+     */
+    private double outputDeltas(BatchWorkspace workspace, double[] target, int r) {
+        if (target.length != this.no) {
+            throw new MLPException(String.format("Expected no of units in target: %s but found %s",
+                    this.no, target.length));
+        }
+
+        //The combinations used in the code: linear activation + squared error loss for regression ,
+        //sigmoid/logistic activation + binary cross entropy for binary and multi-label classification, and
+        //softmax activation + categorical cross entropy for multi-class classification result in the delta
+        //target - output for last layer after further calculation and simplification. The loss function computes it
+        //along with the loss.
+        //Ref: https://www.ics.uci.edu/~pjsadows/notes.pdf
+        //NOTE: In actual formula their is a minus (-) sign in front of the delta but while applying the weight
+        //changes we will use addition in place of subtraction and the minus sign of learning rate is cancelled by
+        //this negative sign.
+        int row = r * this.no;
+        if (this.floatLayers != null) {
+            FloatLayerWorkspace output = workspace.floatOutput();
+            return this.lossFn.calculateWithDelta(output.z, output.a, row, target, output.delta);
+        }
+        LayerWorkspace output = workspace.output();
+        return this.lossFn.calculateWithDelta(output.z, output.a, row, target, output.delta);
+    }
+
+    /**
+     * Backward propagation through every layer starting from the deltas of the output layer. The weight/bias changes
+     * are accumulated into the workspace.
+     *
+     * @param workspace buffers filled by the forward pass and holding the deltas of the output layer
+     * @param nSamples  number of samples in the workspace
+     */
+    private void backward(BatchWorkspace workspace, int nSamples) {
+        if (this.floatLayers != null) {
+            for (int l = this.floatLayers.length - 1; l >= 0; l--) {
+                FloatLayerWorkspace layerWorkspace = workspace.floatLayers[l];
+                float[] x = l == 0 ? workspace.floatInput : workspace.floatLayers[l - 1].a;
+                this.floatLayers[l].accumulateChanges(x, layerWorkspace, nSamples);
+                if (l > 0) {
+                    this.floatLayers[l].backpropagate(layerWorkspace, this.floatLayers[l - 1],
+                            workspace.floatLayers[l - 1], nSamples);
+                }
+            }
+            return;
+        }
+        for (int l = this.layers.length - 1; l >= 0; l--) {
+            LayerWorkspace layerWorkspace = workspace.layers[l];
+            double[] x = l == 0 ? workspace.input : workspace.layers[l - 1].a;
+            //Weight/bias difference of the layer
+            this.layers[l].accumulateChanges(x, layerWorkspace, nSamples);
+            //Delta for the layer below
+            if (l > 0) {
+                this.layers[l].backpropagate(layerWorkspace, this.layers[l - 1], workspace.layers[l - 1], nSamples);
+            }
+        }
+    }
+
+    /**
+     * Function to update the weights/biases for the mlp from with the weight/bias changes
+     *
+     * @param nSamples number of samples on which weight/bias changes are accumulated
+     */
+    void updateWeights(int nSamples) {
+        //The optimizer applies the changes and resets them to zeroes in the same pass, so every weight and its change
+        //are read and written once. The buffers of the changes are reused for the next batch.
+        long start = 0;
+        if (this.listening) {
+            this.gradientNorms += gradientNorm(this.workspace, nSamples);
+            this.batches++;
+            start = System.nanoTime();
+        }
+        this.optimizer.nextStep();
+        if (this.floatLayers != null) {
+            for (int l = 0; l < this.floatLayers.length; l++) {
+                this.optimizer.update(2 * l, this.floatLayers[l].getWeights(), this.workspace.floatLayers[l].dw,
+                        nSamples, this.rate);
+                this.optimizer.update(2 * l + 1, this.floatLayers[l].getBiases(), this.workspace.floatLayers[l].db,
+                        nSamples, this.rate);
+            }
+        } else {
+            for (int l = 0; l < this.layers.length; l++) {
+                this.optimizer.update(2 * l, this.layers[l].getWeights(), this.workspace.layers[l].dw, nSamples,
+                        this.rate);
+                this.optimizer.update(2 * l + 1, this.layers[l].getBiases(), this.workspace.layers[l].db, nSamples,
+                        this.rate);
+            }
+        }
+        if (this.listening) {
+            this.updateNanos += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * L2 norm of the gradient of all the weights/biases for the changes accumulated in a workspace
+     *
+     * @param workspace workspace holding the changes
+     * @param nSamples  number of samples on which weight/bias changes are accumulated
+     * @return norm of the gradient
+     */
+    private static double gradientNorm(BatchWorkspace workspace, int nSamples) {
+        double sum = 0;
+        if (workspace.floatLayers != null) {
+            for (FloatLayerWorkspace layerWorkspace : workspace.floatLayers) {
+                for (double change : layerWorkspace.dw) {
+                    sum += change * change;
+                }
+                for (double change : layerWorkspace.db) {
+                    sum += change * change;
+                }
+            }
+            return Math.sqrt(sum) / nSamples;
+        }
+        for (LayerWorkspace layerWorkspace : workspace.layers) {
+            for (double change : layerWorkspace.dw) {
+                sum += change * change;
+            }
+            for (double change : layerWorkspace.db) {
+                sum += change * change;
+            }
+        }
+        return Math.sqrt(sum) / nSamples;
+    }
+
+    /**
+     * The method to train the mlp with a particular input and output. Each mini-batch goes through the mlp as
+     * matrix-matrix products. On a single thread it gives the same weights as training sample by sample.
+     *
+     * @param x input
+     * @param y output
+     */
+    public void fit(double x[][], double y[][]) {
+        if (x.length != y.length) {
+            throw new MLPException(String.format("The length of input and output is not same %s != %s", x.length,
+                    y.length));
+        }
+        if (x.length == 0) {
+            throw new MLPException("No samples to train on");
+        }
+        if (this.hogwild && this.batchSize == 1 && this.threads > 1 && x.length > 1) {
+            this.fitHogwild(x, y);
+            return;
+        }
+
+        int capacity = Math.min(this.batchSize, x.length);
+        BatchWorkspace[] workspaces = this.createWorkspaces(capacity);
+        ExecutorService executor = workspaces.length > 1 ? Executors.newFixedThreadPool(workspaces.length) : null;
+        //Order in which the samples are visited. Only this permutation is shuffled and the batches are gathered
+        //through it, so the samples themselves are never moved.
+        int[] order = identity(x.length);
+        Random shuffler = new Random(this.randomState);
+
+        try {
+            this.startTraining();
+            for (int epoch = 1; epoch <= this.epochs; epoch++) {
+                //Start of an epoch
+                this.startEpoch(epoch, workspaces);
+                if (this.shuffle) {
+                    shuffle(order, shuffler);
+                }
+                double loss = 0;
+                //For each batch. The last batch has the residual samples when the number of training samples are not
+                //exactly divided by the batch size.
+                for (int from = 0; from < x.length; from += capacity) {
+                    int nSamples = Math.min(capacity, x.length - from);
+                    loss += this.trainBatch(executor, workspaces, x, y, order, from, nSamples);
+                    //Update the weights with the changes
+                    updateWeights(nSamples);
+                }
+                if (this.endEpoch(epoch, loss / x.length, x.length, workspaces)) {
+                    break;
+                }
+            }
+            this.finishTraining();
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Train the mlp on samples of one sample per batch with a thread per shard of the samples and no locks (see
+     * `setHogwild`)
+     *
+     * @param x input
+     * @param y output
+     */
+    private void fitHogwild(double x[][], double y[][]) {
+        if (!(this.optimizer instanceof SgdOptimizer)) {
+            throw new MLPException("Hogwild training only supports the SgdOptimizer");
+        }
+        int nWorkers = Math.min(this.threads, x.length);
+        BatchWorkspace[] workspaces = new BatchWorkspace[nWorkers];
+        workspaces[0] = this.workspace;
+        for (int i = 1; i < nWorkers; i++) {
+            workspaces[i] = this.newWorkspace(1);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(nWorkers);
+        int[] order = identity(x.length);
+        Random shuffler = new Random(this.randomState);
+
+        try {
+            this.startTraining();
+            for (int epoch = 1; epoch <= this.epochs; epoch++) {
+                this.startEpoch(epoch, workspaces);
+                if (this.shuffle) {
+                    shuffle(order, shuffler);
+                }
+                List<Callable<Double>> tasks = new ArrayList<>(nWorkers);
+                for (int i = 0; i < nWorkers; i++) {
+                    BatchWorkspace workspace = workspaces[i];
+                    int from = (int) ((long) x.length * i / nWorkers);
+                    int to = (int) ((long) x.length * (i + 1) / nWorkers);
+                    tasks.add(() -> this.hogwildShard(workspace, x, y, order, from, to));
+                }
+                double loss = 0;
+                try {
+                    for (Future<Double> result : executor.invokeAll(tasks)) {
+                        loss += result.get();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new MLPException("Interrupted while training");
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof MLPException) {
+                        throw (MLPException) e.getCause();
+                    }
+                    throw new MLPException("Training failed: " + e.getCause());
+                }
+                if (this.listening) {
+                    //Every sample is a batch of its own
+                    for (BatchWorkspace workspace : workspaces) {
+                        this.updateNanos += workspace.updateNanos;
+                        this.gradientNorms += workspace.gradientNorms;
+                    }
+                    this.batches = x.length;
+                }
+                if (this.endEpoch(epoch, loss / x.length, x.length, workspaces)) {
+                    break;
+                }
+            }
+            this.finishTraining();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 
-        //Choosing loss function and outer layer activation according to the problem (regression, binary/multi-label
-        //classification, multi-class classification)
-        if (!classification) {
-            //Regression
-            this.outputActivationFn = new LinearActivationFn();
-            this.lossFn = new SquaredErrorLossFn();
-        } else if (multiClass) {
-            //Multi-class classification
-            this.outputActivationFn = new SoftmaxActivationFn();
-            this.lossFn = new CategoricalCrossEntropyLossFn();
-        } else {
-            //Multi-label/binary classification
-            this.outputActivationFn = new SigmoidActivationFn();
-            this.lossFn = new BinaryCrossEntropyLossFn();
+    /**
+     * Train on a shard of the samples one sample at a time, adding the changes of every sample straight into the
+     * shared weights/biases
+     *
+     * @param workspace buffers of the thread
+     * @param x         input
+     * @param y         output
+     * @param order     indices of the samples in the order they are visited
+     * @param from      position in `order` of the first sample of the shard
+     * @param to        position in `order` after the last sample of the shard
+     * @return sum of the losses of the samples of the shard
+     */
+    private double hogwildShard(BatchWorkspace workspace, double[][] x, double[][] y, int[] order, int from, int to) {
+        double rate = this.rate;
+        double loss = 0;
+        for (int i = from; i < to; i++) {
+            loss += this.passBatch(workspace, x, y, order, i, 1);
+            long start = 0;
+            if (this.listening) {
+                workspace.gradientNorms += gradientNorm(workspace, 1);
+                start = System.nanoTime();
+            }
+            if (this.floatLayers != null) {
+                for (int l = 0; l < this.floatLayers.length; l++) {
+                    sparseStep(this.floatLayers[l].getWeights(), workspace.floatLayers[l].dw, rate);
+                    sparseStep(this.floatLayers[l].getBiases(), workspace.floatLayers[l].db, rate);
+                }
+            } else {
+                for (int l = 0; l < this.layers.length; l++) {
+                    sparseStep(this.layers[l].getWeights(), workspace.layers[l].dw, rate);
+                    sparseStep(this.layers[l].getBiases(), workspace.layers[l].db, rate);
+                }
+            }
+            if (this.listening) {
+                workspace.updateNanos += System.nanoTime() - start;
+            }
         }
+        return loss;
+    }
 
-        this.batchSize = batchSize;
-        this.epochs = epochs;
-        this.learningRate = learningRate;
-        this.input = new double[ni];
-        this.h = new double[nh];
-        this.z1 = new double[nh];
-        this.o = new double[no];
-        this.z2 = new double[no];
-        this.w1 = new double[ni][nh];
-        this.dw1 = new double[ni][nh]; //All values will be zero by default
-        this.w2 = new double[nh][no];
-        this.dw2 = new double[nh][no]; //All values will be zero by default
-        this.b1 = new double[nh];
-        this.db1 = new double[nh]; //All values will be zero by default
-        this.b2 = new double[no];
-        this.db2 = new double[no]; //All values will be zero by default
-        randomise();
+    /**
+     * Gradient descent step of a single sample which only writes the parameters whose change isn't 0 (e.g. the
+     * weights of inputs or relu units at 0), so that threads sharing the parameters don't invalidate each other's
+     * cache lines for nothing. The changes are reset to zeroes.
+     *
+     * @param w            shared parameters
+     * @param dw           changes of the sample
+     * @param learningRate learning rate
+     */
+    private static void sparseStep(double[] w, double[] dw, double learningRate) {
+        for (int i = 0; i < w.length; i++) {
+            if (dw[i] != 0) {
+                w[i] += learningRate * dw[i];
+                dw[i] = 0;
+            }
+        }
     }
 
     /**
-     * Get activation function from the given type
+     * Single precision version of `sparseStep(double[], double[], double)`
      *
-     * @param type type of the activation function
-     * @return activation function
+     * @param w            shared parameters
+     * @param dw           changes of the sample
+     * @param learningRate learning rate
      */
-    private ActivationFn getActivation(ActivationType type) {
-        switch (type) {
-            case RELU:
-                return new ReluActivationFn();
-            case SIGMOID:
-                return new SigmoidActivationFn();
-            case LINEAR:
-                return new LinearActivationFn();
-            case TANH:
-                return new TanhActivationFn();
-            case LEAKY_RELU:
-                return new LeakyReluActivationFn();
+    private static void sparseStep(float[] w, float[] dw, double learningRate) {
+        for (int i = 0; i < w.length; i++) {
+            if (dw[i] != 0) {
+                w[i] += learningRate * dw[i];
+                dw[i] = 0;
+            }
         }
-        throw new MLPException(String.format("Type: %s cannot be applied as an activation for hidden layers", type));
     }
 
     /**
-     * Method to initialize the weights of the mlp to small random values. This randomization is controlled by
-     * variable `randomState`. Same values of it will cause same weight initialization
+     * Train the mlp together with other processes (data-parallel). Each worker trains on its own shard of the samples
+     * and the workers join a ring through a `Coordinator` (see `RingCommunicator.join`). In every step each worker
+     * does the forward and backward pass of a batch of its shard, the weight/bias changes of all the workers and
+     * their losses are summed with a ring all-reduce and every worker applies the same update, so the workers keep
+     * the same weights. With a batch size of b and n workers this is the same training as a single process with
+     * batches of n * b samples, one slice of b samples from each shard, up to the order in which the changes are
+     * added up.
      * <p>
-     * Xavier initialization is used. REF: http://proceedings.mlr.press/v9/glorot10a/glorot10a.pdf
+     * The weights of the worker of rank 0 are copied to the others before training. Every worker must be built with
+     * the same layers, batch size, optimizer and schedule. With early stopping the validation loss is the mean over
+     * the held-out samples of all the workers, so each worker can hold a different part of them. Shuffling uses the
+     * seed of the coordinator and the rank of the worker. Threads (`setThreads`) are used within each worker as in
+     * `fit`.
+     *
+     * @param x            input of the shard of this worker
+     * @param y            output of the shard of this worker
+     * @param communicator connection to the other workers
+     * @throws IOException if another worker can't be reached
      */
-    private void randomise() {
-        double factor = 6;
-        if (hiddenActivationFn instanceof SigmoidActivationFn) {
-            factor = 2;
+    public void fit(double x[][], double y[][], RingCommunicator communicator) throws IOException {
+        if (x.length != y.length) {
+            throw new MLPException(String.format("The length of input and output is not same %s != %s", x.length,
+                    y.length));
+        }
+        if (x.length == 0) {
+            throw new MLPException("No samples to train on");
         }
 
-        //Bound for weights between input and hidden layer. Xavier Initialization
-        double initBound = Math.sqrt(factor / (this.ni + this.nh));
-        Random random = new Random(this.randomState);
+        this.communicator = communicator;
+        try {
+            //Same starting weights everywhere. The other workers add zeroes to the weights of rank 0.
+            double[] parameters = new double[this.parameterCount()];
+            if (communicator.getRank() == 0) {
+                this.packParameters(parameters);
+            }
+            communicator.allReduce(parameters);
+            this.unpackParameters(parameters);
 
-        //Random values for weights of lower layer - between input and hidden layer
-        for (int i = 0; i < this.ni; i++) {
-            for (int j = 0; j < this.nh; j++) {
-                //Picking a value between (-initBound, initBound).
-                this.w1[i][j] = (random.nextDouble() * (initBound - (-initBound))) + (-initBound);
+            //Every worker runs as many steps as the largest shard has batches. The smaller shards add no changes in
+            //their last steps.
+            double[] shards = new double[communicator.getWorkers()];
+            shards[communicator.getRank()] = x.length;
+            communicator.allReduce(shards);
+            long total = 0;
+            int largest = 0;
+            for (double shard : shards) {
+                total += (long) shard;
+                largest = Math.max(largest, (int) shard);
             }
+            int capacity = Math.min(this.batchSize, x.length);
+            int steps = (largest + this.batchSize - 1) / this.batchSize;
+
+            BatchWorkspace[] workspaces = this.createWorkspaces(capacity);
+            ExecutorService executor = workspaces.length > 1 ? Executors.newFixedThreadPool(workspaces.length) : null;
+            int[] order = identity(x.length);
+            Random shuffler = new Random(31L * communicator.getSeed() + communicator.getRank());
+            //Changes of all the layers followed by the loss and the number of samples of the step
+            double[] changes = new double[parameters.length + 2];
+
+            try {
+                this.startTraining();
+                for (int epoch = 1; epoch <= this.epochs; epoch++) {
+                    this.startEpoch(epoch, workspaces);
+                    if (this.shuffle) {
+                        shuffle(order, shuffler);
+                    }
+                    double loss = 0;
+                    for (int step = 0; step < steps; step++) {
+                        int from = step * capacity;
+                        int nSamples = Math.max(0, Math.min(capacity, x.length - from));
+                        changes[parameters.length] = nSamples > 0 ?
+                                this.trainBatch(executor, workspaces, x, y, order, from, nSamples) : 0;
+                        changes[parameters.length + 1] = nSamples;
+                        this.packChanges(changes);
+                        communicator.allReduce(changes);
+                        this.unpackChanges(changes);
+                        loss += changes[parameters.length];
+                        updateWeights((int) changes[parameters.length + 1]);
+                    }
+                    if (this.endEpoch(epoch, loss / total, total, workspaces)) {
+                        break;
+                    }
+                }
+                this.finishTraining();
+            } finally {
+                if (executor != null) {
+                    executor.shutdownNow();
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            this.communicator = null;
         }
+    }
 
-        //Random values for biases of lower layer - between input and hidden layer
-        for (int i = 0; i < this.nh; i++) {
-            //Picking a value between (-initBound, initBound).
-            this.b1[i] = (random.nextDouble() * (initBound - (-initBound))) + (-initBound);
+    /**
+     * @return number of weights and biases of all the layers
+     */
+    private int parameterCount() {
+        int count = 0;
+        for (int l = 0; l < this.depth(); l++) {
+            count += this.inputSize(l) * this.outputSize(l) + this.outputSize(l);
         }
+        return count;
+    }
 
-        //Bound for weights between hidden and output layer. Xavier Initialization
-        initBound = Math.sqrt(factor / (this.nh + this.no));
+    /**
+     * Copy the weights and biases of all the layers one after the other into an array
+     *
+     * @param values array of at least `parameterCount()` values
+     */
+    private void packParameters(double[] values) {
+        int k = 0;
+        if (this.floatLayers != null) {
+            for (FloatLayer layer : this.floatLayers) {
+                k = pack(layer.getWeights(), values, k);
+                k = pack(layer.getBiases(), values, k);
+            }
+        } else {
+            for (Layer layer : this.layers) {
+                k = pack(layer.getWeights(), values, k);
+                k = pack(layer.getBiases(), values, k);
+            }
+        }
+    }
 
-        //Random values for weights of upper layer - between hidden and output layer
-        for (int i = 0; i < this.nh; i++) {
-            for (int j = 0; j < this.no; j++) {
-                //Picking a value between (-initBound, initBound).
-                this.w2[i][j] = (random.nextDouble() * (initBound - (-initBound))) + (-initBound);
+    /**
+     * Copy the weights and biases of all the layers back from an array filled by `packParameters`
+     *
+     * @param values weights and biases of all the layers
+     */
+    private void unpackParameters(double[] values) {
+        int k = 0;
+        if (this.floatLayers != null) {
+            for (FloatLayer layer : this.floatLayers) {
+                k = unpack(values, k, layer.getWeights());
+                k = unpack(values, k, layer.getBiases());
+            }
+        } else {
+            for (Layer layer : this.layers) {
+                k = unpack(values, k, layer.getWeights());
+                k = unpack(values, k, layer.getBiases());
             }
         }
+    }
 
-        //Random values for biases of upper layer - between hidden and output layer
-        for (int i = 0; i < this.no; i++) {
-            //Picking a value between (-initBound, initBound).
-            this.b2[i] = (random.nextDouble() * (initBound - (-initBound))) + (-initBound);
+    /**
+     * Copy the weight/bias changes of the workspace of the mlp one after the other into an array
+     *
+     * @param values array of at least `parameterCount()` values
+     */
+    private void packChanges(double[] values) {
+        int k = 0;
+        if (this.floatLayers != null) {
+            for (FloatLayerWorkspace layerWorkspace : this.workspace.floatLayers) {
+                k = pack(layerWorkspace.dw, values, k);
+                k = pack(layerWorkspace.db, values, k);
+            }
+        } else {
+            for (LayerWorkspace layerWorkspace : this.workspace.layers) {
+                k = pack(layerWorkspace.dw, values, k);
+                k = pack(layerWorkspace.db, values, k);
+            }
         }
     }
 
     /**
-     * Forward pass of the mlp
+     * Copy the weight/bias changes back into the workspace of the mlp from an array filled by `packChanges`
      *
-     * @param input input applied to the mlp
+     * @param values weight/bias changes of all the layers
      */
-    private void forward(double[] input) {
-        if (input.length != this.ni) {
-            throw new MLPException(String.format("Expected no of units in input: %s but found %s", this.ni, input.length));
+    private void unpackChanges(double[] values) {
+        int k = 0;
+        if (this.floatLayers != null) {
+            for (FloatLayerWorkspace layerWorkspace : this.workspace.floatLayers) {
+                k = unpack(values, k, layerWorkspace.dw);
+                k = unpack(values, k, layerWorkspace.db);
+            }
+        } else {
+            for (LayerWorkspace layerWorkspace : this.workspace.layers) {
+                k = unpack(values, k, layerWorkspace.dw);
+                k = unpack(values, k, layerWorkspace.db);
+            }
         }
+    }
 
-        //Save the input for calculations during back-propagation
-        System.arraycopy(input, 0, this.input, 0, ni);
+    private static int pack(double[] from, double[] to, int offset) {
+        System.arraycopy(from, 0, to, offset, from.length);
+        return offset + from.length;
+    }
 
-        //Activate lower layer
-        for (int i = 0; i < this.nh; i++) {
-            //Activation of current hidden unit
-            double sum = 0;
-            for (int j = 0; j < this.ni; j++) {
-                //Multiply the input unit with the synapse (weight) connecting to the current hidden unit
-                sum += this.input[j] * this.w1[j][i];
-            }
-            //Store the input (activation) coming to the current hidden unit
-            this.z1[i] = sum + this.b1[i];
+    private static int pack(float[] from, double[] to, int offset) {
+        for (int i = 0; i < from.length; i++) {
+            to[offset + i] = from[i];
         }
+        return offset + from.length;
+    }
 
-        //Apply the activation function to the activations of the hidden layer
-        this.h = this.hiddenActivationFn.squash(this.z1);
+    private static int unpack(double[] from, int offset, double[] to) {
+        System.arraycopy(from, offset, to, 0, to.length);
+        return offset + to.length;
+    }
 
-        //Activate upper layer
-        for (int i = 0; i < this.no; i++) {
-            //Activation of current output unit
-            double sum = 0;
-            for (int j = 0; j < this.nh; j++) {
-                //Multiply the hidden unit with the synapse (weight) connecting to the current output unit
-                sum += this.h[j] * this.w2[j][i];
+    private static int unpack(double[] from, int offset, float[] to) {
+        for (int i = 0; i < to.length; i++) {
+            to[i] = (float) from[offset + i];
+        }
+        return offset + to.length;
+    }
+
+    /**
+     * Train the mlp on a data-set stored on disk. The data-set is read sequentially in memory-mapped chunks, the next
+     * one being loaded in the background, and only one batch of it is copied to the heap at a time. So data-sets
+     * larger than the heap can be used with a fixed memory footprint. It gives the same weights as `fit` with the
+     * same samples in memory.
+     *
+     * @param data data-set file
+     * @throws IOException if the data-set file can't be read
+     */
+    public void fit(DatasetFile data) throws IOException {
+        if (data.getInputSize() != this.ni || data.getOutputSize() != this.no) {
+            throw new MLPException(String.format("Expected samples of %s inputs and %s outputs but found %s and %s",
+                    this.ni, this.no, data.getInputSize(), data.getOutputSize()));
+        }
+        if (data.getRows() == 0) {
+            throw new MLPException("No samples to train on");
+        }
+
+        int capacity = (int) Math.min(this.batchSize, data.getRows());
+        //Samples of the current batch
+        double[][] x = new double[capacity][this.ni];
+        double[][] y = new double[capacity][this.no];
+        int[] order = identity(capacity);
+        BatchWorkspace[] workspaces = this.createWorkspaces(capacity);
+        ExecutorService executor = workspaces.length > 1 ? Executors.newFixedThreadPool(workspaces.length) : null;
+
+        try {
+            this.startTraining();
+            for (int epoch = 1; epoch <= this.epochs; epoch++) {
+                this.startEpoch(epoch, workspaces);
+                data.rewind();
+                double loss = 0;
+                int nSamples;
+                while ((nSamples = data.read(x, y)) > 0) {
+                    loss += this.trainBatch(executor, workspaces, x, y, order, 0, nSamples);
+                    updateWeights(nSamples);
+                }
+                if (this.endEpoch(epoch, loss / data.getRows(), data.getRows(), workspaces)) {
+                    break;
+                }
+            }
+            this.finishTraining();
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
             }
-            //Store the input (activation) coming to the current output unit
-            this.z2[i] = sum + this.b2[i];
         }
+    }
 
-        //Apply the activation function to the activations of the output layer
-        this.o = this.outputActivationFn.squash(this.z2);
+    /**
+     * Reset the progress tracked over the epochs of a training
+     */
+    private void startTraining() {
+        this.trainedEpochs = 0;
+        this.bestLoss = Double.POSITIVE_INFINITY;
+        this.staleChecks = 0;
+        this.schedule.reset();
+        this.listening = !this.listeners.isEmpty();
+        for (TrainingListener listener : this.listeners) {
+            listener.trainingStarted(this);
+        }
     }
 
     /**
-     * Backward propagation of the mlp
+     * Set the learning rate of an epoch and reset the measurements of the previous one
      *
-     * @param target target values for mlp
+     * @param epoch      epoch starting from 1
+     * @param workspaces workspace of each worker
      */
-    private void backward(double[] target) {
-        if (target.length != this.no) {
-            throw new MLPException(String.format("Expected no of units in target: %s but found %s",
-                    this.no, target.length));
+    private void startEpoch(int epoch, BatchWorkspace[] workspaces) {
+        this.rate = this.schedule.learningRate(epoch, this.learningRate);
+        if (this.listening) {
+            for (BatchWorkspace workspace : workspaces) {
+                workspace.forwardNanos = 0;
+                workspace.backwardNanos = 0;
+                workspace.updateNanos = 0;
+                workspace.gradientNorms = 0;
+            }
+            this.updateNanos = 0;
+            this.gradientNorms = 0;
+            this.batches = 0;
+            this.epochStart = System.nanoTime();
         }
+    }
 
-        //Delta for upper layer - between hidden units and output units
-        double[] delta2 = new double[this.no];
-        for (int i = 0; i < this.no; i++) {
-            //The combinations used in the code: linear activation + squared error loss for regression ,
-            //sigmoid/logistic activation + binary cross entropy for binary and multi-label classification, and
-            //softmax activation + categorical cross entropy for multi-class classification result in the below delta
-            //for last layer after further calculation and simplification.
-            //Ref: https://www.ics.uci.edu/~pjsadows/notes.pdf
-            //NOTE: In actual formula their is a minus (-) sign in front of the delta but while applying the weight
-            //changes we will use addition in place of subtraction and the minus sign of learning rate is cancelled by
-            //this negative sign.
-            delta2[i] = (target[i] - this.o[i]);
+    /**
+     * Report the end of an epoch to the schedule and the listeners and check the validation loss when early stopping
+     * is used
+     *
+     * @param epoch      epoch starting from 1
+     * @param loss       training loss of the epoch
+     * @param samples    samples trained on in the epoch
+     * @param workspaces workspace of each worker
+     * @return true if training should stop
+     */
+    private boolean endEpoch(int epoch, double loss, long samples, BatchWorkspace[] workspaces) {
+        long nanos = this.listening ? System.nanoTime() - this.epochStart : 0;
+        this.trainedEpochs = epoch;
+        if (this.snapshots) {
+            this.publishSnapshot();
+        }
+        boolean checked = this.validationX != null && epoch % this.validationEvery == 0;
+        double validationLoss = checked ? this.validationLoss() : Double.NaN;
+        if (this.validationX == null) {
+            this.schedule.epochEnd(epoch, loss);
+        } else if (checked) {
+            this.schedule.epochEnd(epoch, validationLoss);
         }
 
-        //Weight difference for upper layer - between hidden units and output units
-        for (int i = 0; i < this.nh; i++) {
-            for (int j = 0; j < this.no; j++) {
-                this.dw2[i][j] += this.h[i] * delta2[j];
+        if (this.listening) {
+            long forwardNanos = 0;
+            long backwardNanos = 0;
+            for (BatchWorkspace workspace : workspaces) {
+                forwardNanos += workspace.forwardNanos;
+                backwardNanos += workspace.backwardNanos;
+            }
+            EpochMetrics metrics = new EpochMetrics(epoch, loss, validationLoss, this.rate, samples, nanos,
+                    forwardNanos, backwardNanos, this.updateNanos, this.gradientNorms / Math.max(1, this.batches));
+            for (TrainingListener listener : this.listeners) {
+                listener.epochFinished(metrics);
             }
         }
-        //Bias difference for upper layer - between hidden units and output units
-        System.arraycopy(delta2, 0, this.db2, 0, delta2.length);
 
-        //Derivatives of the activations of the lower layer - between input and hidden layers
-        double[] derivatives = this.hiddenActivationFn.squashDerivative(this.z1);
-
-        //Delta for lower layer - between input and hidden layers
-        double[] delta1 = new double[this.nh];
-        for (int i = 0; i < this.nh; i++) {
-            //Calculating delta for the current hidden unit. Because a hidden unit affects all the outputs we have to
-            //consider the contribution of each output unit in the calculation.
-            for (int j = 0; j < this.no; j++) {
-                delta1[i] += this.w2[i][j] * delta2[j];
+        if (!checked) {
+            return false;
+        }
+        if (validationLoss < this.bestLoss) {
+            this.bestLoss = validationLoss;
+            this.staleChecks = 0;
+            if (this.floatLayers != null) {
+                this.best.capture(this.floatLayers);
+            } else {
+                this.best.capture(this.layers);
             }
-            //Delta is computed using multiplication of the error component with the derivative of the activation
-            //received by the unit
-            delta1[i] *= derivatives[i];
+            return false;
         }
+        if (++this.staleChecks < this.patience) {
+            return false;
+        }
+        for (TrainingListener listener : this.listeners) {
+            listener.trainingStopped(epoch, this.bestLoss);
+        }
+        return true;
+    }
 
-        //Weight difference for lower layer - between input and hidden layers
-        for (int i = 0; i < this.ni; i++) {
-            for (int j = 0; j < this.nh; j++) {
-                this.dw1[i][j] += this.input[i] * delta1[j];
+    /**
+     * Restore the weights/biases with the lowest validation loss when early stopping is used
+     */
+    private void finishTraining() {
+        if (this.validationX != null && this.bestLoss < Double.POSITIVE_INFINITY) {
+            if (this.floatLayers != null) {
+                this.best.restore(this.floatLayers);
+            } else {
+                this.best.restore(this.layers);
+            }
+            if (this.snapshots) {
+                this.publishSnapshot();
             }
         }
+    }
 
-        //Bias difference of the activations of the lower layer
-        System.arraycopy(delta1, 0, this.db1, 0, delta1.length);
+    /**
+     * @return mean loss on the held-out samples
+     */
+    private double validationLoss() {
+        InferenceContext context = this.createInferenceContext();
+        double loss = 0;
+        for (int i = 0; i < this.validationX.length; i++) {
+            loss += this.lossFn.calculate(this.predict(this.live, this.validationX[i], context),
+                    this.validationY[i]);
+        }
+        if (this.communicator == null) {
+            return loss / this.validationX.length;
+        }
+        //Mean over the held-out samples of all the workers, so that they all take the same decision
+        double[] sums = {loss, this.validationX.length};
+        try {
+            this.communicator.allReduce(sums);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return sums[0] / sums[1];
     }
 
     /**
-     * Function to update the weights/biases for the mlp from with the weight/bias changes
+     * Workspaces of the workers training on batches of the given size. Every batch is split into one slice per
+     * worker. The first worker uses the workspace of the mlp which also receives the changes of the other workers. It
+     * is kept if it is large enough, so it can hold more than a slice.
      *
-     * @param nSamples number of samples on which weight/bias changes are accumulated
+     * @param capacity maximum number of samples in a batch
+     * @return workspace of each worker
      */
-    private void updateWeights(int nSamples) {
-        //Update weights in lower layer
-        for (int i = 0; i < this.ni; i++) {
-            for (int j = 0; j < this.nh; j++) {
-                //A positive sign is used because while calculating the delta we left out the minus sign there. So that
-                //minus sign cancels the minus sign here.
-                this.w1[i][j] += this.learningRate * (this.dw1[i][j] / nSamples);
-            }
+    private BatchWorkspace[] createWorkspaces(int capacity) {
+        int nWorkers = Math.min(this.threads, capacity);
+        int sliceCapacity = (capacity + nWorkers - 1) / nWorkers;
+        if (this.workspace.capacity < sliceCapacity) {
+            this.workspace = this.newWorkspace(sliceCapacity);
         }
+        BatchWorkspace[] workspaces = new BatchWorkspace[nWorkers];
+        workspaces[0] = this.workspace;
+        for (int i = 1; i < nWorkers; i++) {
+            workspaces[i] = this.newWorkspace(sliceCapacity);
+        }
+        return workspaces;
+    }
 
-        //Update bias in lower layer
-        for (int i = 0; i < this.nh; i++) {
-            //A positive sign is used because while calculating the delta we left out the minus sign there. So that
-            //minus sign cancels the minus sign here.
-            this.b1[i] += this.learningRate * (this.db1[i] / nSamples);
+    /**
+     * @param capacity maximum number of samples in a batch
+     * @return workspace of the precision of this mlp
+     */
+    BatchWorkspace newWorkspace(int capacity) {
+        return this.floatLayers != null ? new BatchWorkspace(capacity, this.floatLayers) :
+                new BatchWorkspace(capacity, this.layers);
+    }
+
+    /**
+     * @param n number of samples
+     * @return indices 0 to n - 1 in ascending order
+     */
+    private static int[] identity(int n) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
         }
+        return order;
+    }
 
-        //Update weights in upper layer
-        for (int i = 0; i < this.nh; i++) {
-            for (int j = 0; j < this.no; j++) {
-                //A positive sign is used because while calculating the delta we left out the minus sign there. So that
-                //minus sign cancels the minus sign here.
-                this.w2[i][j] += this.learningRate * (this.dw2[i][j] / nSamples);
-            }
+    /**
+     * Shuffle a permutation in place (Fisher-Yates)
+     *
+     * @param order    permutation to shuffle
+     * @param shuffler source of randomness
+     */
+    private static void shuffle(int[] order, Random shuffler) {
+        for (int i = order.length - 1; i > 0; i--) {
+            int j = shuffler.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
         }
+    }
 
-        //Update bias in upper layer
-        for (int i = 0; i < this.no; i++) {
-            //A positive sign is used because while calculating the delta we left out the minus sign there. So that
-            //minus sign cancels the minus sign here.
-            this.b2[i] += this.learningRate * (this.db2[i] / nSamples);
+    /**
+     * Forward and backward pass of a batch. The weight/bias changes end up in the workspace of the mlp.
+     *
+     * @param executor   executor running the workers. Null to train on the calling thread.
+     * @param workspaces workspace of each worker
+     * @param x          input
+     * @param y          output
+     * @param order      indices of the samples in the order they are visited
+     * @param from       position in `order` of the first sample of the batch
+     * @param nSamples   number of samples in the batch
+     * @return sum of the losses of the samples in the batch
+     */
+    private double trainBatch(ExecutorService executor, BatchWorkspace[] workspaces, double[][] x, double[][] y,
+                              int[] order, int from, int nSamples) {
+        if (executor != null) {
+            return this.parallelBatch(executor, workspaces, x, y, order, from, nSamples);
         }
+        return this.passBatch(this.workspace, x, y, order, from, nSamples);
+    }
 
-        //Reset the weight changes to zeroes.
-        this.dw1 = new double[ni][nh];
-        this.dw2 = new double[nh][no];
-        this.db1 = new double[nh];
-        this.db2 = new double[no];
+    /**
+     * Forward and backward pass of some samples in a workspace. The time of each pass is added to the workspace when
+     * the training is measured for the listeners.
+     *
+     * @param workspace buffers for the samples
+     * @param x         input
+     * @param y         output
+     * @param order     indices of the samples in the order they are visited
+     * @param from      position in `order` of the first sample
+     * @param nSamples  number of samples
+     * @return sum of the losses of the samples
+     */
+    private double passBatch(BatchWorkspace workspace, double[][] x, double[][] y, int[] order, int from,
+                             int nSamples) {
+        long start = this.listening ? System.nanoTime() : 0;
+        //Do a forward pass
+        this.forwardBatch(workspace, x, order, from, nSamples);
+        if (this.listening) {
+            long now = System.nanoTime();
+            workspace.forwardNanos += now - start;
+            start = now;
+        }
+        //Calculate the error and the weight updates using back-propagation
+        double loss = this.backwardBatch(workspace, y, order, from, nSamples);
+        if (this.listening) {
+            workspace.backwardNanos += System.nanoTime() - start;
+        }
+        return loss;
     }
 
     /**
-     * The method to train the mlp with a particular input and output
+     * Forward and backward pass of a batch split between multiple workers. Each worker accumulates the weight/bias
+     * changes of its slice into its own workspace and the changes are then added up in the order of the workers.
      *
-     * @param x input
-     * @param y output
+     * @param executor   executor running the workers
+     * @param workspaces workspace of each worker
+     * @param x          input
+     * @param y          output
+     * @param order      indices of the samples in the order they are visited
+     * @param from       position in `order` of the first sample of the batch
+     * @param nSamples   number of samples in the batch
+     * @return sum of the losses of the samples in the batch
      */
-    public void fit(double x[][], double y[][]) {
-        System.out.println("Epoch;Loss");
-        for (int epoch = 1; epoch <= this.epochs; epoch++) {
-            //Start of an epoch
-            double loss = 0;
-            //A counter to keep track of batches in mini-batch gradient descent
-            int nSamples = 0;
-            //For each example
-            for (int i = 0; i < x.length; i++) {
-                //Do a forward pass
-                this.forward(x[i]);
-                //Calculate the error
-                loss += this.lossFn.calculate(this.o, y[i]);
-                //Calculate the weight updates using back-propagation
-                this.backward(y[i]);
-
-                nSamples++;
-                //Update the weights with the changes
-                if (nSamples == this.batchSize) {
-                    updateWeights(nSamples);
-                    nSamples = 0;
+    private double parallelBatch(ExecutorService executor, BatchWorkspace[] workspaces, double[][] x, double[][] y,
+                                 int[] order, int from, int nSamples) {
+        //The workspace of the mlp can be larger than a slice if it was grown by an earlier training, so the slices are
+        //sized by the workspaces of the other workers
+        int sliceCapacity = workspaces[workspaces.length - 1].capacity;
+        List<Callable<Double>> tasks = new ArrayList<>(workspaces.length);
+        for (int i = 0; i < workspaces.length; i++) {
+            BatchWorkspace workspace = workspaces[i];
+            int sliceFrom = from + i * sliceCapacity;
+            int sliceSamples = Math.min(sliceCapacity, from + nSamples - sliceFrom);
+            if (sliceSamples <= 0) {
+                break;
+            }
+            tasks.add(() -> this.passBatch(workspace, x, y, order, sliceFrom, sliceSamples));
+        }
+
+        double loss = 0;
+        try {
+            List<Future<Double>> results = executor.invokeAll(tasks);
+            //Reduce in a fixed order so that the result doesn't depend on which worker finishes first
+            for (int i = 0; i < results.size(); i++) {
+                loss += results.get(i).get();
+                if (i > 0) {
+                    workspaces[i].drainChangesInto(workspaces[0]);
                 }
             }
-            //When the number of training samples are not exactly divided by the batch size then their will be residual
-            //samples in the last batch. Updating changes due to those.
-            if (nSamples != 0) {
-                updateWeights(nSamples);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MLPException("Interrupted while training");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof MLPException) {
+                throw (MLPException) e.getCause();
             }
-            System.out.println(String.format("%s;%s", epoch, loss / x.length));
+            throw new MLPException("Training failed: " + e.getCause());
         }
+        return loss;
     }
 
     /**
@@ -420,16 +1684,198 @@ public class MultilayerPerceptron {
      * @return predicted output
      */
     public double[][] predict(double x[][]) {
+        InferenceContext context = this.createInferenceContext();
+        //All the inputs are predicted with the same snapshot
+        ModelSnapshot model = this.served;
         double[][] output = new double[x.length][this.no];
         for (int i = 0; i < x.length; i++) {
-            //Do a forward pass
-            this.forward(x[i]);
-            //Copy the outputs
-            System.arraycopy(this.o, 0, output[i], 0, this.no);
+            //Do a forward pass and copy the outputs
+            System.arraycopy(this.predict(model, x[i], context), 0, output[i], 0, this.no);
         }
         return output;
     }
 
+    /**
+     * Create scratch space for `predict(double[], InferenceContext)`. A context should be used by one thread at a
+     * time.
+     *
+     * @return inference context for this mlp
+     */
+    public InferenceContext createInferenceContext() {
+        return this.createInferenceContext(1);
+    }
+
+    /**
+     * Create scratch space for predicting batches of up to the given number of samples with
+     * `predict(double[][], int, InferenceContext)`.
+     *
+     * @param capacity maximum number of samples predicted at once
+     * @return inference context for this mlp
+     */
+    public InferenceContext createInferenceContext(int capacity) {
+        if (capacity < 1) {
+            throw new MLPException(String.format("Capacity of an inference context should be at least 1 but found %s",
+                    capacity));
+        }
+        return this.floatLayers != null ? new InferenceContext(this.floatLayers, capacity) :
+                new InferenceContext(this.layers, capacity);
+    }
+
+    /**
+     * Predict the output for a single input. The weights of the mlp are only read and all the intermediate values are
+     * kept in the given context, so it is safe to call this from multiple threads with a context per thread. It
+     * doesn't allocate any memory.
+     *
+     * @param x       input
+     * @param context scratch space created by `createInferenceContext` of this mlp
+     * @return predicted output. It is a buffer of the context which is overwritten by the next prediction using it.
+     */
+    public double[] predict(double x[], InferenceContext context) {
+        return this.predict(this.served, x, context);
+    }
+
+    /**
+     * `predict(double[], InferenceContext)` with the given layers
+     *
+     * @param model   layers to predict with
+     * @param x       input
+     * @param context scratch space created by `createInferenceContext` of this mlp
+     * @return predicted output. It is a buffer of the context.
+     */
+    private double[] predict(ModelSnapshot model, double x[], InferenceContext context) {
+        if (x.length != this.ni) {
+            throw new MLPException(String.format("Expected no of units in input: %s but found %s", this.ni, x.length));
+        }
+        if ((context.floatA != null) != (this.floatLayers != null)) {
+            throw new MLPException(String.format("Inference context doesn't fit the mlp of %s precision",
+                    this.precision));
+        }
+        if (context.capacity != 1) {
+            throw new MLPException(String.format("Inference context for batches of %s samples can't predict a single " +
+                    "sample", context.capacity));
+        }
+        if (model.floatLayers != null) {
+            return this.predictFloat(model.floatLayers, x, context);
+        }
+        Layer[] layers = model.layers;
+        if (context.a.length != layers.length) {
+            throw new MLPException(String.format("Inference context for %s layers doesn't fit the mlp with %s layers",
+                    context.a.length, layers.length));
+        }
+
+        //Same computations as the forward pass
+        double[] input = x;
+        for (int l = 0; l < layers.length; l++) {
+            if (context.a[l].length != context.capacity * layers[l].getOutputSize()) {
+                throw new MLPException(String.format("Inference context has %s units in layer %s but the mlp has %s",
+                        context.a[l].length / context.capacity, l + 1, layers[l].getOutputSize()));
+            }
+            layers[l].forward(input, context.z[l], context.a[l], 1);
+            input = context.a[l];
+        }
+        return input;
+    }
+
+    /**
+     * `predict(double[], InferenceContext)` of a single precision mlp. The input is rounded to float in the context
+     * and the output is converted back to double.
+     *
+     * @param layers  layers to predict with
+     * @param x       input
+     * @param context scratch space created by `createInferenceContext` of this mlp
+     * @return predicted output. It is a buffer of the context.
+     */
+    private double[] predictFloat(FloatLayer[] layers, double x[], InferenceContext context) {
+        if (context.floatA.length != layers.length) {
+            throw new MLPException(String.format("Inference context for %s layers doesn't fit the mlp with %s layers",
+                    context.floatA.length, layers.length));
+        }
+        for (int i = 0; i < this.ni; i++) {
+            context.floatInput[i] = (float) x[i];
+        }
+
+        float[] input = context.floatInput;
+        for (int l = 0; l < layers.length; l++) {
+            if (context.floatA[l].length != context.capacity * layers[l].getOutputSize()) {
+                throw new MLPException(String.format("Inference context has %s units in layer %s but the mlp has %s",
+                        context.floatA[l].length / context.capacity, l + 1, layers[l].getOutputSize()));
+            }
+            layers[l].forward(input, context.floatZ[l], context.floatA[l], 1);
+            input = context.floatA[l];
+        }
+        for (int i = 0; i < this.no; i++) {
+            context.output[i] = input[i];
+        }
+        return context.output;
+    }
+
+    /**
+     * Predict the outputs of a batch of samples. The batch goes through every layer as matrix-matrix products, so the
+     * weights are read once for the whole batch instead of once per sample. Like `predict(double[], InferenceContext)`
+     * it only reads the weights, so many threads can predict at once with their own contexts.
+     *
+     * @param x        inputs. Only the first `nSamples` are predicted.
+     * @param nSamples number of samples, at most the capacity of the context
+     * @param context  scratch space created by `createInferenceContext(int)` of this mlp
+     * @return predicted outputs, one row of `getOutputSize()` values per sample. It is a buffer of the context which is
+     * overwritten by the next prediction using it.
+     */
+    public double[] predict(double x[][], int nSamples, InferenceContext context) {
+        if ((context.floatA != null) != (this.floatLayers != null)) {
+            throw new MLPException(String.format("Inference context doesn't fit the mlp of %s precision",
+                    this.precision));
+        }
+        if (nSamples > context.capacity || nSamples > x.length) {
+            throw new MLPException(String.format("Can't predict %s samples of %s with a context for %s samples",
+                    nSamples, x.length, context.capacity));
+        }
+        int depth = this.depth();
+        if ((this.floatLayers != null ? context.floatA.length : context.a.length) != depth) {
+            throw new MLPException(String.format("Inference context doesn't fit the mlp with %s layers", depth));
+        }
+        for (int l = 0; l < depth; l++) {
+            int units = this.floatLayers != null ? context.floatA[l].length : context.a[l].length;
+            if (units != context.capacity * this.outputSize(l)) {
+                throw new MLPException(String.format("Inference context has %s units in layer %s but the mlp has %s",
+                        units / context.capacity, l + 1, this.outputSize(l)));
+            }
+        }
+        for (int r = 0; r < nSamples; r++) {
+            if (x[r].length != this.ni) {
+                throw new MLPException(String.format("Expected no of units in input: %s but found %s", this.ni,
+                        x[r].length));
+            }
+        }
+
+        ModelSnapshot model = this.served;
+        if (model.floatLayers != null) {
+            for (int r = 0; r < nSamples; r++) {
+                int row = r * this.ni;
+                for (int i = 0; i < this.ni; i++) {
+                    context.floatInput[row + i] = (float) x[r][i];
+                }
+            }
+            float[] input = context.floatInput;
+            for (int l = 0; l < depth; l++) {
+                model.floatLayers[l].forward(input, context.floatZ[l], context.floatA[l], nSamples);
+                input = context.floatA[l];
+            }
+            for (int i = 0; i < nSamples * this.no; i++) {
+                context.output[i] = input[i];
+            }
+            return context.output;
+        }
+        for (int r = 0; r < nSamples; r++) {
+            System.arraycopy(x[r], 0, context.input, r * this.ni, this.ni);
+        }
+        double[] input = context.input;
+        for (int l = 0; l < depth; l++) {
+            model.layers[l].forward(input, context.z[l], context.a[l], nSamples);
+            input = context.a[l];
+        }
+        return input;
+    }
+
     /**
      * Calculate loss for particular prediction and target valuesF
      *
@@ -459,16 +1905,31 @@ public class MultilayerPerceptron {
      */
     public void printInfo(boolean showWeights) {
         //Print the hyper-parameter
+        StringBuilder configuration = new StringBuilder().append(this.ni);
+        for (int l = 0; l < this.depth(); l++) {
+            configuration.append(" X ").append(this.outputSize(l));
+        }
         System.out.println("***********************");
         System.out.println("Hyper parameters");
         System.out.println("***********************");
-        System.out.println(String.format("Configuration: %s X %s X %s", this.ni, this.nh, this.no));
-        System.out.println("Hidden layer activation function: " + this.hiddenActivationFn.getClass().getName());
-        System.out.println("Output layer activation function: " + this.outputActivationFn.getClass().getName());
+        System.out.println("Configuration: " + configuration);
+        System.out.println("Precision: " + this.precision);
+        System.out.println("Kernels: " + MatrixKernels.getBackend());
+        for (int l = 0; l < this.depth() - 1; l++) {
+            String name = this.depth() == 2 ? "Hidden layer" : "Hidden layer " + (l + 1);
+            System.out.println(name + " activation function: " + this.activationFn(l).getClass().getName());
+        }
+        System.out.println("Output layer activation function: " +
+                this.activationFn(this.depth() - 1).getClass().getName());
         System.out.println("Loss function: " + this.lossFn.getClass().getName());
         System.out.println("Epochs: " + this.epochs);
+        System.out.println("Optimizer: " + this.optimizer.getClass().getName());
         System.out.println("Learning rate: " + this.learningRate);
+        System.out.println("Learning rate schedule: " + this.schedule.getClass().getName());
         System.out.println("(Gradient Descent) Batch size: " + this.batchSize);
+        System.out.println("Threads: " + this.threads);
+        System.out.println("Hogwild: " + this.hogwild);
+        System.out.println("Shuffle: " + this.shuffle);
         System.out.println("Random seed: " + this.randomState);
 
         //If not want to print weights of the MLP
@@ -476,32 +1937,23 @@ public class MultilayerPerceptron {
             return;
         }
 
-        //Print the weights in lower layer
-        System.out.println();
-        System.out.println("***********************");
-        System.out.println("Weights of lower layer");
-        System.out.println("***********************");
-        System.out.println();
-        for (int i = 0; i < ni; i++) {
-            System.out.print("| ");
-            for (int j = 0; j < nh; j++) {
-                System.out.print(String.format("%4.5f | ", this.w1[i][j]));
-            }
+        //Print the weights of each layer from the lowest to the output layer
+        for (int l = 0; l < this.depth(); l++) {
+            int nOut = this.outputSize(l);
             System.out.println();
-        }
-
-        //Print the weights in upper layer
-        System.out.println();
-        System.out.println("***********************");
-        System.out.println("Weights of upper layer");
-        System.out.println("***********************");
-        System.out.println();
-        for (int i = 0; i < nh; i++) {
-            System.out.print("| ");
-            for (int j = 0; j < no; j++) {
-                System.out.print(String.format("%4.5f | ", this.w2[i][j]));
-            }
+            System.out.println("***********************");
+            System.out.println("Weights of layer " + (l + 1));
+            System.out.println("***********************");
             System.out.println();
+            for (int i = 0; i < this.inputSize(l); i++) {
+                System.out.print("| ");
+                for (int j = 0; j < nOut; j++) {
+                    double w = this.floatLayers != null ? this.floatLayers[l].getWeights()[i * nOut + j] :
+                            this.layers[l].getWeights()[i * nOut + j];
+                    System.out.print(String.format("%4.5f | ", w));
+                }
+                System.out.println();
+            }
         }
     }
 }
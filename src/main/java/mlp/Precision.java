@@ -0,0 +1,15 @@
+package mlp;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 18:20
+ * Purpose: Floating point type of the weights, biases, activations and weight changes of an mlp. It is chosen when
+ * the mlp is built. Inputs, targets, predictions and losses are always `double` whatever the precision.
+ **/
+public enum Precision {
+    //64 bit `double`. The default.
+    DOUBLE,
+    //32 bit `float`. Half the memory traffic of `DOUBLE` for a small loss of accuracy. Sums which would lose too much
+    //precision (losses, bias changes, back-propagated deltas, optimizer state) are still added up in `double`.
+    FLOAT
+}
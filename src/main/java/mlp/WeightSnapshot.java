@@ -0,0 +1,93 @@
+package mlp;
+
+import mlp.layers.FloatLayer;
+import mlp.layers.Layer;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 17:25
+ * Purpose: Copy of the weights and biases of all the layers of an mlp. The arrays are allocated once, so taking a
+ * snapshot or restoring it doesn't allocate any memory. Only the arrays of the precision of the mlp are allocated.
+ **/
+class WeightSnapshot {
+    final double weights[][]; //Weights of each layer
+    final double biases[][]; //Biases of each layer
+    final float floatWeights[][]; //Weights of each layer of a single precision mlp
+    final float floatBiases[][]; //Biases of each layer of a single precision mlp
+
+    /**
+     * @param layers layers of the mlp
+     */
+    WeightSnapshot(Layer[] layers) {
+        this.weights = new double[layers.length][];
+        this.biases = new double[layers.length][];
+        for (int l = 0; l < layers.length; l++) {
+            this.weights[l] = new double[layers[l].getWeights().length];
+            this.biases[l] = new double[layers[l].getBiases().length];
+        }
+        this.floatWeights = null;
+        this.floatBiases = null;
+    }
+
+    /**
+     * @param layers layers of a single precision mlp
+     */
+    WeightSnapshot(FloatLayer[] layers) {
+        this.weights = null;
+        this.biases = null;
+        this.floatWeights = new float[layers.length][];
+        this.floatBiases = new float[layers.length][];
+        for (int l = 0; l < layers.length; l++) {
+            this.floatWeights[l] = new float[layers[l].getWeights().length];
+            this.floatBiases[l] = new float[layers[l].getBiases().length];
+        }
+    }
+
+    /**
+     * Copy the weights and biases of the layers into the snapshot
+     *
+     * @param layers layers of the mlp
+     */
+    void capture(Layer[] layers) {
+        for (int l = 0; l < layers.length; l++) {
+            System.arraycopy(layers[l].getWeights(), 0, this.weights[l], 0, this.weights[l].length);
+            System.arraycopy(layers[l].getBiases(), 0, this.biases[l], 0, this.biases[l].length);
+        }
+    }
+
+    /**
+     * Copy the weights and biases of the layers of a single precision mlp into the snapshot
+     *
+     * @param layers layers of the mlp
+     */
+    void capture(FloatLayer[] layers) {
+        for (int l = 0; l < layers.length; l++) {
+            System.arraycopy(layers[l].getWeights(), 0, this.floatWeights[l], 0, this.floatWeights[l].length);
+            System.arraycopy(layers[l].getBiases(), 0, this.floatBiases[l], 0, this.floatBiases[l].length);
+        }
+    }
+
+    /**
+     * Copy the weights and biases of the snapshot back into the layers
+     *
+     * @param layers layers of the mlp
+     */
+    void restore(Layer[] layers) {
+        for (int l = 0; l < layers.length; l++) {
+            System.arraycopy(this.weights[l], 0, layers[l].getWeights(), 0, this.weights[l].length);
+            System.arraycopy(this.biases[l], 0, layers[l].getBiases(), 0, this.biases[l].length);
+        }
+    }
+
+    /**
+     * Copy the weights and biases of the snapshot back into the layers of a single precision mlp
+     *
+     * @param layers layers of the mlp
+     */
+    void restore(FloatLayer[] layers) {
+        for (int l = 0; l < layers.length; l++) {
+            System.arraycopy(this.floatWeights[l], 0, layers[l].getWeights(), 0, this.floatWeights[l].length);
+            System.arraycopy(this.floatBiases[l], 0, layers[l].getBiases(), 0, this.floatBiases[l].length);
+        }
+    }
+}
@@ -13,7 +13,34 @@ public interface ActivationFn {
      * @param x inputs
      * @return value of the inputs after applying the activation function
      */
-    double[] squash(double[] x);
+    default double[] squash(double[] x) {
+        double[] output = new double[x.length];
+        squash(x, output);
+        return output;
+    }
+
+    /**
+     * Apply the function to the inputs and write the values into a buffer supplied by the caller. The buffer can be
+     * the input itself.
+     *
+     * @param x      inputs
+     * @param output buffer of at least the length of the inputs which receives the values
+     */
+    default void squash(double[] x, double[] output) {
+        squash(x, output, 0, x.length);
+    }
+
+    /**
+     * Apply the function to a range of the inputs and write the values into the same range of a buffer supplied by the
+     * caller. The buffer can be the input itself. The range is treated as one sample, which matters for functions like
+     * softmax whose value depends on all the units of a sample.
+     *
+     * @param x      inputs
+     * @param output buffer which receives the values
+     * @param offset start of the range
+     * @param length length of the range
+     */
+    void squash(double[] x, double[] output, int offset, int length);
 
     /**
      * Apply the derivative of the function to the inputs
@@ -21,5 +48,81 @@ public interface ActivationFn {
      * @param x inputs
      * @return value of the inputs after applying the derivative of the activation function
      */
-    double[] squashDerivative(double[] x);
+    default double[] squashDerivative(double[] x) {
+        double[] output = new double[x.length];
+        squashDerivative(x, output);
+        return output;
+    }
+
+    /**
+     * Apply the derivative of the function to the inputs and write the values into a buffer supplied by the caller.
+     * The buffer can be the input itself.
+     *
+     * @param x      inputs
+     * @param output buffer of at least the length of the inputs which receives the values
+     */
+    default void squashDerivative(double[] x, double[] output) {
+        squashDerivative(x, output, 0, x.length);
+    }
+
+    /**
+     * Apply the derivative of the function to a range of the inputs and write the values into the same range of a
+     * buffer supplied by the caller. The buffer can be the input itself.
+     *
+     * @param x      inputs
+     * @param output buffer which receives the values
+     * @param offset start of the range
+     * @param length length of the range
+     */
+    void squashDerivative(double[] x, double[] output, int offset, int length);
+
+    /**
+     * Apply the derivative of the function to a range of the inputs whose values `y` are already known from the
+     * forward pass. Functions whose derivative is a function of their value (sigmoid, tanh) compute it from `y`
+     * without evaluating the function again. The others ignore `y`.
+     *
+     * @param x      inputs
+     * @param y      values of the function for the inputs
+     * @param output buffer which receives the values. It can be the input itself.
+     * @param offset start of the range
+     * @param length length of the range
+     */
+    default void squashDerivative(double[] x, double[] y, double[] output, int offset, int length) {
+        squashDerivative(x, output, offset, length);
+    }
+
+    /**
+     * Single precision version of `squash(double[], double[], int, int)` used by mlps built with `Precision.FLOAT`
+     *
+     * @param x      inputs
+     * @param output buffer which receives the values
+     * @param offset start of the range
+     * @param length length of the range
+     */
+    void squash(float[] x, float[] output, int offset, int length);
+
+    /**
+     * Single precision version of `squashDerivative(double[], double[], int, int)` used by mlps built with
+     * `Precision.FLOAT`
+     *
+     * @param x      inputs
+     * @param output buffer which receives the values
+     * @param offset start of the range
+     * @param length length of the range
+     */
+    void squashDerivative(float[] x, float[] output, int offset, int length);
+
+    /**
+     * Single precision version of `squashDerivative(double[], double[], double[], int, int)` used by mlps built with
+     * `Precision.FLOAT`
+     *
+     * @param x      inputs
+     * @param y      values of the function for the inputs
+     * @param output buffer which receives the values
+     * @param offset start of the range
+     * @param length length of the range
+     */
+    default void squashDerivative(float[] x, float[] y, float[] output, int offset, int length) {
+        squashDerivative(x, output, offset, length);
+    }
 }
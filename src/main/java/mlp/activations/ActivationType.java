@@ -6,5 +6,7 @@ package mlp.activations;
  * Purpose: Type of all the activation functions this library supports
  **/
 public enum ActivationType {
-    TANH, SIGMOID, LINEAR, RELU, LEAKY_RELU
+    TANH, SIGMOID, LINEAR, RELU, LEAKY_RELU,
+    //Table approximations of TANH and SIGMOID, within 1.5e-6 and 7.5e-7 of them
+    FAST_TANH, FAST_SIGMOID
 }
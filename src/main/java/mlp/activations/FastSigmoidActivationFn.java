@@ -0,0 +1,53 @@
+package mlp.activations;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 20:20
+ * Purpose: Sigmoid activation y = 1/(1 + e^-x) computed as (1 + tanh(x / 2)) / 2 with the table of `TanhTable`. The
+ * values are within 7.5e-7 of `SigmoidActivationFn` and there is no `Math.exp`.
+ **/
+public class FastSigmoidActivationFn implements ActivationFn {
+    @Override
+    public void squash(double[] input, double[] output, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            output[i] = TanhTable.sigmoid(input[i]);
+        }
+    }
+
+    @Override
+    public void squashDerivative(double[] input, double[] output, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            double sigmoid = TanhTable.sigmoid(input[i]);
+            output[i] = sigmoid * (1 - sigmoid);
+        }
+    }
+
+    @Override
+    public void squashDerivative(double[] input, double[] values, double[] output, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            output[i] = values[i] * (1 - values[i]);
+        }
+    }
+
+    @Override
+    public void squash(float[] input, float[] output, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            output[i] = (float) TanhTable.sigmoid(input[i]);
+        }
+    }
+
+    @Override
+    public void squashDerivative(float[] input, float[] output, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            double sigmoid = TanhTable.sigmoid(input[i]);
+            output[i] = (float) (sigmoid * (1 - sigmoid));
+        }
+    }
+
+    @Override
+    public void squashDerivative(float[] input, float[] values, float[] output, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            output[i] = values[i] * (1 - values[i]);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package mlp.activations;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 20:15
+ * Purpose: Tanh activation y = tanh(x) approximated by a table (see `TanhTable`). The values are within 1.5e-6 of
+ * `TanhActivationFn`, for a fraction of the cost of `Math.tanh`.
+ **/
+public class FastTanhActivationFn implements ActivationFn {
+    @Override
+    public void squash(double[] input, double[] output, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            output[i] = TanhTable.tanh(input[i]);
+        }
+    }
+
+    @Override
+    public void squashDerivative(double[] input, double[] output, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            double tanh = TanhTable.tanh(input[i]);
+            output[i] = 1 - tanh * tanh;
+        }
+    }
+
+    @Override
+    public void squashDerivative(double[] input, double[] values, double[] output, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            output[i] = 1 - values[i] * values[i];
+        }
+    }
+
+    @Override
+    public void squash(float[] input, float[] output, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            output[i] = (float) TanhTable.tanh(input[i]);
+        }
+    }
+
+    @Override
+    public void squashDerivative(float[] input, float[] output, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            double tanh = TanhTable.tanh(input[i]);
+            output[i] = (float) (1 - tanh * tanh);
+        }
+    }
+
+    @Override
+    public void squashDerivative(float[] input, float[] values, float[] output, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            output[i] = 1 - values[i] * values[i];
+        }
+    }
+}
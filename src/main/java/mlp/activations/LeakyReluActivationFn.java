@@ -1,5 +1,7 @@
 package mlp.activations;
 
+import mlp.kernels.MatrixKernels;
+
 /**
  * Created By: Prashant Chaubey
  * Created On: 12-05-2020 00:44
@@ -9,24 +11,22 @@ public class LeakyReluActivationFn implements ActivationFn {
     private double threshold = 0.01;
 
     @Override
-    public double[] squash(double[] input) {
-        double[] output = new double[input.length];
-
-        for (int i = 0; i < input.length; i++) {
-            output[i] = Math.max(this.threshold * input[i], input[i]);
-        }
-
-        return output;
+    public void squash(double[] input, double[] output, int offset, int length) {
+        MatrixKernels.leakyRelu(input, output, offset, length, this.threshold);
     }
 
     @Override
-    public double[] squashDerivative(double[] input) {
-        double[] output = new double[input.length];
+    public void squashDerivative(double[] input, double[] output, int offset, int length) {
+        MatrixKernels.leakyReluDerivative(input, output, offset, length, this.threshold);
+    }
 
-        for (int i = 0; i < input.length; i++) {
-            output[i] = input[i] <= 0 ? this.threshold : 1;
-        }
+    @Override
+    public void squash(float[] input, float[] output, int offset, int length) {
+        MatrixKernels.leakyRelu(input, output, offset, length, (float) this.threshold);
+    }
 
-        return output;
+    @Override
+    public void squashDerivative(float[] input, float[] output, int offset, int length) {
+        MatrixKernels.leakyReluDerivative(input, output, offset, length, (float) this.threshold);
     }
 }
@@ -9,16 +9,22 @@ import java.util.Arrays;
  **/
 public class LinearActivationFn implements ActivationFn {
     @Override
-    public double[] squash(double[] input) {
-        double[] output = new double[input.length];
-        System.arraycopy(input, 0, output, 0, input.length);
-        return output;
+    public void squash(double[] input, double[] output, int offset, int length) {
+        System.arraycopy(input, offset, output, offset, length);
     }
 
     @Override
-    public double[] squashDerivative(double[] input) {
-        double[] output = new double[input.length];
-        Arrays.fill(output, 1);
-        return output;
+    public void squashDerivative(double[] input, double[] output, int offset, int length) {
+        Arrays.fill(output, offset, offset + length, 1);
+    }
+
+    @Override
+    public void squash(float[] input, float[] output, int offset, int length) {
+        System.arraycopy(input, offset, output, offset, length);
+    }
+
+    @Override
+    public void squashDerivative(float[] input, float[] output, int offset, int length) {
+        Arrays.fill(output, offset, offset + length, 1);
     }
 }
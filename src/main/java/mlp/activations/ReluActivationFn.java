@@ -1,5 +1,7 @@
 package mlp.activations;
 
+import mlp.kernels.MatrixKernels;
+
 /**
  * Created By: Prashant Chaubey
  * Created On: 09-05-2020 21:13
@@ -7,24 +9,22 @@ package mlp.activations;
  **/
 public class ReluActivationFn implements ActivationFn {
     @Override
-    public double[] squash(double[] input) {
-        double[] output = new double[input.length];
-
-        for (int i = 0; i < input.length; i++) {
-            output[i] = Math.max(0, input[i]);
-        }
-
-        return output;
+    public void squash(double[] input, double[] output, int offset, int length) {
+        MatrixKernels.relu(input, output, offset, length);
     }
 
     @Override
-    public double[] squashDerivative(double[] input) {
-        double[] output = new double[input.length];
+    public void squashDerivative(double[] input, double[] output, int offset, int length) {
+        MatrixKernels.reluDerivative(input, output, offset, length);
+    }
 
-        for (int i = 0; i < input.length; i++) {
-            output[i] = input[i] <= 0 ? 0 : 1;
-        }
+    @Override
+    public void squash(float[] input, float[] output, int offset, int length) {
+        MatrixKernels.relu(input, output, offset, length);
+    }
 
-        return output;
+    @Override
+    public void squashDerivative(float[] input, float[] output, int offset, int length) {
+        MatrixKernels.reluDerivative(input, output, offset, length);
     }
 }
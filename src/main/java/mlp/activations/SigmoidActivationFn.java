@@ -17,24 +17,46 @@ public class SigmoidActivationFn implements ActivationFn {
     }
 
     @Override
-    public double[] squash(double[] input) {
-        double[] output = new double[input.length];
-
-        for (int i = 0; i < input.length; i++) {
+    public void squash(double[] input, double[] output, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
             output[i] = this.sigmoid(input[i]);
         }
+    }
 
-        return output;
+    @Override
+    public void squashDerivative(double[] input, double[] output, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            double sigmoid = this.sigmoid(input[i]);
+            output[i] = sigmoid * (1 - sigmoid);
+        }
+    }
+
+    @Override
+    public void squashDerivative(double[] input, double[] values, double[] output, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            output[i] = values[i] * (1 - values[i]);
+        }
     }
 
     @Override
-    public double[] squashDerivative(double[] input) {
-        double[] output = new double[input.length];
+    public void squash(float[] input, float[] output, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            output[i] = (float) this.sigmoid(input[i]);
+        }
+    }
 
-        for (int i = 0; i < input.length; i++) {
-            output[i] = this.sigmoid(input[i]) * (1 - this.sigmoid(input[i]));
+    @Override
+    public void squashDerivative(float[] input, float[] output, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            double sigmoid = this.sigmoid(input[i]);
+            output[i] = (float) (sigmoid * (1 - sigmoid));
         }
+    }
 
-        return output;
+    @Override
+    public void squashDerivative(float[] input, float[] values, float[] output, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            output[i] = values[i] * (1 - values[i]);
+        }
     }
 }
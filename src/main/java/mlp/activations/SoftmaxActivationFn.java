@@ -7,28 +7,60 @@ import java.util.Arrays;
 /**
  * Created By: Prashant Chaubey
  * Created On: 11-05-2020 19:56
- * Purpose: Softmax activation for categorical variables
+ * Purpose: Softmax activation for categorical variables. The largest activation is subtracted from every activation
+ * before taking the exponentials, which doesn't change the result but keeps large activations from overflowing. The
+ * largest output is then exactly 1 / sum, which `CategoricalCrossEntropyLossFn` uses to get the log of the sum back.
  **/
 public class SoftmaxActivationFn implements ActivationFn {
+    private static final String NO_DERIVATIVE = "We are not explicitly calculating derivative of the softmax " +
+            "function. A simplification is used in calculation of the delta for last layer and softmax is always " +
+            "used for last layer only";
+
     @Override
-    public double[] squash(double[] input) {
-        double[] output = new double[input.length];
+    public void squash(double[] input, double[] output, int offset, int length) {
+        double max = input[offset];
+        for (int i = offset + 1; i < offset + length; i++) {
+            max = Math.max(max, input[i]);
+        }
 
+        //Every exponential is taken once and kept in the output until the sum is known
         double sum = 0;
-        for (double anInput : input) {
-            sum += Math.exp(anInput);
+        for (int i = offset; i < offset + length; i++) {
+            output[i] = Math.exp(input[i] - max);
+            sum += output[i];
         }
 
-        for (int i = 0; i < input.length; i++) {
-            output[i] = Math.exp(input[i]) / sum;
+        for (int i = offset; i < offset + length; i++) {
+            output[i] /= sum;
         }
+    }
 
-        return output;
+    @Override
+    public void squashDerivative(double[] input, double[] output, int offset, int length) {
+        throw new MLPException(NO_DERIVATIVE);
+    }
+
+    @Override
+    public void squash(float[] input, float[] output, int offset, int length) {
+        float max = input[offset];
+        for (int i = offset + 1; i < offset + length; i++) {
+            max = Math.max(max, input[i]);
+        }
+
+        //The sum is kept in double as it adds up values of very different magnitudes
+        double sum = 0;
+        for (int i = offset; i < offset + length; i++) {
+            output[i] = (float) Math.exp(input[i] - max);
+            sum += output[i];
+        }
+
+        for (int i = offset; i < offset + length; i++) {
+            output[i] = (float) (output[i] / sum);
+        }
     }
 
     @Override
-    public double[] squashDerivative(double[] input) {
-        throw new MLPException("We are not explicitly calculating derivative of the softmax function. A simplification " +
-                "is used in calculation of the delta for last layer and softmax is always used for last layer only");
+    public void squashDerivative(float[] input, float[] output, int offset, int length) {
+        throw new MLPException(NO_DERIVATIVE);
     }
 }
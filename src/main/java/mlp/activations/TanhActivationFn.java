@@ -7,24 +7,45 @@ package mlp.activations;
  **/
 public class TanhActivationFn implements ActivationFn {
     @Override
-    public double[] squash(double[] input) {
-        double[] output = new double[input.length];
-
-        for (int i = 0; i < input.length; i++) {
+    public void squash(double[] input, double[] output, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
             output[i] = Math.tanh(input[i]);
         }
+    }
 
-        return output;
+    @Override
+    public void squashDerivative(double[] input, double[] output, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            output[i] = 1 - Math.pow(Math.tanh(input[i]), 2);
+        }
     }
 
     @Override
-    public double[] squashDerivative(double[] input) {
-        double[] output = new double[input.length];
+    public void squashDerivative(double[] input, double[] values, double[] output, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            output[i] = 1 - values[i] * values[i];
+        }
+    }
 
-        for (int i = 0; i < input.length; i++) {
-            output[i] = 1 - Math.pow(Math.tanh(input[i]), 2);
+    @Override
+    public void squash(float[] input, float[] output, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            output[i] = (float) Math.tanh(input[i]);
+        }
+    }
+
+    @Override
+    public void squashDerivative(float[] input, float[] output, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            double tanh = Math.tanh(input[i]);
+            output[i] = (float) (1 - tanh * tanh);
         }
+    }
 
-        return output;
+    @Override
+    public void squashDerivative(float[] input, float[] values, float[] output, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            output[i] = 1 - values[i] * values[i];
+        }
     }
 }
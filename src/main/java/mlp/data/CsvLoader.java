@@ -0,0 +1,433 @@
+package mlp.data;
+
+import mlp.exceptions.MLPException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 14:25
+ * Purpose: Loader of delimited numeric files (csv, tsv, ...) into a `Dataset`. The file is read in chunks into a
+ * byte buffer and the values are parsed straight from the bytes, so no string is created for a line or a field.
+ * The file is read twice: once to count the rows so the flat matrices are allocated with their exact size and once
+ * to fill them.
+ * <p>
+ * By default every column is an input. A class column can be one-hot encoded into the outputs and numeric columns
+ * can be used as outputs as they are. Empty lines are skipped and both '\n' and "\r\n" line endings are accepted.
+ **/
+public class CsvLoader {
+    private static final int BUFFER_SIZE = 1 << 16; //Bytes read from the file at a time. Grows for longer lines.
+    private static final int BLOCK_ROWS = 4096; //Rows parsed before they are written by `convert`
+    //Powers of 10 which are exactly representable as doubles
+    private static final double POW10[] = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12,
+            1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    private final byte delimiter; //Separator of the fields
+    private boolean header; //True if the first line holds the names of the columns
+    private int labelColumn = -1; //Column one-hot encoded into the outputs. -1 if there is none.
+    private byte labels[][] = {}; //Names of the classes of the label column in the order of the outputs
+    private int targetColumns[] = {}; //Columns copied into the outputs after the one-hot encoded label
+
+    /**
+     * @param delimiter separator of the fields. It should be a single byte character like ',' or '\t'.
+     */
+    public CsvLoader(char delimiter) {
+        if (delimiter > 127) {
+            throw new MLPException(String.format("Delimiter should be an ASCII character but found %s", delimiter));
+        }
+        this.delimiter = (byte) delimiter;
+    }
+
+    /**
+     * @param header true if the first line holds the names of the columns and should be skipped
+     */
+    public void setHeader(boolean header) {
+        this.header = header;
+    }
+
+    /**
+     * One-hot encode a class column into the outputs. The output at index k is 1 for the rows whose value in the
+     * column is the k-th class.
+     *
+     * @param column  index of the column starting from 0
+     * @param classes names of the classes as written in the file
+     */
+    public void setLabelColumn(int column, String... classes) {
+        if (classes.length == 0) {
+            throw new MLPException("At least one class is needed to one-hot encode a column");
+        }
+        this.labelColumn = column;
+        this.labels = new byte[classes.length][];
+        for (int k = 0; k < classes.length; k++) {
+            this.labels[k] = classes[k].getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Use numeric columns as outputs. They are placed after the one-hot encoded label, if any.
+     *
+     * @param columns indices of the columns starting from 0
+     */
+    public void setTargetColumns(int... columns) {
+        this.targetColumns = columns.clone();
+    }
+
+    /**
+     * Load a file
+     *
+     * @param path file to read
+     * @return inputs and outputs of all the rows
+     * @throws IOException if the file can't be read
+     */
+    public Dataset load(Path path) throws IOException {
+        //First pass: number of rows and columns
+        RowCounter counter = new RowCounter();
+        forEachLine(path, counter);
+        if (counter.columns == 0) {
+            throw new MLPException(String.format("No rows found in %s", path));
+        }
+
+        //Index of each column in the inputs or the outputs
+        int columns = counter.columns;
+        int[] inputIndex = new int[columns];
+        int[] outputIndex = new int[columns];
+        int inputSize = columnIndices(columns, inputIndex, outputIndex);
+
+        //Second pass: values of the rows
+        Dataset dataset = new Dataset(counter.rows, inputSize, this.labels.length + this.targetColumns.length);
+        forEachLine(path, new RowParser(dataset, columns, inputIndex, outputIndex, null));
+        return dataset;
+    }
+
+    /**
+     * Convert a file into a `DatasetFile` which can be used to train on data-sets larger than the memory. The rows are
+     * parsed in blocks, so the memory used doesn't depend on the size of the file.
+     *
+     * @param path   file to read
+     * @param output data-set file to write. It is overwritten if it exists.
+     * @throws IOException if a file can't be read or written
+     */
+    public void convert(Path path, Path output) throws IOException {
+        RowCounter counter = new RowCounter();
+        forEachLine(path, counter);
+        if (counter.columns == 0) {
+            throw new MLPException(String.format("No rows found in %s", path));
+        }
+        int columns = counter.columns;
+        int[] inputIndex = new int[columns];
+        int[] outputIndex = new int[columns];
+        int inputSize = columnIndices(columns, inputIndex, outputIndex);
+        int outputSize = this.labels.length + this.targetColumns.length;
+
+        Dataset block = new Dataset(Math.min(counter.rows, BLOCK_ROWS), inputSize, outputSize);
+        try (DatasetFile.Writer writer = new DatasetFile.Writer(output, counter.rows, inputSize, outputSize)) {
+            RowParser parser = new RowParser(block, columns, inputIndex, outputIndex, writer);
+            forEachLine(path, parser);
+            parser.flush();
+        } catch (UncheckedIOException e) {
+            //Failure to write a block while parsing
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Find the index of each column in the inputs or the outputs
+     *
+     * @param columns     number of columns
+     * @param inputIndex  receives the index of each column in the inputs. -1 if it is not an input.
+     * @param outputIndex receives the index of each column in the outputs. -1 if it is not an output.
+     * @return number of inputs
+     */
+    private int columnIndices(int columns, int[] inputIndex, int[] outputIndex) {
+        Arrays.fill(outputIndex, -1);
+        if (this.labelColumn >= 0) {
+            checkColumn(this.labelColumn, columns);
+            outputIndex[this.labelColumn] = 0;
+        }
+        for (int t = 0; t < this.targetColumns.length; t++) {
+            checkColumn(this.targetColumns[t], columns);
+            outputIndex[this.targetColumns[t]] = this.labels.length + t;
+        }
+        int inputSize = 0;
+        for (int c = 0; c < columns; c++) {
+            inputIndex[c] = outputIndex[c] >= 0 ? -1 : inputSize++;
+        }
+        return inputSize;
+    }
+
+    /**
+     * Call the handler with every non-empty line of the file
+     *
+     * @param path    file to read
+     * @param handler handler of the lines
+     * @throws IOException if the file can't be read
+     */
+    private void forEachLine(Path path, LineHandler handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            byte[] bytes = new byte[BUFFER_SIZE];
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            int filled = 0; //Bytes of the buffer holding data of the file
+            boolean headerSkipped = !this.header;
+            boolean end = false;
+            while (!end) {
+                if (filled == bytes.length) {
+                    //A single line fills the whole buffer
+                    bytes = Arrays.copyOf(bytes, bytes.length * 2);
+                    buffer = ByteBuffer.wrap(bytes);
+                }
+                ((Buffer) buffer).limit(bytes.length).position(filled);
+                int read = channel.read(buffer);
+                if (read < 0) {
+                    end = true;
+                } else {
+                    filled += read;
+                }
+
+                //Hand over the complete lines and keep the partial last line for the next read
+                int start = 0;
+                for (int i = 0; i < filled; i++) {
+                    if (bytes[i] == '\n' || (end && i == filled - 1)) {
+                        int lineEnd = bytes[i] == '\n' ? i : i + 1;
+                        if (lineEnd > start && bytes[lineEnd - 1] == '\r') {
+                            lineEnd--;
+                        }
+                        if (lineEnd > start) {
+                            if (headerSkipped) {
+                                handler.line(bytes, start, lineEnd);
+                            }
+                            headerSkipped = true;
+                        }
+                        start = i + 1;
+                    }
+                }
+                System.arraycopy(bytes, start, bytes, 0, filled - start);
+                filled -= start;
+            }
+        }
+    }
+
+    private void checkColumn(int column, int columns) {
+        if (column < 0 || column >= columns) {
+            throw new MLPException(String.format("Column %s doesn't exist in rows of %s columns", column, columns));
+        }
+    }
+
+    /**
+     * Parse a number without creating a string. Numbers with at most 15 significant digits and a decimal exponent of
+     * at most 22 (which covers the usual data-sets) are computed exactly from their digits and give the same result
+     * as `Double.parseDouble`. Anything else falls back to `Double.parseDouble`.
+     *
+     * @param bytes bytes of the line
+     * @param start index of the first byte of the field
+     * @param end   index after the last byte of the field
+     * @param row   index of the row for error messages
+     * @return parsed value
+     */
+    static double parseDouble(byte[] bytes, int start, int end, int row) {
+        while (start < end && bytes[start] == ' ') {
+            start++;
+        }
+        while (end > start && bytes[end - 1] == ' ') {
+            end--;
+        }
+
+        int i = start;
+        boolean negative = false;
+        if (i < end && (bytes[i] == '-' || bytes[i] == '+')) {
+            negative = bytes[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int significant = 0; //Significant digits in the mantissa
+        int exponent = 0; //Decimal exponent applied to the mantissa
+        boolean digits = false;
+        for (; i < end && bytes[i] >= '0' && bytes[i] <= '9'; i++) {
+            digits = true;
+            if (significant < 18) {
+                mantissa = mantissa * 10 + (bytes[i] - '0');
+                significant += mantissa == 0 ? 0 : 1;
+            } else {
+                exponent++;
+            }
+        }
+        if (i < end && bytes[i] == '.') {
+            for (i++; i < end && bytes[i] >= '0' && bytes[i] <= '9'; i++) {
+                digits = true;
+                if (significant < 18) {
+                    mantissa = mantissa * 10 + (bytes[i] - '0');
+                    significant += mantissa == 0 ? 0 : 1;
+                    exponent--;
+                }
+            }
+        }
+        if (digits && i < end && (bytes[i] == 'e' || bytes[i] == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (bytes[i] == '-' || bytes[i] == '+')) {
+                negativeExponent = bytes[i] == '-';
+                i++;
+            }
+            int value = 0;
+            boolean exponentDigits = false;
+            for (; i < end && bytes[i] >= '0' && bytes[i] <= '9'; i++) {
+                exponentDigits = true;
+                value = Math.min(value * 10 + (bytes[i] - '0'), 10000);
+            }
+            digits = exponentDigits;
+            exponent += negativeExponent ? -value : value;
+        }
+
+        if (digits && i == end && significant <= 15 && exponent >= -22 && exponent <= 22) {
+            double value = exponent < 0 ? mantissa / POW10[-exponent] : mantissa * POW10[exponent];
+            return negative ? -value : value;
+        }
+
+        //Rare cases like long mantissas, large exponents, NaN or Infinity
+        String field = new String(bytes, start, end - start, StandardCharsets.UTF_8);
+        try {
+            return Double.parseDouble(field);
+        } catch (NumberFormatException e) {
+            throw new MLPException(String.format("Invalid number '%s' in row %s", field, row + 1));
+        }
+    }
+
+    /**
+     * Receiver of the lines of a file
+     */
+    private interface LineHandler {
+        /**
+         * @param bytes bytes holding the line
+         * @param start index of the first byte of the line
+         * @param end   index after the last byte of the line without the line ending
+         */
+        void line(byte[] bytes, int start, int end);
+    }
+
+    /**
+     * Counts the rows and the columns of the first row
+     */
+    private class RowCounter implements LineHandler {
+        int rows;
+        int columns;
+
+        @Override
+        public void line(byte[] bytes, int start, int end) {
+            if (this.rows == Integer.MAX_VALUE) {
+                throw new MLPException("Too many rows to load");
+            }
+            if (this.rows++ == 0) {
+                this.columns = 1;
+                for (int i = start; i < end; i++) {
+                    this.columns += bytes[i] == delimiter ? 1 : 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * Parses the rows into the data-set
+     */
+    private class RowParser implements LineHandler {
+        private final Dataset dataset;
+        private final int columns; //Columns of every row
+        private final int inputIndex[]; //Index of each column in the inputs. -1 if it is not an input.
+        private final int outputIndex[]; //Index of each column in the outputs. -1 if it is not an output.
+        private final DatasetFile.Writer writer; //Receives the data-set whenever it is full. Null to keep all the rows.
+        private int row; //Index of the row in the data-set
+        private int parsed; //Rows parsed so far
+
+        RowParser(Dataset dataset, int columns, int[] inputIndex, int[] outputIndex, DatasetFile.Writer writer) {
+            this.dataset = dataset;
+            this.columns = columns;
+            this.inputIndex = inputIndex;
+            this.outputIndex = outputIndex;
+            this.writer = writer;
+        }
+
+        /**
+         * Write the rows parsed since the last write and start again from the first row of the data-set
+         *
+         * @throws IOException if the rows can't be written
+         */
+        void flush() throws IOException {
+            this.writer.write(this.dataset, this.row);
+            Arrays.fill(this.dataset.outputs, 0);
+            this.row = 0;
+        }
+
+        @Override
+        public void line(byte[] bytes, int start, int end) {
+            int inputs = this.row * this.dataset.inputSize;
+            int outputs = this.row * this.dataset.outputSize;
+            int column = 0;
+            int fieldStart = start;
+            for (int i = start; i <= end; i++) {
+                if (i < end && bytes[i] != delimiter) {
+                    continue;
+                }
+                if (column >= this.columns) {
+                    break;
+                }
+                if (column == labelColumn) {
+                    this.dataset.outputs[outputs + labelIndex(bytes, fieldStart, i)] = 1;
+                } else if (this.outputIndex[column] >= 0) {
+                    this.dataset.outputs[outputs + this.outputIndex[column]] =
+                            parseDouble(bytes, fieldStart, i, this.parsed);
+                } else {
+                    this.dataset.inputs[inputs + this.inputIndex[column]] =
+                            parseDouble(bytes, fieldStart, i, this.parsed);
+                }
+                column++;
+                fieldStart = i + 1;
+            }
+            if (column != this.columns || fieldStart <= end) {
+                throw new MLPException(String.format("Expected %s columns in row %s", this.columns,
+                        this.parsed + 1));
+            }
+            this.row++;
+            this.parsed++;
+            if (this.writer != null && this.row == this.dataset.rows) {
+                try {
+                    this.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+        /**
+         * @return index of the class written in the field
+         */
+        private int labelIndex(byte[] bytes, int start, int end) {
+            while (start < end && bytes[start] == ' ') {
+                start++;
+            }
+            while (end > start && bytes[end - 1] == ' ') {
+                end--;
+            }
+            for (int k = 0; k < labels.length; k++) {
+                byte[] label = labels[k];
+                if (label.length != end - start) {
+                    continue;
+                }
+                int i = 0;
+                while (i < label.length && label[i] == bytes[start + i]) {
+                    i++;
+                }
+                if (i == label.length) {
+                    return k;
+                }
+            }
+            throw new MLPException(String.format("Unknown class '%s' in row %s",
+                    new String(bytes, start, end - start, StandardCharsets.UTF_8), this.parsed + 1));
+        }
+    }
+}
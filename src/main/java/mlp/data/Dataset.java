@@ -0,0 +1,54 @@
+package mlp.data;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 14:10
+ * Purpose: Inputs and outputs of a data-set kept in flat row-major matrices. Row i of the inputs is at
+ * inputs[i * inputSize .. (i + 1) * inputSize) and the same for the outputs.
+ **/
+public class Dataset {
+    public final int rows; //Number of samples
+    public final int inputSize; //Number of input values of a sample
+    public final int outputSize; //Number of output values of a sample
+    public final double inputs[]; //Inputs (rows x inputSize)
+    public final double outputs[]; //Outputs (rows x outputSize)
+
+    /**
+     * @param rows       number of samples
+     * @param inputSize  number of input values of a sample
+     * @param outputSize number of output values of a sample
+     */
+    public Dataset(int rows, int inputSize, int outputSize) {
+        this.rows = rows;
+        this.inputSize = inputSize;
+        this.outputSize = outputSize;
+        this.inputs = new double[rows * inputSize];
+        this.outputs = new double[rows * outputSize];
+    }
+
+    /**
+     * Copy the inputs into an array per sample as expected by `MultilayerPerceptron.fit`
+     *
+     * @return inputs of each sample
+     */
+    public double[][] inputArrays() {
+        return toArrays(this.inputs, this.inputSize);
+    }
+
+    /**
+     * Copy the outputs into an array per sample as expected by `MultilayerPerceptron.fit`
+     *
+     * @return outputs of each sample
+     */
+    public double[][] outputArrays() {
+        return toArrays(this.outputs, this.outputSize);
+    }
+
+    private double[][] toArrays(double[] flat, int size) {
+        double[][] arrays = new double[this.rows][size];
+        for (int i = 0; i < this.rows; i++) {
+            System.arraycopy(flat, i * size, arrays[i], 0, size);
+        }
+        return arrays;
+    }
+}
@@ -0,0 +1,322 @@
+package mlp.data;
+
+import mlp.exceptions.MLPException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 15:20
+ * Purpose: Data-set stored on disk in a binary format which is read sequentially in memory-mapped chunks. Only the
+ * chunk being read and the next one are mapped at a time, so the data-set can be larger than the heap and the
+ * memory. The next chunk is mapped and loaded from the disk on a background thread while the current one is read.
+ * <p>
+ * Layout (little endian):
+ * <pre>
+ *  0  int    magic number
+ *  4  int    version of the format
+ *  8  long   number of rows
+ * 16  int    number of input values of a row
+ * 20  int    number of output values of a row
+ * 24  long   reserved
+ * 32  double rows, each made of its inputs followed by its outputs
+ * </pre>
+ * A data-set file is created from a `Dataset` with `write` or from a delimited file with `CsvLoader.convert`.
+ **/
+public class DatasetFile implements Closeable {
+    private static final int MAGIC = 0x3153_444D; //"MDS1" when read as bytes
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final long DEFAULT_CHUNK_BYTES = 64L << 20; //Bytes mapped at a time by default
+
+    private final FileChannel channel; //Channel of the file
+    private final long rows; //Number of rows
+    private final int inputSize; //Number of input values of a row
+    private final int outputSize; //Number of output values of a row
+    private final int chunkRows; //Rows in a chunk
+    private final int chunks; //Number of chunks
+    private final ExecutorService prefetcher; //Thread mapping the next chunk
+    private DoubleBuffer current; //Chunk being read
+    private int currentChunk = -1; //Index of the chunk being read
+    private Future<DoubleBuffer> next; //Chunk after the current one
+    private int nextChunk = -1; //Index of the chunk after the current one
+    private long row; //Index of the next row to read
+
+    private DatasetFile(FileChannel channel, long rows, int inputSize, int outputSize, long chunkBytes) {
+        this.channel = channel;
+        this.rows = rows;
+        this.inputSize = inputSize;
+        this.outputSize = outputSize;
+        long rowBytes = 8L * (inputSize + outputSize);
+        this.chunkRows = (int) Math.max(1, Math.min(Math.min(chunkBytes, Integer.MAX_VALUE) / rowBytes,
+                Math.max(1, rows)));
+        this.chunks = (int) ((rows + this.chunkRows - 1) / this.chunkRows);
+        this.prefetcher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dataset-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Open a data-set file mapping 64 MB at a time
+     *
+     * @param path file to read
+     * @return opened data-set positioned at the first row
+     * @throws IOException if the file can't be read
+     */
+    public static DatasetFile open(Path path) throws IOException {
+        return open(path, DEFAULT_CHUNK_BYTES);
+    }
+
+    /**
+     * Open a data-set file
+     *
+     * @param path       file to read
+     * @param chunkBytes bytes to map at a time. A chunk has at least one row.
+     * @return opened data-set positioned at the first row
+     * @throws IOException if the file can't be read
+     */
+    public static DatasetFile open(Path path, long chunkBytes) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                //Read the whole header
+            }
+            ((Buffer) header).flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+                throw new MLPException(String.format("%s is not a data-set file", path));
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new MLPException(String.format("Unsupported version of data-set file: %s", version));
+            }
+            long rows = header.getLong();
+            int inputSize = header.getInt();
+            int outputSize = header.getInt();
+            if (rows < 0 || inputSize < 1 || outputSize < 1) {
+                throw new MLPException(String.format("Data-set file with %s rows of %s inputs and %s outputs is " +
+                        "corrupt", rows, inputSize, outputSize));
+            }
+            long expected;
+            try {
+                expected = Math.addExact(HEADER_SIZE, Math.multiplyExact(rows, 8L * ((long) inputSize + outputSize)));
+            } catch (ArithmeticException e) {
+                expected = Long.MAX_VALUE;
+            }
+            if (channel.size() != expected) {
+                throw new MLPException(String.format("Expected data-set file of %s bytes but found %s", expected,
+                        channel.size()));
+            }
+            return new DatasetFile(channel, rows, inputSize, outputSize, chunkBytes);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Write a data-set to a file
+     *
+     * @param path    file to write. It is overwritten if it exists.
+     * @param dataset data-set to write
+     * @throws IOException if the file can't be written
+     */
+    public static void write(Path path, Dataset dataset) throws IOException {
+        try (Writer writer = new Writer(path, dataset.rows, dataset.inputSize, dataset.outputSize)) {
+            writer.write(dataset, dataset.rows);
+        }
+    }
+
+    /**
+     * @return number of rows
+     */
+    public long getRows() {
+        return this.rows;
+    }
+
+    /**
+     * @return number of input values of a row
+     */
+    public int getInputSize() {
+        return this.inputSize;
+    }
+
+    /**
+     * @return number of output values of a row
+     */
+    public int getOutputSize() {
+        return this.outputSize;
+    }
+
+    /**
+     * Go back to the first row
+     */
+    public void rewind() {
+        this.row = 0;
+    }
+
+    /**
+     * Read the next rows. As many rows as the length of `x` are read unless the end of the data-set is reached.
+     *
+     * @param x arrays receiving the inputs of the rows
+     * @param y arrays receiving the outputs of the rows
+     * @return number of rows read. 0 at the end of the data-set.
+     * @throws IOException if the file can't be read
+     */
+    public int read(double[][] x, double[][] y) throws IOException {
+        int n = 0;
+        while (n < x.length && this.row < this.rows) {
+            int chunk = (int) (this.row / this.chunkRows);
+            if (chunk != this.currentChunk) {
+                this.moveTo(chunk);
+            }
+            ((Buffer) this.current).position((int) (this.row - (long) chunk * this.chunkRows) *
+                    (this.inputSize + this.outputSize));
+            this.current.get(x[n], 0, this.inputSize);
+            this.current.get(y[n], 0, this.outputSize);
+            this.row++;
+            n++;
+        }
+        return n;
+    }
+
+    /**
+     * Make a chunk the current one and start loading the chunk after it. After the last chunk the first one is loaded
+     * as it is read next by the following epoch.
+     *
+     * @param chunk index of the chunk
+     * @throws IOException if the file can't be read
+     */
+    private void moveTo(int chunk) throws IOException {
+        if (this.next != null && this.nextChunk == chunk) {
+            try {
+                this.current = this.next.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MLPException("Interrupted while reading a data-set file");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw new MLPException("Reading a data-set file failed: " + e.getCause());
+            }
+        } else {
+            if (this.next != null) {
+                this.next.cancel(false);
+            }
+            this.current = this.map(chunk);
+        }
+        this.currentChunk = chunk;
+        int after = (chunk + 1) % this.chunks;
+        if (after != chunk) {
+            this.nextChunk = after;
+            this.next = this.prefetcher.submit(() -> this.map(after));
+        } else {
+            this.next = null;
+        }
+    }
+
+    /**
+     * Map a chunk and load it into memory
+     *
+     * @param chunk index of the chunk
+     * @return doubles of the chunk
+     * @throws IOException if the file can't be read
+     */
+    private DoubleBuffer map(int chunk) throws IOException {
+        long rowBytes = 8L * (this.inputSize + this.outputSize);
+        long first = (long) chunk * this.chunkRows;
+        long count = Math.min(this.chunkRows, this.rows - first);
+        MappedByteBuffer buffer = this.channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + first * rowBytes,
+                count * rowBytes);
+        buffer.load();
+        return buffer.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.prefetcher.shutdownNow();
+        this.channel.close();
+    }
+
+    /**
+     * Writes a data-set file block by block
+     */
+    static class Writer implements Closeable {
+        private final FileChannel channel;
+        private final int inputSize;
+        private final int outputSize;
+        private ByteBuffer buffer; //Rows of a block in the format of the file
+
+        /**
+         * @param path       file to write
+         * @param rows       number of rows which are going to be written
+         * @param inputSize  number of input values of a row
+         * @param outputSize number of output values of a row
+         * @throws IOException if the file can't be written
+         */
+        Writer(Path path, long rows, int inputSize, int outputSize) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            this.inputSize = inputSize;
+            this.outputSize = outputSize;
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putLong(rows).putInt(inputSize).putInt(outputSize).putLong(0);
+            ((Buffer) header).flip();
+            writeFully(header);
+        }
+
+        /**
+         * Append the first rows of a data-set
+         *
+         * @param dataset block of rows
+         * @param rows    number of rows of the block to write
+         * @throws IOException if the file can't be written
+         */
+        void write(Dataset dataset, int rows) throws IOException {
+            int rowBytes = 8 * (this.inputSize + this.outputSize);
+            int blockRows = Math.max(1, Math.min(rows, (1 << 20) / rowBytes));
+            if (this.buffer == null || this.buffer.capacity() < blockRows * rowBytes) {
+                this.buffer = ByteBuffer.allocate(blockRows * rowBytes).order(ByteOrder.LITTLE_ENDIAN);
+            }
+            ((Buffer) this.buffer).clear();
+            DoubleBuffer doubles = this.buffer.asDoubleBuffer();
+            for (int from = 0; from < rows; from += blockRows) {
+                int count = Math.min(blockRows, rows - from);
+                ((Buffer) doubles).clear();
+                for (int r = from; r < from + count; r++) {
+                    doubles.put(dataset.inputs, r * this.inputSize, this.inputSize);
+                    doubles.put(dataset.outputs, r * this.outputSize, this.outputSize);
+                }
+                ((Buffer) this.buffer).clear().limit(count * rowBytes);
+                writeFully(this.buffer);
+            }
+        }
+
+        private void writeFully(ByteBuffer bytes) throws IOException {
+            while (bytes.hasRemaining()) {
+                this.channel.write(bytes);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.channel.close();
+        }
+    }
+}
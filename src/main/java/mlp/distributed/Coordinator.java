@@ -0,0 +1,114 @@
+package mlp.distributed;
+
+import mlp.exceptions.MLPException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 20:30
+ * Purpose: Rendezvous of the workers of a distributed training. Every worker connects to the coordinator with
+ * `RingCommunicator.join` and tells it the port it listens on. Once all the workers have joined, each of them gets
+ * its rank (the order in which it joined), the number of workers, the seed of the training and the address of the
+ * worker of the next rank, which it connects to so that the workers form a ring. The coordinator isn't used after
+ * that, so the gradients never go through it.
+ * <p>
+ * A coordinator can also be started on its own: `java mlp.distributed.Coordinator port workers [seed]`
+ **/
+public class Coordinator implements Closeable {
+    static final int MAGIC = 0x3152_4C4D; //"MLR1" when read as bytes. First value sent by a joining worker.
+
+    private final ServerSocket server; //Socket the workers join on
+    private final int workers; //Number of workers of the training
+    private final int seed; //Seed shared by all the workers
+
+    /**
+     * @param port    port to listen on. 0 for any free port.
+     * @param workers number of workers of the training
+     * @param seed    seed shared by all the workers
+     * @throws IOException if the port can't be listened on
+     */
+    public Coordinator(int port, int workers, int seed) throws IOException {
+        if (workers < 1) {
+            throw new MLPException(String.format("Number of workers should be at least 1 but found %s", workers));
+        }
+        this.server = new ServerSocket();
+        this.server.bind(new InetSocketAddress(port), workers);
+        this.workers = workers;
+        this.seed = seed;
+    }
+
+    /**
+     * @return port the workers join on
+     */
+    public int getPort() {
+        return this.server.getLocalPort();
+    }
+
+    /**
+     * Wait until all the workers have joined and send each of them its place in the ring
+     *
+     * @throws IOException if a worker can't be reached
+     */
+    public void rendezvous() throws IOException {
+        Socket[] sockets = new Socket[this.workers];
+        String[] hosts = new String[this.workers];
+        int[] ports = new int[this.workers];
+        try {
+            for (int rank = 0; rank < this.workers; rank++) {
+                sockets[rank] = this.server.accept();
+                DataInputStream in = new DataInputStream(new BufferedInputStream(sockets[rank].getInputStream()));
+                int magic = in.readInt();
+                if (magic != MAGIC) {
+                    throw new MLPException(String.format("Not a worker of a training. Found magic number %08x",
+                            magic));
+                }
+                //The address the worker is seen from is the one the other workers can reach it on
+                hosts[rank] = sockets[rank].getInetAddress().getHostAddress();
+                ports[rank] = in.readInt();
+            }
+            for (int rank = 0; rank < this.workers; rank++) {
+                int next = (rank + 1) % this.workers;
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(sockets[rank].getOutputStream()));
+                out.writeInt(rank);
+                out.writeInt(this.workers);
+                out.writeInt(this.seed);
+                out.writeUTF(hosts[next]);
+                out.writeInt(ports[next]);
+                out.flush();
+            }
+        } finally {
+            for (Socket socket : sockets) {
+                if (socket != null) {
+                    socket.close();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.server.close();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: java mlp.distributed.Coordinator port workers [seed]");
+            System.exit(1);
+        }
+        int seed = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        try (Coordinator coordinator = new Coordinator(Integer.parseInt(args[0]), Integer.parseInt(args[1]), seed)) {
+            System.out.println("Waiting for " + args[1] + " workers on port " + coordinator.getPort());
+            coordinator.rendezvous();
+            System.out.println("All the workers have joined");
+        }
+    }
+}
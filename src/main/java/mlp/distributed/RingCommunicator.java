@@ -0,0 +1,230 @@
+package mlp.distributed;
+
+import mlp.exceptions.MLPException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 20:45
+ * Purpose: Connection of a worker to the other workers of a distributed training. The workers form a ring over TCP,
+ * each one sending to the worker of the next rank and receiving from the worker of the previous rank, and sum arrays
+ * with a ring all-reduce: the array is split into one chunk per worker, every chunk is summed while it goes once
+ * around the ring (reduce-scatter) and the sums go around the ring once more (all-gather). So each worker sends and
+ * receives about twice the size of the array whatever the number of workers, and all the workers end up with exactly
+ * the same sums.
+ **/
+public class RingCommunicator implements Closeable {
+    private final int rank; //Rank of this worker from 0
+    private final int workers; //Number of workers in the ring
+    private final int seed; //Seed shared by all the workers
+    private final SocketChannel next; //Connection to the worker of the next rank. Null for a single worker.
+    private final SocketChannel previous; //Connection from the worker of the previous rank. Null for a single worker.
+    private final ExecutorService sender; //Thread sending a chunk while the calling thread receives one
+    private ByteBuffer sendBuffer; //Chunk being sent
+    private ByteBuffer receiveBuffer; //Chunk being received
+
+    private RingCommunicator(int rank, int workers, int seed, SocketChannel next, SocketChannel previous) {
+        this.rank = rank;
+        this.workers = workers;
+        this.seed = seed;
+        this.next = next;
+        this.previous = previous;
+        this.sender = workers > 1 ? Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ring-sender");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    /**
+     * Join a training through its coordinator and connect to the neighbours in the ring. Returns once all the
+     * workers have joined.
+     *
+     * @param host host of the coordinator
+     * @param port port of the coordinator
+     * @return connection to the other workers
+     * @throws IOException if the coordinator or a neighbour can't be reached
+     */
+    public static RingCommunicator join(String host, int port) throws IOException {
+        try (ServerSocketChannel listener = ServerSocketChannel.open()) {
+            //Listen before joining, so the previous worker can connect as soon as it knows the address
+            listener.bind(new InetSocketAddress(0));
+            int rank;
+            int workers;
+            int seed;
+            String nextHost;
+            int nextPort;
+            try (Socket coordinator = new Socket(host, port)) {
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(coordinator.getOutputStream()));
+                out.writeInt(Coordinator.MAGIC);
+                out.writeInt(listener.socket().getLocalPort());
+                out.flush();
+                DataInputStream in = new DataInputStream(new BufferedInputStream(coordinator.getInputStream()));
+                rank = in.readInt();
+                workers = in.readInt();
+                seed = in.readInt();
+                nextHost = in.readUTF();
+                nextPort = in.readInt();
+            }
+            if (workers == 1) {
+                return new RingCommunicator(rank, workers, seed, null, null);
+            }
+
+            //A connection is queued by the listener of the next worker even before it accepts it
+            SocketChannel next = SocketChannel.open(new InetSocketAddress(nextHost, nextPort));
+            try {
+                next.socket().setTcpNoDelay(true);
+                SocketChannel previous = listener.accept();
+                previous.socket().setTcpNoDelay(true);
+                return new RingCommunicator(rank, workers, seed, next, previous);
+            } catch (IOException | RuntimeException e) {
+                next.close();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * @return rank of this worker from 0
+     */
+    public int getRank() {
+        return this.rank;
+    }
+
+    /**
+     * @return number of workers in the ring
+     */
+    public int getWorkers() {
+        return this.workers;
+    }
+
+    /**
+     * @return seed shared by all the workers
+     */
+    public int getSeed() {
+        return this.seed;
+    }
+
+    /**
+     * Sum the array element-wise over all the workers. Every worker must call it with an array of the same length and
+     * gets the sums in its array.
+     *
+     * @param values values of this worker, replaced by the sums
+     * @throws IOException if a neighbour can't be reached
+     */
+    public void allReduce(double[] values) throws IOException {
+        if (this.workers == 1) {
+            return;
+        }
+        int maxChunk = (values.length + this.workers - 1) / this.workers;
+        if (this.sendBuffer == null || this.sendBuffer.capacity() < 8 * maxChunk) {
+            this.sendBuffer = ByteBuffer.allocateDirect(8 * maxChunk).order(ByteOrder.LITTLE_ENDIAN);
+            this.receiveBuffer = ByteBuffer.allocateDirect(8 * maxChunk).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        //Reduce-scatter. After the last step this worker has the sum of the chunk after its rank.
+        for (int step = 0; step < this.workers - 1; step++) {
+            this.exchange(values, this.rank - step, this.rank - step - 1, true);
+        }
+        //All-gather. The sums move one worker along the ring in every step.
+        for (int step = 0; step < this.workers - 1; step++) {
+            this.exchange(values, this.rank + 1 - step, this.rank - step, false);
+        }
+    }
+
+    /**
+     * Send a chunk of the values to the next worker while receiving a chunk from the previous worker
+     *
+     * @param values       values being reduced
+     * @param sendChunk    chunk to send (taken modulo the number of workers)
+     * @param receiveChunk chunk to receive (taken modulo the number of workers)
+     * @param add          true to add the received values to the chunk, false to replace it
+     * @throws IOException if a neighbour can't be reached
+     */
+    private void exchange(double[] values, int sendChunk, int receiveChunk, boolean add) throws IOException {
+        int send = Math.floorMod(sendChunk, this.workers);
+        int sendFrom = this.chunkStart(values.length, send);
+        int sendLength = this.chunkStart(values.length, send + 1) - sendFrom;
+        ((Buffer) this.sendBuffer).clear();
+        this.sendBuffer.asDoubleBuffer().put(values, sendFrom, sendLength);
+        ((Buffer) this.sendBuffer).limit(8 * sendLength);
+        //Sent on another thread, else every worker could be blocked on a full socket buffer while sending
+        Future<?> sent = this.sender.submit(() -> {
+            while (this.sendBuffer.hasRemaining()) {
+                this.next.write(this.sendBuffer);
+            }
+            return null;
+        });
+
+        int receive = Math.floorMod(receiveChunk, this.workers);
+        int receiveFrom = this.chunkStart(values.length, receive);
+        int receiveLength = this.chunkStart(values.length, receive + 1) - receiveFrom;
+        ((Buffer) this.receiveBuffer).clear();
+        ((Buffer) this.receiveBuffer).limit(8 * receiveLength);
+        while (this.receiveBuffer.hasRemaining()) {
+            if (this.previous.read(this.receiveBuffer) < 0) {
+                throw new EOFException("Connection closed by the previous worker of the ring");
+            }
+        }
+        ((Buffer) this.receiveBuffer).flip();
+        DoubleBuffer received = this.receiveBuffer.asDoubleBuffer();
+        if (add) {
+            for (int i = 0; i < receiveLength; i++) {
+                values[receiveFrom + i] += received.get(i);
+            }
+        } else {
+            received.get(values, receiveFrom, receiveLength);
+        }
+
+        try {
+            sent.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MLPException("Interrupted while sending to the next worker of the ring");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new MLPException("Sending to the next worker of the ring failed: " + e.getCause());
+        }
+    }
+
+    /**
+     * @param length length of the array
+     * @param chunk  index of a chunk. The number of workers for the end of the last chunk.
+     * @return index of the first value of the chunk
+     */
+    private int chunkStart(int length, int chunk) {
+        return (int) ((long) length * chunk / this.workers);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.sender != null) {
+            this.sender.shutdownNow();
+            try {
+                this.next.close();
+            } finally {
+                this.previous.close();
+            }
+        }
+    }
+}
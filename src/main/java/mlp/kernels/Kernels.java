@@ -0,0 +1,60 @@
+package mlp.kernels;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 18:50
+ * Purpose: Backend of `MatrixKernels`. See `MatrixKernels` for what each kernel computes. Every backend gives every
+ * element of a result its contributions in the same order, so the results don't depend on the number of rows of a
+ * batch and the element-wise kernels give the same values in every backend.
+ **/
+interface Kernels {
+    //Rows of the right hand matrix kept in a tile. A tile of TILE_K x TILE_N doubles is 64 KB which fits in L2.
+    int TILE_K = 64;
+    //Columns of the right hand matrix kept in a tile
+    int TILE_N = 128;
+    //Rows of the left hand matrix kept in a tile when it is used transposed
+    int TILE_M = 64;
+
+    /**
+     * @return name of the backend
+     */
+    String name();
+
+    void gemm(double[] a, double[] b, double[] c, int m, int k, int n);
+
+    void gemmTransA(double[] a, double[] b, double[] c, int k, int m, int n);
+
+    void gemmTransB(double[] a, double[] b, double[] c, int m, int k, int n);
+
+    void gemm(float[] a, float[] b, float[] c, int m, int k, int n);
+
+    void gemmTransA(float[] a, float[] b, float[] c, int k, int m, int n);
+
+    void gemmTransB(float[] a, float[] b, float[] c, int m, int k, int n);
+
+    void gemmTransB(byte[] a, byte[] b, int[] c, int m, int k, int n);
+
+    void addRows(double[] c, double[] row, int m, int n);
+
+    void sumRows(double[] a, double[] sums, int m, int n);
+
+    void multiply(double[] a, double[] b, int length);
+
+    void multiply(float[] a, float[] b, int length);
+
+    void relu(double[] x, double[] output, int offset, int length);
+
+    void relu(float[] x, float[] output, int offset, int length);
+
+    void reluDerivative(double[] x, double[] output, int offset, int length);
+
+    void reluDerivative(float[] x, float[] output, int offset, int length);
+
+    void leakyRelu(double[] x, double[] output, int offset, int length, double slope);
+
+    void leakyRelu(float[] x, float[] output, int offset, int length, float slope);
+
+    void leakyReluDerivative(double[] x, double[] output, int offset, int length, double slope);
+
+    void leakyReluDerivative(float[] x, float[] output, int offset, int length, float slope);
+}
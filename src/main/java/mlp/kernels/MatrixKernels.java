@@ -0,0 +1,297 @@
+package mlp.kernels;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 10:12
+ * Purpose: Blocked (cache-tiled) matrix-matrix products over flat row-major arrays used by the batched engine and
+ * the element-wise loops of the layers and activations.
+ * <p>
+ * All the products accumulate into the destination matrix (C += ...). The tiles only split the output dimensions
+ * and the reduction dimension is always walked in ascending order, so every element of the result receives its
+ * contributions in the same order as the equivalent matrix-vector loops. This keeps the batched engine bit-for-bit
+ * identical to the per-sample one.
+ * <p>
+ * The `float` versions are used by the single precision engine. They move half the bytes of the `double` ones. The
+ * dot products of `gemmTransB` still add up in a `double` because the sum is a single register and it keeps the deltas
+ * going down the layers from losing precision.
+ * <p>
+ * The kernels run on a backend picked once when the class is loaded. The SIMD backend (`VectorKernels`) uses the
+ * incubating Vector API of JDK 17+ and is picked when the JVM runs with `--add-modules jdk.incubator.vector`. Otherwise,
+ * or with `-Dmlp.kernels=scalar`, plain loops are used. Both backends give the same values except for the dot products
+ * of `gemmTransB`, which the SIMD backend adds up in a different (but fixed) order.
+ **/
+public final class MatrixKernels {
+    private static final Kernels BACKEND = backend(System.getProperty("mlp.kernels", "vector"));
+
+    private MatrixKernels() {
+    }
+
+    /**
+     * Pick the backend of the kernels
+     *
+     * @param requested name of the requested backend
+     * @return SIMD backend if it is requested and the JVM supports it, else the scalar backend
+     */
+    private static Kernels backend(String requested) {
+        if (requested.equals("vector")) {
+            try {
+                return (Kernels) Class.forName("mlp.kernels.VectorKernels").getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError | UnsupportedOperationException e) {
+                //The JVM is older than 17, the module of the Vector API isn't added or the CPU has no SIMD
+            }
+        }
+        return new ScalarKernels();
+    }
+
+    /**
+     * @return name of the backend running the kernels: "vector" or "scalar"
+     */
+    public static String getBackend() {
+        return BACKEND.name();
+    }
+
+    /**
+     * C[m x n] += A[m x k] * B[k x n]
+     *
+     * @param a left hand matrix
+     * @param b right hand matrix
+     * @param c result matrix
+     * @param m rows of A and C
+     * @param k columns of A and rows of B
+     * @param n columns of B and C
+     */
+    public static void gemm(double[] a, double[] b, double[] c, int m, int k, int n) {
+        BACKEND.gemm(a, b, c, m, k, n);
+    }
+
+    /**
+     * C[m x n] += A^T * B where A is [k x m] and B is [k x n]. Used to accumulate weight changes of a whole batch.
+     *
+     * @param a left hand matrix (used transposed)
+     * @param b right hand matrix
+     * @param c result matrix
+     * @param k rows of A and B
+     * @param m columns of A and rows of C
+     * @param n columns of B and C
+     */
+    public static void gemmTransA(double[] a, double[] b, double[] c, int k, int m, int n) {
+        BACKEND.gemmTransA(a, b, c, k, m, n);
+    }
+
+    /**
+     * C[m x n] += A[m x k] * B^T where B is [n x k]. Used to propagate deltas of a whole batch to the layer below.
+     *
+     * @param a left hand matrix
+     * @param b right hand matrix (used transposed)
+     * @param c result matrix
+     * @param m rows of A and C
+     * @param k columns of A and B
+     * @param n rows of B and columns of C
+     */
+    public static void gemmTransB(double[] a, double[] b, double[] c, int m, int k, int n) {
+        BACKEND.gemmTransB(a, b, c, m, k, n);
+    }
+
+    /**
+     * C[m x n] += A[m x k] * B[k x n] in single precision
+     *
+     * @param a left hand matrix
+     * @param b right hand matrix
+     * @param c result matrix
+     * @param m rows of A and C
+     * @param k columns of A and rows of B
+     * @param n columns of B and C
+     */
+    public static void gemm(float[] a, float[] b, float[] c, int m, int k, int n) {
+        BACKEND.gemm(a, b, c, m, k, n);
+    }
+
+    /**
+     * C[m x n] += A^T * B where A is [k x m] and B is [k x n] in single precision
+     *
+     * @param a left hand matrix (used transposed)
+     * @param b right hand matrix
+     * @param c result matrix
+     * @param k rows of A and B
+     * @param m columns of A and rows of C
+     * @param n columns of B and C
+     */
+    public static void gemmTransA(float[] a, float[] b, float[] c, int k, int m, int n) {
+        BACKEND.gemmTransA(a, b, c, k, m, n);
+    }
+
+    /**
+     * C[m x n] += A[m x k] * B^T where B is [n x k] in single precision. Every dot product adds up in a double.
+     *
+     * @param a left hand matrix
+     * @param b right hand matrix (used transposed)
+     * @param c result matrix
+     * @param m rows of A and C
+     * @param k columns of A and B
+     * @param n rows of B and columns of C
+     */
+    public static void gemmTransB(float[] a, float[] b, float[] c, int m, int k, int n) {
+        BACKEND.gemmTransB(a, b, c, m, k, n);
+    }
+
+    /**
+     * C[m x n] += A[m x k] * B^T where B is [n x k] on 8 bit integers. The products are added up in 32 bit integers,
+     * which can't overflow for k up to 2^17, so every backend gives the same values.
+     *
+     * @param a left hand matrix
+     * @param b right hand matrix (used transposed)
+     * @param c result matrix
+     * @param m rows of A and C
+     * @param k columns of A and B
+     * @param n rows of B and columns of C
+     */
+    public static void gemmTransB(byte[] a, byte[] b, int[] c, int m, int k, int n) {
+        BACKEND.gemmTransB(a, b, c, m, k, n);
+    }
+
+    /**
+     * C[r][j] += row[j] for every row r of C[m x n]. Used to add the biases to the activations of a batch.
+     *
+     * @param c   matrix
+     * @param row row added to every row of the matrix
+     * @param m   rows of C
+     * @param n   columns of C
+     */
+    public static void addRows(double[] c, double[] row, int m, int n) {
+        BACKEND.addRows(c, row, m, n);
+    }
+
+    /**
+     * sums[j] += A[r][j] for every row r of A[m x n] in ascending order. Used to accumulate the bias changes.
+     *
+     * @param a    matrix
+     * @param sums receives the sums of the columns
+     * @param m    rows of A
+     * @param n    columns of A
+     */
+    public static void sumRows(double[] a, double[] sums, int m, int n) {
+        BACKEND.sumRows(a, sums, m, n);
+    }
+
+    /**
+     * a[i] *= b[i] for the first `length` elements
+     *
+     * @param a      values multiplied in place
+     * @param b      factors
+     * @param length number of elements
+     */
+    public static void multiply(double[] a, double[] b, int length) {
+        BACKEND.multiply(a, b, length);
+    }
+
+    /**
+     * Single precision version of `multiply(double[], double[], int)`
+     *
+     * @param a      values multiplied in place
+     * @param b      factors
+     * @param length number of elements
+     */
+    public static void multiply(float[] a, float[] b, int length) {
+        BACKEND.multiply(a, b, length);
+    }
+
+    /**
+     * output[i] = max(0, x[i]) over a range
+     *
+     * @param x      inputs
+     * @param output receives the values. Can be the inputs.
+     * @param offset start of the range
+     * @param length length of the range
+     */
+    public static void relu(double[] x, double[] output, int offset, int length) {
+        BACKEND.relu(x, output, offset, length);
+    }
+
+    /**
+     * Single precision version of `relu(double[], double[], int, int)`
+     *
+     * @param x      inputs
+     * @param output receives the values. Can be the inputs.
+     * @param offset start of the range
+     * @param length length of the range
+     */
+    public static void relu(float[] x, float[] output, int offset, int length) {
+        BACKEND.relu(x, output, offset, length);
+    }
+
+    /**
+     * output[i] = x[i] <= 0 ? 0 : 1 over a range
+     *
+     * @param x      inputs
+     * @param output receives the values. Can be the inputs.
+     * @param offset start of the range
+     * @param length length of the range
+     */
+    public static void reluDerivative(double[] x, double[] output, int offset, int length) {
+        BACKEND.reluDerivative(x, output, offset, length);
+    }
+
+    /**
+     * Single precision version of `reluDerivative(double[], double[], int, int)`
+     *
+     * @param x      inputs
+     * @param output receives the values. Can be the inputs.
+     * @param offset start of the range
+     * @param length length of the range
+     */
+    public static void reluDerivative(float[] x, float[] output, int offset, int length) {
+        BACKEND.reluDerivative(x, output, offset, length);
+    }
+
+    /**
+     * output[i] = max(slope * x[i], x[i]) over a range
+     *
+     * @param x      inputs
+     * @param output receives the values. Can be the inputs.
+     * @param offset start of the range
+     * @param length length of the range
+     * @param slope  slope for the negative inputs
+     */
+    public static void leakyRelu(double[] x, double[] output, int offset, int length, double slope) {
+        BACKEND.leakyRelu(x, output, offset, length, slope);
+    }
+
+    /**
+     * Single precision version of `leakyRelu(double[], double[], int, int, double)`
+     *
+     * @param x      inputs
+     * @param output receives the values. Can be the inputs.
+     * @param offset start of the range
+     * @param length length of the range
+     * @param slope  slope for the negative inputs
+     */
+    public static void leakyRelu(float[] x, float[] output, int offset, int length, float slope) {
+        BACKEND.leakyRelu(x, output, offset, length, slope);
+    }
+
+    /**
+     * output[i] = x[i] <= 0 ? slope : 1 over a range
+     *
+     * @param x      inputs
+     * @param output receives the values. Can be the inputs.
+     * @param offset start of the range
+     * @param length length of the range
+     * @param slope  slope for the negative inputs
+     */
+    public static void leakyReluDerivative(double[] x, double[] output, int offset, int length, double slope) {
+        BACKEND.leakyReluDerivative(x, output, offset, length, slope);
+    }
+
+    /**
+     * Single precision version of `leakyReluDerivative(double[], double[], int, int, double)`
+     *
+     * @param x      inputs
+     * @param output receives the values. Can be the inputs.
+     * @param offset start of the range
+     * @param length length of the range
+     * @param slope  slope for the negative inputs
+     */
+    public static void leakyReluDerivative(float[] x, float[] output, int offset, int length, float slope) {
+        BACKEND.leakyReluDerivative(x, output, offset, length, slope);
+    }
+}
@@ -0,0 +1,248 @@
+package mlp.kernels;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 18:55
+ * Purpose: Kernels written as plain loops. They run on any JVM and are used when the Vector API isn't available.
+ **/
+final class ScalarKernels implements Kernels {
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+
+    @Override
+    public void gemm(double[] a, double[] b, double[] c, int m, int k, int n) {
+        for (int kk = 0; kk < k; kk += TILE_K) {
+            int kEnd = Math.min(kk + TILE_K, k);
+            for (int jj = 0; jj < n; jj += TILE_N) {
+                int jEnd = Math.min(jj + TILE_N, n);
+                //The tile of B stays in the cache while it is applied to every row of A
+                for (int r = 0; r < m; r++) {
+                    int aRow = r * k;
+                    int cRow = r * n;
+                    for (int p = kk; p < kEnd; p++) {
+                        double x = a[aRow + p];
+                        int bRow = p * n;
+                        for (int j = jj; j < jEnd; j++) {
+                            c[cRow + j] += x * b[bRow + j];
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void gemmTransA(double[] a, double[] b, double[] c, int k, int m, int n) {
+        for (int ii = 0; ii < m; ii += TILE_M) {
+            int iEnd = Math.min(ii + TILE_M, m);
+            for (int jj = 0; jj < n; jj += TILE_N) {
+                int jEnd = Math.min(jj + TILE_N, n);
+                //The tile of C stays in the cache while all the rows of A and B are applied to it
+                for (int p = 0; p < k; p++) {
+                    int aRow = p * m;
+                    int bRow = p * n;
+                    for (int i = ii; i < iEnd; i++) {
+                        double x = a[aRow + i];
+                        int cRow = i * n;
+                        for (int j = jj; j < jEnd; j++) {
+                            c[cRow + j] += x * b[bRow + j];
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void gemmTransB(double[] a, double[] b, double[] c, int m, int k, int n) {
+        for (int ii = 0; ii < n; ii += TILE_M) {
+            int iEnd = Math.min(ii + TILE_M, n);
+            //The tile of B stays in the cache while it is applied to every row of A
+            for (int r = 0; r < m; r++) {
+                int aRow = r * k;
+                int cRow = r * n;
+                for (int i = ii; i < iEnd; i++) {
+                    int bRow = i * k;
+                    double sum = 0;
+                    for (int p = 0; p < k; p++) {
+                        sum += a[aRow + p] * b[bRow + p];
+                    }
+                    c[cRow + i] += sum;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void gemm(float[] a, float[] b, float[] c, int m, int k, int n) {
+        for (int kk = 0; kk < k; kk += TILE_K) {
+            int kEnd = Math.min(kk + TILE_K, k);
+            for (int jj = 0; jj < n; jj += TILE_N) {
+                int jEnd = Math.min(jj + TILE_N, n);
+                for (int r = 0; r < m; r++) {
+                    int aRow = r * k;
+                    int cRow = r * n;
+                    for (int p = kk; p < kEnd; p++) {
+                        float x = a[aRow + p];
+                        int bRow = p * n;
+                        for (int j = jj; j < jEnd; j++) {
+                            c[cRow + j] += x * b[bRow + j];
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void gemmTransA(float[] a, float[] b, float[] c, int k, int m, int n) {
+        for (int ii = 0; ii < m; ii += TILE_M) {
+            int iEnd = Math.min(ii + TILE_M, m);
+            for (int jj = 0; jj < n; jj += TILE_N) {
+                int jEnd = Math.min(jj + TILE_N, n);
+                for (int p = 0; p < k; p++) {
+                    int aRow = p * m;
+                    int bRow = p * n;
+                    for (int i = ii; i < iEnd; i++) {
+                        float x = a[aRow + i];
+                        int cRow = i * n;
+                        for (int j = jj; j < jEnd; j++) {
+                            c[cRow + j] += x * b[bRow + j];
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void gemmTransB(float[] a, float[] b, float[] c, int m, int k, int n) {
+        for (int ii = 0; ii < n; ii += TILE_M) {
+            int iEnd = Math.min(ii + TILE_M, n);
+            for (int r = 0; r < m; r++) {
+                int aRow = r * k;
+                int cRow = r * n;
+                for (int i = ii; i < iEnd; i++) {
+                    int bRow = i * k;
+                    double sum = 0;
+                    for (int p = 0; p < k; p++) {
+                        sum += (double) a[aRow + p] * b[bRow + p];
+                    }
+                    c[cRow + i] += sum;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void gemmTransB(byte[] a, byte[] b, int[] c, int m, int k, int n) {
+        for (int ii = 0; ii < n; ii += TILE_M) {
+            int iEnd = Math.min(ii + TILE_M, n);
+            for (int r = 0; r < m; r++) {
+                int aRow = r * k;
+                int cRow = r * n;
+                for (int i = ii; i < iEnd; i++) {
+                    int bRow = i * k;
+                    int sum = 0;
+                    for (int p = 0; p < k; p++) {
+                        sum += a[aRow + p] * b[bRow + p];
+                    }
+                    c[cRow + i] += sum;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void addRows(double[] c, double[] row, int m, int n) {
+        for (int r = 0; r < m; r++) {
+            int cRow = r * n;
+            for (int j = 0; j < n; j++) {
+                c[cRow + j] += row[j];
+            }
+        }
+    }
+
+    @Override
+    public void sumRows(double[] a, double[] sums, int m, int n) {
+        for (int r = 0; r < m; r++) {
+            int aRow = r * n;
+            for (int j = 0; j < n; j++) {
+                sums[j] += a[aRow + j];
+            }
+        }
+    }
+
+    @Override
+    public void multiply(double[] a, double[] b, int length) {
+        for (int i = 0; i < length; i++) {
+            a[i] *= b[i];
+        }
+    }
+
+    @Override
+    public void multiply(float[] a, float[] b, int length) {
+        for (int i = 0; i < length; i++) {
+            a[i] *= b[i];
+        }
+    }
+
+    @Override
+    public void relu(double[] x, double[] output, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            output[i] = Math.max(0, x[i]);
+        }
+    }
+
+    @Override
+    public void relu(float[] x, float[] output, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            output[i] = Math.max(0, x[i]);
+        }
+    }
+
+    @Override
+    public void reluDerivative(double[] x, double[] output, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            output[i] = x[i] <= 0 ? 0 : 1;
+        }
+    }
+
+    @Override
+    public void reluDerivative(float[] x, float[] output, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            output[i] = x[i] <= 0 ? 0 : 1;
+        }
+    }
+
+    @Override
+    public void leakyRelu(double[] x, double[] output, int offset, int length, double slope) {
+        for (int i = offset; i < offset + length; i++) {
+            output[i] = Math.max(slope * x[i], x[i]);
+        }
+    }
+
+    @Override
+    public void leakyRelu(float[] x, float[] output, int offset, int length, float slope) {
+        for (int i = offset; i < offset + length; i++) {
+            output[i] = Math.max(slope * x[i], x[i]);
+        }
+    }
+
+    @Override
+    public void leakyReluDerivative(double[] x, double[] output, int offset, int length, double slope) {
+        for (int i = offset; i < offset + length; i++) {
+            output[i] = x[i] <= 0 ? slope : 1;
+        }
+    }
+
+    @Override
+    public void leakyReluDerivative(float[] x, float[] output, int offset, int length, float slope) {
+        for (int i = offset; i < offset + length; i++) {
+            output[i] = x[i] <= 0 ? slope : 1;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package mlp.layers;
+
+import mlp.activations.ActivationFn;
+import mlp.kernels.MatrixKernels;
+
+import java.util.Arrays;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 16:41
+ * Purpose: Fully connected layer. The weight connecting unit `i` of the layer below to unit `j` of this layer is at
+ * index `i * (output size) + j` of a flat row-major array, which keeps the layer in one contiguous block of memory.
+ **/
+public class DenseLayer implements Layer {
+    private final int nIn; //Number of units in the layer below
+    private final int nOut; //Number of units in this layer
+    private final ActivationFn activationFn; //Activation function of the units of this layer
+    private final double w[]; //Weights (nIn x nOut)
+    private final double b[]; //Biases
+
+    /**
+     * @param nIn          units in the layer below
+     * @param nOut         units in this layer
+     * @param activationFn activation function of the units of this layer
+     */
+    public DenseLayer(int nIn, int nOut, ActivationFn activationFn) {
+        this.nIn = nIn;
+        this.nOut = nOut;
+        this.activationFn = activationFn;
+        this.w = new double[nIn * nOut];
+        this.b = new double[nOut];
+    }
+
+    @Override
+    public int getInputSize() {
+        return this.nIn;
+    }
+
+    @Override
+    public int getOutputSize() {
+        return this.nOut;
+    }
+
+    @Override
+    public ActivationFn getActivationFn() {
+        return this.activationFn;
+    }
+
+    @Override
+    public double[] getWeights() {
+        return this.w;
+    }
+
+    @Override
+    public double[] getBiases() {
+        return this.b;
+    }
+
+    @Override
+    public Layer copy() {
+        DenseLayer copy = new DenseLayer(this.nIn, this.nOut, this.activationFn);
+        System.arraycopy(this.w, 0, copy.w, 0, this.w.length);
+        System.arraycopy(this.b, 0, copy.b, 0, this.b.length);
+        return copy;
+    }
+
+    @Override
+    public LayerWorkspace createWorkspace(int capacity) {
+        return new LayerWorkspace(capacity, this.nIn, this.nOut);
+    }
+
+    @Override
+    public void forward(double[] x, double[] z, double[] a, int nSamples) {
+        //Activations of the units. The products never reorder the contributions coming to a unit, so a batch gives the
+        //same values as its samples one by one.
+        Arrays.fill(z, 0, nSamples * this.nOut, 0);
+        MatrixKernels.gemm(x, this.w, z, nSamples, this.nIn, this.nOut);
+        MatrixKernels.addRows(z, this.b, nSamples, this.nOut);
+
+        //Apply the activation function sample by sample because an activation (softmax) can depend on all the units
+        //of a sample.
+        for (int r = 0; r < nSamples; r++) {
+            this.activationFn.squash(z, a, r * this.nOut, this.nOut);
+        }
+    }
+
+    @Override
+    public void accumulateChanges(double[] x, LayerWorkspace workspace, int nSamples) {
+        //Weight difference
+        MatrixKernels.gemmTransA(x, workspace.delta, workspace.dw, nSamples, this.nIn, this.nOut);
+
+        //Bias difference
+        MatrixKernels.sumRows(workspace.delta, workspace.db, nSamples, this.nOut);
+    }
+
+    @Override
+    public void backpropagate(LayerWorkspace workspace, Layer below, LayerWorkspace belowWorkspace, int nSamples) {
+        //Because a unit below affects all the units of this layer we have to consider the contribution of each of them
+        Arrays.fill(belowWorkspace.delta, 0, nSamples * this.nIn, 0);
+        MatrixKernels.gemmTransB(workspace.delta, this.w, belowWorkspace.delta, nSamples, this.nOut, this.nIn);
+
+        //Delta is computed using multiplication of the error component with the derivative of the activation received
+        //by the unit
+        below.getActivationFn().squashDerivative(belowWorkspace.z, belowWorkspace.a, belowWorkspace.derivatives,
+                0, nSamples * this.nIn);
+        MatrixKernels.multiply(belowWorkspace.delta, belowWorkspace.derivatives, nSamples * this.nIn);
+    }
+}
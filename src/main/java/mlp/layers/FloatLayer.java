@@ -0,0 +1,80 @@
+package mlp.layers;
+
+import mlp.activations.ActivationFn;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 18:25
+ * Purpose: Parent class for the layers of an mlp built with `Precision.FLOAT`. It is the single precision version of
+ * `Layer`: the weights, biases and every buffer of the batch are `float` arrays with the same flat row-major layout.
+ **/
+public interface FloatLayer {
+    /**
+     * @return number of units in the layer below this layer
+     */
+    int getInputSize();
+
+    /**
+     * @return number of units in this layer
+     */
+    int getOutputSize();
+
+    /**
+     * @return activation function of the units of this layer
+     */
+    ActivationFn getActivationFn();
+
+    /**
+     * @return weights of this layer as a flat row-major (input size x output size) matrix. This is the array used by
+     * the layer and not a copy.
+     */
+    float[] getWeights();
+
+    /**
+     * @return biases of this layer. This is the array used by the layer and not a copy.
+     */
+    float[] getBiases();
+
+    /**
+     * @return layer with the same activation function and its own copy of the weights and biases
+     */
+    FloatLayer copy();
+
+    /**
+     * Create buffers for training this layer on batches of up to the given number of samples
+     *
+     * @param capacity maximum number of samples in a batch
+     * @return workspace for this layer
+     */
+    FloatLayerWorkspace createWorkspace(int capacity);
+
+    /**
+     * Forward pass of this layer
+     *
+     * @param x        values of the units of the layer below (nSamples x input size)
+     * @param z        receives the activations of this layer (nSamples x output size)
+     * @param a        receives the values of the units of this layer (nSamples x output size)
+     * @param nSamples number of samples
+     */
+    void forward(float[] x, float[] z, float[] a, int nSamples);
+
+    /**
+     * Accumulate the weight/bias changes of a batch using the deltas in the workspace
+     *
+     * @param x         values of the units of the layer below used in the forward pass (nSamples x input size)
+     * @param workspace workspace of this layer holding the deltas
+     * @param nSamples  number of samples
+     */
+    void accumulateChanges(float[] x, FloatLayerWorkspace workspace, int nSamples);
+
+    /**
+     * Calculate the deltas of the layer below from the deltas of this layer
+     *
+     * @param workspace      workspace of this layer holding the deltas
+     * @param below          layer below this layer
+     * @param belowWorkspace workspace of the layer below holding its activations. Receives its deltas.
+     * @param nSamples       number of samples
+     */
+    void backpropagate(FloatLayerWorkspace workspace, FloatLayer below, FloatLayerWorkspace belowWorkspace,
+                       int nSamples);
+}
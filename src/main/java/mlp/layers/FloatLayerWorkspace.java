@@ -0,0 +1,48 @@
+package mlp.layers;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 18:30
+ * Purpose: Single precision version of `LayerWorkspace`
+ **/
+public class FloatLayerWorkspace {
+    public final int capacity; //Maximum number of samples in a batch
+    public final float z[]; //Activations of the layer (capacity x output size)
+    public final float a[]; //Values of the units of the layer (capacity x output size)
+    public final float delta[]; //Deltas of the layer (capacity x output size)
+    public final float derivatives[]; //Derivatives of the activations of the layer (capacity x output size)
+    public final float dw[]; //Weight changes of the layer (input size x output size)
+    public final float db[]; //Bias changes of the layer
+
+    /**
+     * @param capacity   maximum number of samples in a batch
+     * @param inputSize  units in the layer below
+     * @param outputSize units in the layer
+     */
+    public FloatLayerWorkspace(int capacity, int inputSize, int outputSize) {
+        this.capacity = capacity;
+        this.z = new float[capacity * outputSize];
+        this.a = new float[capacity * outputSize];
+        this.delta = new float[capacity * outputSize];
+        this.derivatives = new float[capacity * outputSize];
+        this.dw = new float[inputSize * outputSize];
+        this.db = new float[outputSize];
+    }
+
+    /**
+     * Add the changes accumulated by this workspace to the changes of another workspace and reset them to zeroes
+     *
+     * @param other workspace receiving the changes
+     */
+    public void drainChangesInto(FloatLayerWorkspace other) {
+        drain(this.dw, other.dw);
+        drain(this.db, other.db);
+    }
+
+    private static void drain(float[] from, float[] to) {
+        for (int i = 0; i < from.length; i++) {
+            to[i] += from[i];
+            from[i] = 0;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package mlp.layers;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 16:34
+ * Purpose: Preallocated buffers for training a layer. The batch buffers are flat row-major matrices with one row per
+ * sample. It also holds the weight/bias changes accumulated since the last update.
+ **/
+public class LayerWorkspace {
+    public final int capacity; //Maximum number of samples in a batch
+    public final double z[]; //Activations of the layer (capacity x output size)
+    public final double a[]; //Values of the units of the layer (capacity x output size)
+    public final double delta[]; //Deltas of the layer (capacity x output size)
+    public final double derivatives[]; //Derivatives of the activations of the layer (capacity x output size)
+    public final double dw[]; //Weight changes of the layer (input size x output size)
+    public final double db[]; //Bias changes of the layer
+
+    /**
+     * @param capacity   maximum number of samples in a batch
+     * @param inputSize  units in the layer below
+     * @param outputSize units in the layer
+     */
+    public LayerWorkspace(int capacity, int inputSize, int outputSize) {
+        this.capacity = capacity;
+        this.z = new double[capacity * outputSize];
+        this.a = new double[capacity * outputSize];
+        this.delta = new double[capacity * outputSize];
+        this.derivatives = new double[capacity * outputSize];
+        this.dw = new double[inputSize * outputSize];
+        this.db = new double[outputSize];
+    }
+
+    /**
+     * Add the changes accumulated by this workspace to the changes of another workspace and reset them to zeroes
+     *
+     * @param other workspace receiving the changes
+     */
+    public void drainChangesInto(LayerWorkspace other) {
+        drain(this.dw, other.dw);
+        drain(this.db, other.db);
+    }
+
+    private static void drain(double[] from, double[] to) {
+        for (int i = 0; i < from.length; i++) {
+            to[i] += from[i];
+            from[i] = 0;
+        }
+    }
+}
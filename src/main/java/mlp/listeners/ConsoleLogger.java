@@ -0,0 +1,26 @@
+package mlp.listeners;
+
+import mlp.MultilayerPerceptron;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 18:15
+ * Purpose: Prints the loss of every epoch on the standard output as "epoch;loss" lines
+ **/
+public class ConsoleLogger implements TrainingListener {
+
+    @Override
+    public void trainingStarted(MultilayerPerceptron mlp) {
+        System.out.println("Epoch;Loss");
+    }
+
+    @Override
+    public void epochFinished(EpochMetrics metrics) {
+        System.out.println(metrics.epoch + ";" + metrics.loss);
+    }
+
+    @Override
+    public void trainingStopped(int epoch, double bestLoss) {
+        System.out.println("Stopped at epoch " + epoch + ". Best validation loss: " + bestLoss);
+    }
+}
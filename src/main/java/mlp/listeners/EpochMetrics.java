@@ -0,0 +1,41 @@
+package mlp.listeners;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 18:10
+ * Purpose: Measurements of an epoch of training. The times of the phases are summed over the threads training on a
+ * batch, so with multiple threads they can add up to more than the time of the epoch.
+ **/
+public class EpochMetrics {
+    public final int epoch; //Epoch starting from 1
+    public final double loss; //Mean training loss of the samples
+    public final double validationLoss; //Mean loss of the held-out samples. NaN if it isn't checked in this epoch.
+    public final double learningRate; //Learning rate of the epoch
+    public final long samples; //Samples trained on
+    public final long nanos; //Time of the epoch
+    public final long forwardNanos; //Time of the forward passes
+    public final long backwardNanos; //Time of the loss and of the backward passes
+    public final long updateNanos; //Time of the weight updates
+    public final double gradientNorm; //Mean over the batches of the L2 norm of the gradient of all the weights/biases
+
+    public EpochMetrics(int epoch, double loss, double validationLoss, double learningRate, long samples, long nanos,
+                        long forwardNanos, long backwardNanos, long updateNanos, double gradientNorm) {
+        this.epoch = epoch;
+        this.loss = loss;
+        this.validationLoss = validationLoss;
+        this.learningRate = learningRate;
+        this.samples = samples;
+        this.nanos = nanos;
+        this.forwardNanos = forwardNanos;
+        this.backwardNanos = backwardNanos;
+        this.updateNanos = updateNanos;
+        this.gradientNorm = gradientNorm;
+    }
+
+    /**
+     * @return samples trained on per second
+     */
+    public double samplesPerSecond() {
+        return this.samples * 1e9 / Math.max(1, this.nanos);
+    }
+}
@@ -0,0 +1,37 @@
+package mlp.listeners;
+
+import mlp.MultilayerPerceptron;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 18:05
+ * Purpose: Receiver of the progress of `MultilayerPerceptron.fit`. The callbacks are made on the thread calling `fit`.
+ * When no listener is added the mlp doesn't measure anything.
+ **/
+public interface TrainingListener {
+
+    /**
+     * Called before the first epoch
+     *
+     * @param mlp mlp being trained
+     */
+    default void trainingStarted(MultilayerPerceptron mlp) {
+    }
+
+    /**
+     * Called after every epoch
+     *
+     * @param metrics measurements of the epoch
+     */
+    default void epochFinished(EpochMetrics metrics) {
+    }
+
+    /**
+     * Called when early stopping ends the training before the last epoch
+     *
+     * @param epoch    epoch after which training stopped
+     * @param bestLoss lowest validation loss
+     */
+    default void trainingStopped(int epoch, double bestLoss) {
+    }
+}
@@ -1,26 +1,75 @@
 package mlp.loss_functions;
 
-import mlp.exceptions.MLPException;
-
 /**
  * Created By: Prashant Chaubey
  * Created On: 11-05-2020 19:53
- * Purpose: Binary cross entropy for multi-label and binary classification
+ * Purpose: Binary cross entropy for multi-label and binary classification.
+ * <p>
+ * With the sigmoid output p = sigmoid(z) the loss of an output is max(z, 0) - z * target + log(1 + exp(-|z|)) and the
+ * last term is -log(sigmoid(|z|)) = -log(max(p, 1 - p)). `calculateWithDelta` uses this to get the loss with a single
+ * log of a value of at least 0.5, so it stays finite when p is rounded to 0 or 1.
  **/
 public class BinaryCrossEntropyLossFn implements LossFn {
     @Override
-    public double calculate(double[] predicted, double[] target) {
-        //The length of predicted output and target output must be same
-        if (predicted.length != target.length) {
-            throw new MLPException(String.format("The length of output and target vector is different. %s != %s",
-                    predicted.length, target.length));
+    public double calculate(double[] predicted, int offset, double[] target) {
+        double loss = 0;
+        for (int i = 0; i < target.length; i++) {
+            loss += this.loss(predicted[offset + i], target[i]);
         }
 
+        return loss;
+    }
+
+    @Override
+    public double calculate(float[] predicted, int offset, double[] target) {
+        double loss = 0;
+        for (int i = 0; i < target.length; i++) {
+            loss += this.loss(predicted[offset + i], target[i]);
+        }
+
+        return loss;
+    }
+
+    @Override
+    public double calculateWithDelta(double[] z, double[] a, int offset, double[] target, double[] delta) {
         double loss = 0;
         for (int i = 0; i < target.length; i++) {
-            loss += -(target[i] * Math.log(predicted[i])) - ((1 - target[i]) * Math.log(1 - predicted[i]));
+            double p = a[offset + i];
+            double x = z[offset + i];
+            delta[offset + i] = target[i] - p;
+            loss += Math.max(x, 0) - x * target[i] - Math.log(Math.max(p, 1 - p));
         }
 
         return loss;
     }
+
+    @Override
+    public double calculateWithDelta(float[] z, float[] a, int offset, double[] target, float[] delta) {
+        double loss = 0;
+        for (int i = 0; i < target.length; i++) {
+            double p = a[offset + i];
+            double x = z[offset + i];
+            delta[offset + i] = (float) (target[i] - p);
+            loss += Math.max(x, 0) - x * target[i] - Math.log(Math.max(p, 1 - p));
+        }
+
+        return loss;
+    }
+
+    /**
+     * @param p      predicted probability
+     * @param target actual output value
+     * @return loss of an output. A term whose target weight is 0 doesn't contribute, so a probability rounded to 0 or 1
+     * only matters when it is wrong.
+     */
+    private double loss(double p, double target) {
+        double loss = 0;
+        if (target != 0) {
+            loss -= target * Math.log(p);
+        }
+        if (target != 1) {
+            loss -= (1 - target) * Math.log(1 - p);
+        }
+        return loss;
+    }
 }
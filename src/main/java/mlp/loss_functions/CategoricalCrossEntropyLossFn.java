@@ -1,24 +1,77 @@
 package mlp.loss_functions;
 
-import mlp.exceptions.MLPException;
-
 /**
  * Created By: Prashant Chaubey
  * Created On: 11-05-2020 19:38
- * Purpose: Categorical cross entropy for multi-class classification
+ * Purpose: Categorical cross entropy for multi-class classification. Targets of 0 don't contribute, so an output rounded
+ * to 0 only matters for the class of the sample.
+ * <p>
+ * With the softmax output, log(softmax(z)_i) = z_i - max(z) - log(sum of exp(z_j - max(z))) and the sum is 1 / the
+ * largest output. `calculateWithDelta` uses this to get the loss without exponentials and with a single log, which stays
+ * finite however small the output of the class of the sample is.
  **/
 public class CategoricalCrossEntropyLossFn implements LossFn {
     @Override
-    public double calculate(double[] predicted, double[] target) {
-        //The length of predicted output and target output must be same
-        if (predicted.length != target.length) {
-            throw new MLPException(String.format("The length of output and target vector is different. %s != %s",
-                    predicted.length, target.length));
+    public double calculate(double[] predicted, int offset, double[] target) {
+        double loss = 0;
+        for (int i = 0; i < target.length; i++) {
+            if (target[i] != 0) {
+                loss += -(target[i] * Math.log(predicted[offset + i]));
+            }
+        }
+
+        return loss;
+    }
+
+    @Override
+    public double calculate(float[] predicted, int offset, double[] target) {
+        double loss = 0;
+        for (int i = 0; i < target.length; i++) {
+            if (target[i] != 0) {
+                loss += -(target[i] * Math.log(predicted[offset + i]));
+            }
+        }
+
+        return loss;
+    }
+
+    @Override
+    public double calculateWithDelta(double[] z, double[] a, int offset, double[] target, double[] delta) {
+        int best = offset;
+        for (int i = offset + 1; i < offset + target.length; i++) {
+            if (z[i] > z[best]) {
+                best = i;
+            }
+        }
+        double logSum = -Math.log(a[best]);
+
+        double loss = 0;
+        for (int i = 0; i < target.length; i++) {
+            delta[offset + i] = target[i] - a[offset + i];
+            if (target[i] != 0) {
+                loss += -(target[i] * (z[offset + i] - z[best] - logSum));
+            }
+        }
+
+        return loss;
+    }
+
+    @Override
+    public double calculateWithDelta(float[] z, float[] a, int offset, double[] target, float[] delta) {
+        int best = offset;
+        for (int i = offset + 1; i < offset + target.length; i++) {
+            if (z[i] > z[best]) {
+                best = i;
+            }
         }
+        double logSum = -Math.log(a[best]);
 
         double loss = 0;
         for (int i = 0; i < target.length; i++) {
-            loss += -(target[i] * Math.log(predicted[i]));
+            delta[offset + i] = (float) (target[i] - a[offset + i]);
+            if (target[i] != 0) {
+                loss += -(target[i] * ((double) z[offset + i] - z[best] - logSum));
+            }
         }
 
         return loss;
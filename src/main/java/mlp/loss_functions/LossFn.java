@@ -1,5 +1,7 @@
 package mlp.loss_functions;
 
+import mlp.exceptions.MLPException;
+
 /**
  * Created By: Prashant Chaubey
  * Created On: 09-05-2020 02:28
@@ -14,5 +16,64 @@ public interface LossFn {
      * @param target actual output values
      * @return loss between output and target
      */
-    double calculate(double[] predicted, double[] target);
+    default double calculate(double[] predicted, double[] target) {
+        //The length of predicted output and target output must be same
+        if (predicted.length != target.length) {
+            throw new MLPException(String.format("The length of output and target vector is different. %s != %s",
+                    predicted.length, target.length));
+        }
+        return calculate(predicted, 0, target);
+    }
+
+    /**
+     * Calculate loss for the target values and the output values which start at a given offset. It is used to
+     * calculate loss of a single sample from a matrix holding outputs of a batch without copying them.
+     *
+     * @param predicted buffer holding output of the mlp
+     * @param offset    index of the first output value in the buffer
+     * @param target    actual output values
+     * @return loss between output and target
+     */
+    double calculate(double[] predicted, int offset, double[] target);
+
+    /**
+     * Single precision version of `calculate(double[], int, double[])` used by mlps built with `Precision.FLOAT`. The
+     * loss is still added up in double.
+     *
+     * @param predicted buffer holding output of the mlp
+     * @param offset    index of the first output value in the buffer
+     * @param target    actual output values
+     * @return loss between output and target
+     */
+    double calculate(float[] predicted, int offset, double[] target);
+
+    /**
+     * Loss of a sample and delta of the output layer in a single pass. Each loss is used by the mlp with a single
+     * output activation (linear, softmax or sigmoid) and it computes the loss from the activations of the output layer
+     * where that avoids the log of an output rounded to 0 or 1.
+     * <p>
+     * The delta is target - output. It is the derivative of the loss with respect to the activations of the output
+     * layer for each of the three pairs, with the sign flipped as the weight changes are added.
+     *
+     * @param z      buffer holding the activations of the output layer
+     * @param a      buffer holding the outputs of the mlp
+     * @param offset index of the first output value of the sample in the buffers
+     * @param target actual output values
+     * @param delta  buffer receiving the delta of the output layer at the same offset
+     * @return loss between output and target
+     */
+    double calculateWithDelta(double[] z, double[] a, int offset, double[] target, double[] delta);
+
+    /**
+     * Single precision version of `calculateWithDelta(double[], double[], int, double[], double[])`. The loss is still
+     * added up in double.
+     *
+     * @param z      buffer holding the activations of the output layer
+     * @param a      buffer holding the outputs of the mlp
+     * @param offset index of the first output value of the sample in the buffers
+     * @param target actual output values
+     * @param delta  buffer receiving the delta of the output layer at the same offset
+     * @return loss between output and target
+     */
+    double calculateWithDelta(float[] z, float[] a, int offset, double[] target, float[] delta);
 }
@@ -1,23 +1,49 @@
 package mlp.loss_functions;
 
-import mlp.exceptions.MLPException;
-
 /**
  * Created By: Prashant Chaubey
  * Created On: 09-05-2020 02:28
  * Purpose: Squared error loss
  **/
 public class SquaredErrorLossFn implements LossFn {
-    public double calculate(double[] predicted, double[] target) {
-        //The length of predicted output and target output must be same
-        if (predicted.length != target.length) {
-            throw new MLPException(String.format("The length of output and target vector is different. %s != %s",
-                    predicted.length, target.length));
+    public double calculate(double[] predicted, int offset, double[] target) {
+        double loss = 0;
+        for (int i = 0; i < target.length; i++) {
+            loss += 0.5 * Math.pow(target[i] - predicted[offset + i], 2);
         }
 
+        return loss;
+    }
+
+    public double calculate(float[] predicted, int offset, double[] target) {
+        double loss = 0;
+        for (int i = 0; i < target.length; i++) {
+            loss += 0.5 * Math.pow(target[i] - predicted[offset + i], 2);
+        }
+
+        return loss;
+    }
+
+    @Override
+    public double calculateWithDelta(double[] z, double[] a, int offset, double[] target, double[] delta) {
+        //Linear output: z and a are the same
+        double loss = 0;
+        for (int i = 0; i < target.length; i++) {
+            double error = target[i] - a[offset + i];
+            delta[offset + i] = error;
+            loss += 0.5 * error * error;
+        }
+
+        return loss;
+    }
+
+    @Override
+    public double calculateWithDelta(float[] z, float[] a, int offset, double[] target, float[] delta) {
         double loss = 0;
-        for (int i = 0; i < predicted.length; i++) {
-            loss += 0.5 * Math.pow(target[i] - predicted[i], 2);
+        for (int i = 0; i < target.length; i++) {
+            double error = target[i] - a[offset + i];
+            delta[offset + i] = (float) error;
+            loss += 0.5 * error * error;
         }
 
         return loss;
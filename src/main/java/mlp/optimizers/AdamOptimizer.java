@@ -0,0 +1,103 @@
+package mlp.optimizers;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 16:30
+ * Purpose: Adam. The step of every parameter uses bias-corrected moving averages of its gradients and of its squared
+ * gradients.
+ * m = beta1 * m + (1 - beta1) * gradient
+ * v = beta2 * v + (1 - beta2) * gradient^2
+ * w = w - learningRate * (m / (1 - beta1^t)) / (sqrt(v / (1 - beta2^t)) + epsilon)
+ * REF: https://arxiv.org/abs/1412.6980
+ **/
+public class AdamOptimizer implements Optimizer {
+    private final double beta1; //Decay of the average of the gradients
+    private final double beta2; //Decay of the average of the squared gradients
+    private final double epsilon; //Guard against division by zero
+    private double moments[][]; //Average of the gradients of every parameter of each slot
+    private double squares[][]; //Average of the squared gradients of every parameter of each slot
+    private int t; //Number of steps taken
+    private double correction1; //1 - beta1^t
+    private double correction2; //1 - beta2^t
+
+    /**
+     * Beta1 of 0.9, beta2 of 0.999 and epsilon of 1e-8
+     */
+    public AdamOptimizer() {
+        this(0.9, 0.999, 1e-8);
+    }
+
+    /**
+     * @param beta1   decay of the average of the gradients. Should be between 0 and 1.
+     * @param beta2   decay of the average of the squared gradients. Should be between 0 and 1.
+     * @param epsilon guard against division by zero
+     */
+    public AdamOptimizer(double beta1, double beta2, double epsilon) {
+        this.beta1 = beta1;
+        this.beta2 = beta2;
+        this.epsilon = epsilon;
+    }
+
+    @Override
+    public void initialize(int[] sizes) {
+        this.moments = new double[sizes.length][];
+        this.squares = new double[sizes.length][];
+        for (int s = 0; s < sizes.length; s++) {
+            this.moments[s] = new double[sizes[s]];
+            this.squares[s] = new double[sizes[s]];
+        }
+        this.t = 0;
+    }
+
+    @Override
+    public void nextStep() {
+        this.t++;
+        this.correction1 = 1 - Math.pow(this.beta1, this.t);
+        this.correction2 = 1 - Math.pow(this.beta2, this.t);
+    }
+
+    @Override
+    public void update(int slot, double[] w, double[] dw, int nSamples, double learningRate) {
+        double[] m = this.moments[slot];
+        double[] v = this.squares[slot];
+        //The bias corrections are the same for every parameter of the step
+        double stepSize = learningRate / this.correction1;
+        double sqrtCorrection2 = Math.sqrt(this.correction2);
+        for (int i = 0; i < w.length; i++) {
+            double g = dw[i] / nSamples; //Negative gradient
+            m[i] = this.beta1 * m[i] + (1 - this.beta1) * g;
+            v[i] = this.beta2 * v[i] + (1 - this.beta2) * g * g;
+            w[i] = this.decay(slot, w[i], learningRate) + stepSize * m[i] / (Math.sqrt(v[i]) / sqrtCorrection2 +
+                    this.epsilon);
+            dw[i] = 0;
+        }
+    }
+
+    @Override
+    public void update(int slot, float[] w, float[] dw, int nSamples, double learningRate) {
+        double[] m = this.moments[slot];
+        double[] v = this.squares[slot];
+        double stepSize = learningRate / this.correction1;
+        double sqrtCorrection2 = Math.sqrt(this.correction2);
+        for (int i = 0; i < w.length; i++) {
+            double g = (double) dw[i] / nSamples; //Negative gradient
+            m[i] = this.beta1 * m[i] + (1 - this.beta1) * g;
+            v[i] = this.beta2 * v[i] + (1 - this.beta2) * g * g;
+            w[i] = (float) (this.decay(slot, w[i], learningRate) + stepSize * m[i] / (Math.sqrt(v[i]) / sqrtCorrection2 +
+                    this.epsilon));
+            dw[i] = 0;
+        }
+    }
+
+    /**
+     * Weight decay applied to a parameter before its step. Adam has none.
+     *
+     * @param slot         slot of the parameter array
+     * @param w            parameter
+     * @param learningRate learning rate for this update
+     * @return decayed parameter
+     */
+    double decay(int slot, double w, double learningRate) {
+        return w;
+    }
+}
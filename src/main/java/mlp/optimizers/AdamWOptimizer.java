@@ -0,0 +1,48 @@
+package mlp.optimizers;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 16:35
+ * Purpose: Adam with decoupled weight decay. The weights shrink by learningRate * weightDecay in every step,
+ * independently of the gradients, before the Adam step is applied. The biases aren't decayed.
+ * REF: https://arxiv.org/abs/1711.05101
+ **/
+public class AdamWOptimizer extends AdamOptimizer {
+    private final double weightDecay; //Fraction of the parameters removed per unit of learning rate
+
+    /**
+     * Defaults of Adam and weight decay of 0.01
+     */
+    public AdamWOptimizer() {
+        this(0.01);
+    }
+
+    /**
+     * Defaults of Adam
+     *
+     * @param weightDecay fraction of the parameters removed per unit of learning rate
+     */
+    public AdamWOptimizer(double weightDecay) {
+        this(0.9, 0.999, 1e-8, weightDecay);
+    }
+
+    /**
+     * @param beta1       decay of the average of the gradients. Should be between 0 and 1.
+     * @param beta2       decay of the average of the squared gradients. Should be between 0 and 1.
+     * @param epsilon     guard against division by zero
+     * @param weightDecay fraction of the parameters removed per unit of learning rate
+     */
+    public AdamWOptimizer(double beta1, double beta2, double epsilon, double weightDecay) {
+        super(beta1, beta2, epsilon);
+        this.weightDecay = weightDecay;
+    }
+
+    @Override
+    double decay(int slot, double w, double learningRate) {
+        //Odd slots are biases
+        if (slot % 2 == 1) {
+            return w;
+        }
+        return w - learningRate * this.weightDecay * w;
+    }
+}
@@ -0,0 +1,55 @@
+package mlp.optimizers;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 16:15
+ * Purpose: Gradient descent with momentum
+ * v = momentum * v - learningRate * gradient
+ * w = w + v
+ **/
+public class MomentumOptimizer implements Optimizer {
+    private final double momentum; //Fraction of the velocity kept from one step to the next
+    private double velocity[][]; //Velocity of every parameter of each slot
+
+    /**
+     * Momentum of 0.9
+     */
+    public MomentumOptimizer() {
+        this(0.9);
+    }
+
+    /**
+     * @param momentum fraction of the velocity kept from one step to the next. Should be between 0 and 1.
+     */
+    public MomentumOptimizer(double momentum) {
+        this.momentum = momentum;
+    }
+
+    @Override
+    public void initialize(int[] sizes) {
+        this.velocity = new double[sizes.length][];
+        for (int s = 0; s < sizes.length; s++) {
+            this.velocity[s] = new double[sizes[s]];
+        }
+    }
+
+    @Override
+    public void update(int slot, double[] w, double[] dw, int nSamples, double learningRate) {
+        double[] v = this.velocity[slot];
+        for (int i = 0; i < w.length; i++) {
+            v[i] = this.momentum * v[i] + learningRate * (dw[i] / nSamples);
+            w[i] += v[i];
+            dw[i] = 0;
+        }
+    }
+
+    @Override
+    public void update(int slot, float[] w, float[] dw, int nSamples, double learningRate) {
+        double[] v = this.velocity[slot];
+        for (int i = 0; i < w.length; i++) {
+            v[i] = this.momentum * v[i] + learningRate * ((double) dw[i] / nSamples);
+            w[i] += v[i];
+            dw[i] = 0;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package mlp.optimizers;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 16:05
+ * Purpose: Parent class for all the rules updating the weights/biases from the changes accumulated over a batch. The
+ * weights and the biases of every layer are separate parameter arrays identified by a slot: 2 * l for the weights of
+ * layer l and 2 * l + 1 for its biases. The state of an optimizer (velocities, moments...) is allocated once per slot
+ * and every update goes over a parameter array in a single pass, which also resets the accumulated changes to zeroes
+ * for the next batch.
+ * <p>
+ * An optimizer keeps the state of the parameters of one mlp, so it shouldn't be shared between mlps.
+ **/
+public interface Optimizer {
+
+    /**
+     * Allocate the state of the parameters. Called by the mlp when the optimizer is set.
+     *
+     * @param sizes length of the parameter array of each slot
+     */
+    void initialize(int[] sizes);
+
+    /**
+     * Start the updates of a new batch. Called once before the slots are updated.
+     */
+    default void nextStep() {
+    }
+
+    /**
+     * Update a parameter array and reset its changes to zeroes
+     *
+     * @param slot         slot of the parameter array
+     * @param w            parameters to update
+     * @param dw           changes accumulated over the batch. They are the negative gradient of the loss summed over
+     *                     the samples.
+     * @param nSamples     number of samples on which the changes are accumulated
+     * @param learningRate learning rate for this update
+     */
+    void update(int slot, double[] w, double[] dw, int nSamples, double learningRate);
+
+    /**
+     * Single precision version of `update(int, double[], double[], int, double)` used by mlps built with
+     * `Precision.FLOAT`. The state of the optimizer stays in double, so small steps keep adding up.
+     *
+     * @param slot         slot of the parameter array
+     * @param w            parameters to update
+     * @param dw           changes accumulated over the batch
+     * @param nSamples     number of samples on which the changes are accumulated
+     * @param learningRate learning rate for this update
+     */
+    void update(int slot, float[] w, float[] dw, int nSamples, double learningRate);
+}
@@ -0,0 +1,60 @@
+package mlp.optimizers;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 16:25
+ * Purpose: RMSProp. The step of every parameter is scaled by a moving average of its squared gradients.
+ * s = decay * s + (1 - decay) * gradient^2
+ * w = w - learningRate * gradient / (sqrt(s) + epsilon)
+ **/
+public class RmsPropOptimizer implements Optimizer {
+    private final double decay; //Fraction of the average kept from one step to the next
+    private final double epsilon; //Guard against division by zero
+    private double squares[][]; //Moving average of the squared gradients of every parameter of each slot
+
+    /**
+     * Decay of 0.9 and epsilon of 1e-8
+     */
+    public RmsPropOptimizer() {
+        this(0.9, 1e-8);
+    }
+
+    /**
+     * @param decay   fraction of the average kept from one step to the next. Should be between 0 and 1.
+     * @param epsilon guard against division by zero
+     */
+    public RmsPropOptimizer(double decay, double epsilon) {
+        this.decay = decay;
+        this.epsilon = epsilon;
+    }
+
+    @Override
+    public void initialize(int[] sizes) {
+        this.squares = new double[sizes.length][];
+        for (int s = 0; s < sizes.length; s++) {
+            this.squares[s] = new double[sizes[s]];
+        }
+    }
+
+    @Override
+    public void update(int slot, double[] w, double[] dw, int nSamples, double learningRate) {
+        double[] s = this.squares[slot];
+        for (int i = 0; i < w.length; i++) {
+            double g = dw[i] / nSamples; //Negative gradient
+            s[i] = this.decay * s[i] + (1 - this.decay) * g * g;
+            w[i] += learningRate * g / (Math.sqrt(s[i]) + this.epsilon);
+            dw[i] = 0;
+        }
+    }
+
+    @Override
+    public void update(int slot, float[] w, float[] dw, int nSamples, double learningRate) {
+        double[] s = this.squares[slot];
+        for (int i = 0; i < w.length; i++) {
+            double g = (double) dw[i] / nSamples; //Negative gradient
+            s[i] = this.decay * s[i] + (1 - this.decay) * g * g;
+            w[i] += learningRate * g / (Math.sqrt(s[i]) + this.epsilon);
+            dw[i] = 0;
+        }
+    }
+}
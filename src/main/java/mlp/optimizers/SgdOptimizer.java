@@ -0,0 +1,31 @@
+package mlp.optimizers;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 16:10
+ * Purpose: Plain gradient descent w = w - learningRate * gradient. It has no state.
+ **/
+public class SgdOptimizer implements Optimizer {
+
+    @Override
+    public void initialize(int[] sizes) {
+    }
+
+    @Override
+    public void update(int slot, double[] w, double[] dw, int nSamples, double learningRate) {
+        for (int i = 0; i < w.length; i++) {
+            //A positive sign is used because while calculating the delta we left out the minus sign there. So that
+            //minus sign cancels the minus sign here.
+            w[i] += learningRate * (dw[i] / nSamples);
+            dw[i] = 0;
+        }
+    }
+
+    @Override
+    public void update(int slot, float[] w, float[] dw, int nSamples, double learningRate) {
+        for (int i = 0; i < w.length; i++) {
+            w[i] += learningRate * (dw[i] / nSamples);
+            dw[i] = 0;
+        }
+    }
+}
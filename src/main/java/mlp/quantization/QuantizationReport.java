@@ -0,0 +1,33 @@
+package mlp.quantization;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 19:45
+ * Purpose: Accuracy and size of a quantized mlp compared with the mlp it was quantized from
+ **/
+public class QuantizationReport {
+    public final int samples; //Number of samples compared
+    public final double maxAbsoluteError; //Largest difference between an output of the two mlps
+    public final double meanAbsoluteError; //Mean difference between an output of the two mlps
+    public final double agreement; //Fraction of the samples given the same class by both mlps. NaN for regression.
+    public final long referenceBytes; //Bytes taken by the weights and biases of the original mlp
+    public final long quantizedBytes; //Bytes taken by the weights, biases and scales of the quantized mlp
+
+    QuantizationReport(int samples, double maxAbsoluteError, double meanAbsoluteError, double agreement,
+                       long referenceBytes, long quantizedBytes) {
+        this.samples = samples;
+        this.maxAbsoluteError = maxAbsoluteError;
+        this.meanAbsoluteError = meanAbsoluteError;
+        this.agreement = agreement;
+        this.referenceBytes = referenceBytes;
+        this.quantizedBytes = quantizedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Samples: %s%nMax absolute error: %.6f%nMean absolute error: %.6f%nAgreement: %.4f%n" +
+                        "Size: %s bytes -> %s bytes (%.2fx smaller)", this.samples, this.maxAbsoluteError,
+                this.meanAbsoluteError, this.agreement, this.referenceBytes, this.quantizedBytes,
+                (double) this.referenceBytes / this.quantizedBytes);
+    }
+}
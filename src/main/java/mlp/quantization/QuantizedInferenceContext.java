@@ -0,0 +1,31 @@
+package mlp.quantization;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 19:40
+ * Purpose: Scratch space for predicting a single sample with
+ * `QuantizedMultilayerPerceptron.predict(double[], QuantizedInferenceContext)`. Like `InferenceContext`, a context
+ * should be used by one thread at a time and can be reused for any number of predictions.
+ **/
+public class QuantizedInferenceContext {
+    final byte xq[][]; //Quantized input of each layer
+    final int sums[][]; //Integer sums of each layer
+    final double z[][]; //Activations of each layer
+    final double a[][]; //Values of the units of each layer
+
+    /**
+     * @param layers layers of the quantized mlp
+     */
+    QuantizedInferenceContext(QuantizedLayer[] layers) {
+        this.xq = new byte[layers.length][];
+        this.sums = new int[layers.length][];
+        this.z = new double[layers.length][];
+        this.a = new double[layers.length][];
+        for (int l = 0; l < layers.length; l++) {
+            this.xq[l] = new byte[layers[l].nIn];
+            this.sums[l] = new int[layers[l].nOut];
+            this.z[l] = new double[layers[l].nOut];
+            this.a[l] = new double[layers[l].nOut];
+        }
+    }
+}
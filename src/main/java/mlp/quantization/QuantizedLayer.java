@@ -0,0 +1,123 @@
+package mlp.quantization;
+
+import mlp.activations.ActivationFn;
+import mlp.kernels.MatrixKernels;
+
+import java.util.Arrays;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 19:35
+ * Purpose: Dense layer with 8 bit weights. The values coming from the layer below are rounded to 8 bits with the scale
+ * found by the calibration and the products are added up in 32 bit integers starting from the biases, which are
+ * quantized to the scale of the sums. The sums are scaled back to `double` before the activation function is applied.
+ * Values are mapped symmetrically to [-127, 127].
+ **/
+final class QuantizedLayer {
+    static final int LEVELS = 127; //Largest magnitude of a quantized value
+
+    final int nIn; //Number of units in the layer below
+    final int nOut; //Number of units in this layer
+    final byte w[]; //Quantized weights as a flat row-major (output size x input size) matrix: a row per unit
+    final int b[]; //Biases quantized to the scales of the sums
+    final double inputScale; //Value of a step of the quantized inputs
+    final float scales[]; //Value of a step of the integer sums of each unit: input scale x weight scale
+    final ActivationFn activationFn; //Activation function of the units
+
+    /**
+     * Quantize the weights of a layer
+     *
+     * @param weights      weights as a flat row-major (input size x output size) matrix
+     * @param biases       biases
+     * @param nIn          number of units in the layer below
+     * @param nOut         number of units in this layer
+     * @param activationFn activation function of the units
+     * @param inputRange   largest magnitude of the inputs seen by the calibration
+     * @param granularity  scale per layer or per unit
+     */
+    QuantizedLayer(double[] weights, double[] biases, int nIn, int nOut, ActivationFn activationFn, double inputRange,
+                   ScaleGranularity granularity) {
+        this.nIn = nIn;
+        this.nOut = nOut;
+        this.activationFn = activationFn;
+        this.inputScale = scale(inputRange);
+
+        //Largest magnitude of the weights of each unit, or of the whole layer
+        double[] ranges = new double[nOut];
+        for (int i = 0; i < nIn; i++) {
+            for (int j = 0; j < nOut; j++) {
+                ranges[j] = Math.max(ranges[j], Math.abs(weights[i * nOut + j]));
+            }
+        }
+        if (granularity == ScaleGranularity.PER_LAYER) {
+            double range = 0;
+            for (double r : ranges) {
+                range = Math.max(range, r);
+            }
+            Arrays.fill(ranges, range);
+        }
+
+        //Transpose so that the weights of a unit are next to each other for its dot product
+        this.w = new byte[nOut * nIn];
+        this.b = new int[nOut];
+        this.scales = new float[nOut];
+        for (int j = 0; j < nOut; j++) {
+            double weightScale = scale(ranges[j]);
+            double sumScale = this.inputScale * weightScale;
+            this.scales[j] = (float) sumScale;
+            //Half of the range of an int is left for the products
+            this.b[j] = (int) Math.max(Integer.MIN_VALUE / 2, Math.min(Integer.MAX_VALUE / 2,
+                    Math.round(biases[j] / sumScale)));
+            for (int i = 0; i < nIn; i++) {
+                this.w[j * nIn + i] = quantize(weights[i * nOut + j], 1 / weightScale);
+            }
+        }
+    }
+
+    /**
+     * Forward pass of a single sample
+     *
+     * @param x    values of the units of the layer below
+     * @param xq   receives the quantized values of the units of the layer below
+     * @param sums receives the integer sums of the units of this layer
+     * @param z    receives the activations of this layer
+     * @param a    receives the values of the units of this layer
+     */
+    void forward(double[] x, byte[] xq, int[] sums, double[] z, double[] a) {
+        double inverse = 1 / this.inputScale;
+        for (int i = 0; i < this.nIn; i++) {
+            xq[i] = quantize(x[i], inverse);
+        }
+        System.arraycopy(this.b, 0, sums, 0, this.nOut);
+        MatrixKernels.gemmTransB(xq, this.w, sums, 1, this.nIn, this.nOut);
+        for (int j = 0; j < this.nOut; j++) {
+            z[j] = sums[j] * (double) this.scales[j];
+        }
+        this.activationFn.squash(z, a, 0, this.nOut);
+    }
+
+    /**
+     * @return bytes taken by the parameters: quantized weights, biases and scales
+     */
+    long bytes() {
+        return this.w.length + 4L * (this.b.length + this.scales.length) + 8;
+    }
+
+    /**
+     * @param range largest magnitude to represent
+     * @return value of a quantization step which maps the range to [-127, 127]
+     */
+    static double scale(double range) {
+        //An all-zero range still needs a usable scale
+        return range > 0 ? range / LEVELS : 1;
+    }
+
+    /**
+     * @param value   value to quantize
+     * @param inverse inverse of the scale
+     * @return nearest quantized value, saturated to [-127, 127]
+     */
+    static byte quantize(double value, double inverse) {
+        return (byte) Math.max(-LEVELS, Math.min(LEVELS, Math.round(value * inverse)));
+    }
+}
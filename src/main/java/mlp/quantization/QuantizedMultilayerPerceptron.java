@@ -0,0 +1,306 @@
+package mlp.quantization;
+
+import mlp.MultilayerPerceptron;
+import mlp.Precision;
+import mlp.activations.ActivationFn;
+import mlp.exceptions.MLPException;
+import mlp.layers.FloatLayer;
+import mlp.layers.FloatLayerWorkspace;
+import mlp.layers.Layer;
+import mlp.layers.LayerWorkspace;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 19:50
+ * Purpose: Inference-only mlp with 8 bit weights, made from a trained mlp by post-training quantization. The weights
+ * take 8 times less memory than in double precision and the dot products run on integers. The scale of the values
+ * coming into each layer is fixed by a calibration pass of the trained mlp over sample inputs, so the calibration
+ * samples should cover the range of the inputs which are going to be predicted. Values outside of that range are
+ * saturated. The model is immutable, so it can be shared by any number of threads each using its own context.
+ **/
+public class QuantizedMultilayerPerceptron {
+    private static final int CALIBRATION_BATCH = 64; //Calibration samples going through the mlp at once
+    private final QuantizedLayer[] layers; //Layers from the first hidden layer to the output layer
+    private final ScaleGranularity granularity; //Scale per layer or per unit
+    private final boolean classification; //Whether the mlp predicts classes
+    private final boolean multiClass; //Whether the classes are exclusive (softmax output)
+
+    private QuantizedMultilayerPerceptron(QuantizedLayer[] layers, ScaleGranularity granularity,
+                                          boolean classification, boolean multiClass) {
+        this.layers = layers;
+        this.granularity = granularity;
+        this.classification = classification;
+        this.multiClass = multiClass;
+    }
+
+    /**
+     * Quantize a trained mlp
+     *
+     * @param mlp         trained mlp of either precision
+     * @param calibration sample inputs used to find the range of the values coming into each layer
+     * @param granularity scale per layer or per unit
+     * @return quantized mlp
+     */
+    public static QuantizedMultilayerPerceptron quantize(MultilayerPerceptron mlp, double[][] calibration,
+                                                         ScaleGranularity granularity) {
+        if (calibration.length == 0) {
+            throw new MLPException("At least one calibration sample is needed");
+        }
+        int depth = mlp.getPrecision() == Precision.FLOAT ? mlp.getFloatLayers().length : mlp.getLayers().length;
+        double[][] weights = new double[depth][];
+        double[][] biases = new double[depth][];
+        int[] sizes = new int[depth + 1];
+        ActivationFn[] activationFns = new ActivationFn[depth];
+        for (int l = 0; l < depth; l++) {
+            if (mlp.getPrecision() == Precision.FLOAT) {
+                FloatLayer layer = mlp.getFloatLayers()[l];
+                weights[l] = toDouble(layer.getWeights());
+                biases[l] = toDouble(layer.getBiases());
+                sizes[l] = layer.getInputSize();
+                sizes[l + 1] = layer.getOutputSize();
+                activationFns[l] = layer.getActivationFn();
+            } else {
+                Layer layer = mlp.getLayers()[l];
+                weights[l] = layer.getWeights();
+                biases[l] = layer.getBiases();
+                sizes[l] = layer.getInputSize();
+                sizes[l + 1] = layer.getOutputSize();
+                activationFns[l] = layer.getActivationFn();
+            }
+        }
+
+        double[] ranges = calibrate(mlp, calibration, depth);
+
+        QuantizedLayer[] layers = new QuantizedLayer[depth];
+        for (int l = 0; l < depth; l++) {
+            layers[l] = new QuantizedLayer(weights[l], biases[l], sizes[l], sizes[l + 1], activationFns[l], ranges[l],
+                    granularity);
+        }
+        return new QuantizedMultilayerPerceptron(layers, granularity, mlp.isClassification(), mlp.isMultiClass());
+    }
+
+    /**
+     * Calibration: largest magnitude of the values coming into each layer over the samples. The samples go through
+     * the forward passes of the layers of the mlp, so the ranges are those of the mlp as it predicts.
+     *
+     * @param mlp         trained mlp of either precision
+     * @param calibration sample inputs
+     * @param depth       number of layers of the mlp
+     * @return range of the values coming into each layer
+     */
+    private static double[] calibrate(MultilayerPerceptron mlp, double[][] calibration, int depth) {
+        int ni = mlp.getInputSize();
+        for (double[] x : calibration) {
+            if (x.length != ni) {
+                throw new MLPException(String.format("Expected no of units in input: %s but found %s", ni,
+                        x.length));
+            }
+        }
+        int capacity = Math.min(CALIBRATION_BATCH, calibration.length);
+        double[] ranges = new double[depth];
+        if (mlp.getPrecision() == Precision.FLOAT) {
+            FloatLayer[] layers = mlp.getFloatLayers();
+            FloatLayerWorkspace[] workspaces = new FloatLayerWorkspace[depth];
+            for (int l = 0; l < depth; l++) {
+                workspaces[l] = layers[l].createWorkspace(capacity);
+            }
+            float[] batch = new float[capacity * ni];
+            for (int from = 0; from < calibration.length; from += capacity) {
+                int nSamples = Math.min(capacity, calibration.length - from);
+                for (int r = 0; r < nSamples; r++) {
+                    for (int i = 0; i < ni; i++) {
+                        batch[r * ni + i] = (float) calibration[from + r][i];
+                    }
+                }
+                float[] input = batch;
+                for (int l = 0; l < depth; l++) {
+                    for (int i = 0; i < nSamples * layers[l].getInputSize(); i++) {
+                        ranges[l] = Math.max(ranges[l], Math.abs(input[i]));
+                    }
+                    layers[l].forward(input, workspaces[l].z, workspaces[l].a, nSamples);
+                    input = workspaces[l].a;
+                }
+            }
+            return ranges;
+        }
+        Layer[] layers = mlp.getLayers();
+        LayerWorkspace[] workspaces = new LayerWorkspace[depth];
+        for (int l = 0; l < depth; l++) {
+            workspaces[l] = layers[l].createWorkspace(capacity);
+        }
+        double[] batch = new double[capacity * ni];
+        for (int from = 0; from < calibration.length; from += capacity) {
+            int nSamples = Math.min(capacity, calibration.length - from);
+            for (int r = 0; r < nSamples; r++) {
+                System.arraycopy(calibration[from + r], 0, batch, r * ni, ni);
+            }
+            double[] input = batch;
+            for (int l = 0; l < depth; l++) {
+                for (int i = 0; i < nSamples * layers[l].getInputSize(); i++) {
+                    ranges[l] = Math.max(ranges[l], Math.abs(input[i]));
+                }
+                layers[l].forward(input, workspaces[l].z, workspaces[l].a, nSamples);
+                input = workspaces[l].a;
+            }
+        }
+        return ranges;
+    }
+
+    /**
+     * @return number of input units
+     */
+    public int getInputSize() {
+        return this.layers[0].nIn;
+    }
+
+    /**
+     * @return number of output units
+     */
+    public int getOutputSize() {
+        return this.layers[this.layers.length - 1].nOut;
+    }
+
+    /**
+     * @return scale per layer or per unit
+     */
+    public ScaleGranularity getGranularity() {
+        return this.granularity;
+    }
+
+    /**
+     * @return bytes taken by the weights, biases and scales
+     */
+    public long getBytes() {
+        long bytes = 0;
+        for (QuantizedLayer layer : this.layers) {
+            bytes += layer.bytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Predict the outputs of many inputs
+     *
+     * @param x inputs
+     * @return predicted outputs
+     */
+    public double[][] predict(double[][] x) {
+        QuantizedInferenceContext context = this.createInferenceContext();
+        double[][] output = new double[x.length][];
+        for (int i = 0; i < x.length; i++) {
+            output[i] = this.predict(x[i], context).clone();
+        }
+        return output;
+    }
+
+    /**
+     * Create scratch space for `predict(double[], QuantizedInferenceContext)`. A context should be used by one thread
+     * at a time.
+     *
+     * @return inference context for this mlp
+     */
+    public QuantizedInferenceContext createInferenceContext() {
+        return new QuantizedInferenceContext(this.layers);
+    }
+
+    /**
+     * Predict the output for a single input. It doesn't allocate any memory and is safe to call from multiple
+     * threads with a context per thread.
+     *
+     * @param x       input
+     * @param context scratch space created by `createInferenceContext` of this mlp
+     * @return predicted output. It is a buffer of the context which is overwritten by the next prediction using it.
+     */
+    public double[] predict(double[] x, QuantizedInferenceContext context) {
+        if (x.length != this.getInputSize()) {
+            throw new MLPException(String.format("Expected no of units in input: %s but found %s",
+                    this.getInputSize(), x.length));
+        }
+        if (context.a.length != this.layers.length) {
+            throw new MLPException(String.format("Inference context for %s layers doesn't fit the mlp with %s layers",
+                    context.a.length, this.layers.length));
+        }
+        double[] input = x;
+        for (int l = 0; l < this.layers.length; l++) {
+            if (context.a[l].length != this.layers[l].nOut) {
+                throw new MLPException(String.format("Inference context has %s units in layer %s but the mlp has %s",
+                        context.a[l].length, l + 1, this.layers[l].nOut));
+            }
+            this.layers[l].forward(input, context.xq[l], context.sums[l], context.z[l], context.a[l]);
+            input = context.a[l];
+        }
+        return input;
+    }
+
+    /**
+     * Compare the predictions of this mlp with those of the mlp it was quantized from
+     *
+     * @param reference mlp this mlp was quantized from
+     * @param x         inputs to predict, ideally not the calibration samples
+     * @return accuracy and size of this mlp against the reference
+     */
+    public QuantizationReport compare(MultilayerPerceptron reference, double[][] x) {
+        if (reference.getInputSize() != this.getInputSize() || reference.getOutputSize() != this.getOutputSize()) {
+            throw new MLPException("The reference mlp doesn't have the shape of the quantized mlp");
+        }
+        double[][] expected = reference.predict(x);
+        QuantizedInferenceContext context = this.createInferenceContext();
+        double maxError = 0;
+        double totalError = 0;
+        int agreeing = 0;
+        for (int r = 0; r < x.length; r++) {
+            double[] actual = this.predict(x[r], context);
+            for (int i = 0; i < actual.length; i++) {
+                double error = Math.abs(actual[i] - expected[r][i]);
+                maxError = Math.max(maxError, error);
+                totalError += error;
+            }
+            if (this.sameClass(expected[r], actual)) {
+                agreeing++;
+            }
+        }
+        long parameters = 0;
+        for (QuantizedLayer layer : this.layers) {
+            parameters += layer.w.length + layer.b.length;
+        }
+        long referenceBytes = parameters * (reference.getPrecision() == Precision.FLOAT ? 4 : 8);
+        return new QuantizationReport(x.length, maxError, totalError / ((long) x.length * this.getOutputSize()),
+                this.classification ? (double) agreeing / x.length : Double.NaN, referenceBytes, this.getBytes());
+    }
+
+    /**
+     * @param expected output of the reference mlp
+     * @param actual   output of this mlp
+     * @return whether both outputs give the same class: the same largest output for exclusive classes, else the same
+     * outputs above 0.5
+     */
+    private boolean sameClass(double[] expected, double[] actual) {
+        if (this.multiClass) {
+            return argmax(expected) == argmax(actual);
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if ((expected[i] >= 0.5) != (actual[i] >= 0.5)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int argmax(double[] values) {
+        int best = 0;
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] > values[best]) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    private static double[] toDouble(float[] values) {
+        double[] output = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            output[i] = values[i];
+        }
+        return output;
+    }
+}
@@ -0,0 +1,13 @@
+package mlp.quantization;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 19:30
+ * Purpose: How many scales map the weights of a layer to 8 bit integers
+ **/
+public enum ScaleGranularity {
+    //A single scale for all the weights of a layer
+    PER_LAYER,
+    //A scale for the weights coming into each unit of a layer. Units with small weights keep more of their precision.
+    PER_CHANNEL
+}
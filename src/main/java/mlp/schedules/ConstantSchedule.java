@@ -0,0 +1,14 @@
+package mlp.schedules;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 17:08
+ * Purpose: The same learning rate for every epoch
+ **/
+public class ConstantSchedule implements LearningRateSchedule {
+
+    @Override
+    public double learningRate(int epoch, double baseRate) {
+        return baseRate;
+    }
+}
@@ -0,0 +1,31 @@
+package mlp.schedules;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 17:12
+ * Purpose: Learning rate annealed from the base rate down to a minimum along half a cosine
+ * rate = minRate + (baseRate - minRate) * (1 + cos(pi * (epoch - 1) / (epochs - 1))) / 2
+ * REF: https://arxiv.org/abs/1608.03983
+ **/
+public class CosineSchedule implements LearningRateSchedule {
+    private final int epochs; //Epochs over which the rate goes down to the minimum
+    private final double minRate; //Learning rate of the last epoch and after
+
+    /**
+     * @param epochs  epochs over which the rate goes down to the minimum
+     * @param minRate learning rate of the last epoch and after
+     */
+    public CosineSchedule(int epochs, double minRate) {
+        this.epochs = epochs;
+        this.minRate = minRate;
+    }
+
+    @Override
+    public double learningRate(int epoch, double baseRate) {
+        if (epoch >= this.epochs) {
+            return this.minRate;
+        }
+        double progress = (epoch - 1) / (double) (this.epochs - 1);
+        return this.minRate + (baseRate - this.minRate) * (1 + Math.cos(Math.PI * progress)) / 2;
+    }
+}
@@ -0,0 +1,35 @@
+package mlp.schedules;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 17:05
+ * Purpose: Parent class for all the rules changing the learning rate from one epoch to the next
+ **/
+public interface LearningRateSchedule {
+
+    /**
+     * Learning rate of an epoch
+     *
+     * @param epoch    epoch starting from 1
+     * @param baseRate learning rate the mlp was created with
+     * @return learning rate used for all the batches of the epoch
+     */
+    double learningRate(int epoch, double baseRate);
+
+    /**
+     * Called at the end of an epoch with the loss monitored by the mlp: the validation loss when early stopping is
+     * used (only in the epochs it is computed) and the training loss otherwise.
+     *
+     * @param epoch epoch starting from 1
+     * @param loss  monitored loss
+     */
+    default void epochEnd(int epoch, double loss) {
+    }
+
+    /**
+     * Called when the mlp starts training, so that a schedule keeping state (e.g. `ReduceOnPlateauSchedule`) starts
+     * each `fit` afresh
+     */
+    default void reset() {
+    }
+}
@@ -0,0 +1,50 @@
+package mlp.schedules;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 17:18
+ * Purpose: Learning rate multiplied by a factor whenever the monitored loss hasn't improved for a number of reports.
+ * The reductions are undone when the mlp starts training again.
+ **/
+public class ReduceOnPlateauSchedule implements LearningRateSchedule {
+    private final double factor; //Factor applied at every reduction
+    private final int patience; //Reports without improvement before a reduction
+    private final double minRate; //Lowest learning rate
+    private double scale = 1; //Product of the reductions so far
+    private double best = Double.POSITIVE_INFINITY; //Lowest loss reported
+    private int waiting; //Reports since the last improvement or reduction
+
+    /**
+     * @param factor   factor applied at every reduction. Should be between 0 and 1.
+     * @param patience reports without improvement before a reduction
+     * @param minRate  lowest learning rate
+     */
+    public ReduceOnPlateauSchedule(double factor, int patience, double minRate) {
+        this.factor = factor;
+        this.patience = patience;
+        this.minRate = minRate;
+    }
+
+    @Override
+    public double learningRate(int epoch, double baseRate) {
+        return Math.max(baseRate * this.scale, this.minRate);
+    }
+
+    @Override
+    public void epochEnd(int epoch, double loss) {
+        if (loss < this.best) {
+            this.best = loss;
+            this.waiting = 0;
+        } else if (++this.waiting >= this.patience) {
+            this.scale *= this.factor;
+            this.waiting = 0;
+        }
+    }
+
+    @Override
+    public void reset() {
+        this.scale = 1;
+        this.best = Double.POSITIVE_INFINITY;
+        this.waiting = 0;
+    }
+}
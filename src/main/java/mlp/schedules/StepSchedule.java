@@ -0,0 +1,31 @@
+package mlp.schedules;
+
+import mlp.exceptions.MLPException;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 17:10
+ * Purpose: Learning rate multiplied by a factor every few epochs
+ * rate = baseRate * gamma^((epoch - 1) / stepSize)
+ **/
+public class StepSchedule implements LearningRateSchedule {
+    private final int stepSize; //Epochs between two decays
+    private final double gamma; //Factor applied at every decay
+
+    /**
+     * @param stepSize epochs between two decays. Should be at least 1.
+     * @param gamma    factor applied at every decay
+     */
+    public StepSchedule(int stepSize, double gamma) {
+        if (stepSize < 1) {
+            throw new MLPException(String.format("Step size should be at least 1 but found %s", stepSize));
+        }
+        this.stepSize = stepSize;
+        this.gamma = gamma;
+    }
+
+    @Override
+    public double learningRate(int epoch, double baseRate) {
+        return baseRate * Math.pow(this.gamma, (epoch - 1) / this.stepSize);
+    }
+}
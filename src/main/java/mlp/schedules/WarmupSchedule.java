@@ -0,0 +1,50 @@
+package mlp.schedules;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 17:15
+ * Purpose: Learning rate going up linearly from baseRate / warmupEpochs to the base rate in the first epochs and
+ * given by another schedule afterwards. The other schedule counts its epochs from the end of the warmup.
+ **/
+public class WarmupSchedule implements LearningRateSchedule {
+    private final int warmupEpochs; //Epochs of the warmup
+    private final LearningRateSchedule after; //Schedule used after the warmup
+
+    /**
+     * Warmup followed by a constant rate
+     *
+     * @param warmupEpochs epochs of the warmup
+     */
+    public WarmupSchedule(int warmupEpochs) {
+        this(warmupEpochs, new ConstantSchedule());
+    }
+
+    /**
+     * @param warmupEpochs epochs of the warmup
+     * @param after        schedule used after the warmup
+     */
+    public WarmupSchedule(int warmupEpochs, LearningRateSchedule after) {
+        this.warmupEpochs = warmupEpochs;
+        this.after = after;
+    }
+
+    @Override
+    public double learningRate(int epoch, double baseRate) {
+        if (epoch <= this.warmupEpochs) {
+            return baseRate * epoch / this.warmupEpochs;
+        }
+        return this.after.learningRate(epoch - this.warmupEpochs, baseRate);
+    }
+
+    @Override
+    public void epochEnd(int epoch, double loss) {
+        if (epoch > this.warmupEpochs) {
+            this.after.epochEnd(epoch - this.warmupEpochs, loss);
+        }
+    }
+
+    @Override
+    public void reset() {
+        this.after.reset();
+    }
+}
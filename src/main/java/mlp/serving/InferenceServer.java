@@ -0,0 +1,455 @@
+package mlp.serving;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import mlp.InferenceContext;
+import mlp.MultilayerPerceptron;
+import mlp.exceptions.MLPException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 22:05
+ * Purpose: HTTP endpoint predicting with an mlp, on the HTTP server of the JDK. Every request runs on its own virtual
+ * thread when the JVM has them (JDK 21+), else on a pool of platform threads. A request is admitted only if fewer than
+ * a maximum number of requests are being served, else it is answered at once with 503, so the server never queues
+ * work it can't keep up with.
+ * <p>
+ * Endpoints:
+ * <pre>
+ * POST /predict            rows to predict, answered with the outputs of the mlp for each row
+ * POST /predict?classes    rows to predict, answered with the index of the largest output of each row
+ * GET  /metrics            counts of the requests and histogram of the latencies of /predict in microseconds
+ * </pre>
+ * The rows are sent as JSON, e.g. [[0.1, 0.2], [0.3, 0.4]], or with the content type application/octet-stream as
+ * compact binary (little endian): the number of rows and of columns as ints followed by the values as doubles. The
+ * answer uses the format of the request: outputs as an array of rows or as rows, columns and doubles, classes as an
+ * array or as the number of rows followed by an int per row.
+ * <p>
+ * A server can also be started on its own: `java mlp.serving.InferenceServer model port [maxConcurrent]`
+ **/
+public class InferenceServer implements Closeable {
+    static final String BINARY = "application/octet-stream"; //Content type of the binary format
+    private static final int CONTEXT_ROWS = 64; //Rows predicted at once. Larger requests are predicted in parts.
+    private static final int MAX_BODY = 64 << 20; //Largest request body in bytes
+
+    private final MultilayerPerceptron mlp; //Mlp predicting the rows. Trained meanwhile only if it uses snapshots.
+    private final HttpServer server; //Server of the JDK
+    private final ExecutorService executor; //Runs each request on its own thread
+    private final Semaphore admission; //Permits of the requests which can be served at once
+    private final ConcurrentLinkedQueue<InferenceContext> contexts = new ConcurrentLinkedQueue<>(); //Free contexts
+    private final LatencyHistogram latency = new LatencyHistogram(); //Latencies of the admitted predictions
+    private final AtomicLong rejected = new AtomicLong(); //Requests answered with 503
+    private final AtomicLong failed = new AtomicLong(); //Admitted requests answered with an error
+
+    /**
+     * Start serving an mlp
+     *
+     * @param mlp           mlp predicting the rows
+     * @param port          port to listen on. 0 for any free port.
+     * @param maxConcurrent maximum number of requests being served at once
+     * @throws IOException if the port can't be listened on
+     */
+    public InferenceServer(MultilayerPerceptron mlp, int port, int maxConcurrent) throws IOException {
+        if (maxConcurrent < 1) {
+            throw new MLPException(String.format("Maximum concurrent requests should be at least 1 but found %s",
+                    maxConcurrent));
+        }
+        this.mlp = mlp;
+        this.admission = new Semaphore(maxConcurrent);
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.executor = newExecutor();
+        this.server.setExecutor(this.executor);
+        this.server.createContext("/predict", this::predict);
+        this.server.createContext("/metrics", this::metrics);
+        this.server.start();
+    }
+
+    /**
+     * @return executor with a virtual thread per task if the JVM has them, else a pool of platform threads
+     */
+    static ExecutorService newExecutor() {
+        try {
+            //Looked up by reflection, so that the code still builds and runs on Java 8
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            //Before JDK 21, or a preview of virtual threads which isn't enabled
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "inference-server");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * @return port the server listens on
+     */
+    public int getPort() {
+        return this.server.getAddress().getPort();
+    }
+
+    /**
+     * @return latencies of the admitted predictions
+     */
+    public LatencyHistogram getLatency() {
+        return this.latency;
+    }
+
+    /**
+     * Handler of /predict
+     *
+     * @param exchange request and its response
+     * @throws IOException if the client can't be reached
+     */
+    private void predict(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        if (!this.admission.tryAcquire()) {
+            this.rejected.incrementAndGet();
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            respond(exchange, 503, "text/plain", bytes("Too many requests being served"));
+            return;
+        }
+        boolean served = false; //Whether the predictions were sent. Every other request is counted as failed once.
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                respond(exchange, 405, "text/plain", bytes("Rows to predict should be sent with POST"));
+                return;
+            }
+            byte[] body = readBody(exchange.getRequestBody());
+            if (body == null) {
+                respond(exchange, 413, "text/plain", bytes("Request larger than " + MAX_BODY + " bytes"));
+                return;
+            }
+            String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+            boolean binary = contentType != null && contentType.startsWith(BINARY);
+            boolean classes = "classes".equals(exchange.getRequestURI().getQuery());
+
+            double[][] x;
+            double[][] output;
+            try {
+                x = binary ? this.readBinary(body) : new JsonRows(new String(body, StandardCharsets.UTF_8)).parse();
+                output = this.predict(x);
+            } catch (MLPException e) {
+                respond(exchange, 400, "text/plain", bytes(e.getMessage()));
+                return;
+            }
+            if (binary) {
+                respond(exchange, 200, BINARY, classes ? binaryClasses(output) : binaryOutputs(output));
+            } else {
+                respond(exchange, 200, "application/json", bytes(classes ? jsonClasses(output) : jsonOutputs(output)));
+            }
+            this.latency.record(System.nanoTime() - start);
+            served = true;
+        } finally {
+            if (!served) {
+                this.failed.incrementAndGet();
+            }
+            this.admission.release();
+            exchange.close();
+        }
+    }
+
+    /**
+     * Predict rows in parts of at most `CONTEXT_ROWS` with a context taken from the free ones
+     *
+     * @param x rows
+     * @return outputs of each row
+     */
+    private double[][] predict(double[][] x) {
+        InferenceContext context = this.contexts.poll();
+        if (context == null) {
+            context = this.mlp.createInferenceContext(CONTEXT_ROWS);
+        }
+        try {
+            int no = this.mlp.getOutputSize();
+            double[][] output = new double[x.length][no];
+            double[][] part = new double[CONTEXT_ROWS][];
+            for (int from = 0; from < x.length; from += CONTEXT_ROWS) {
+                int nSamples = Math.min(CONTEXT_ROWS, x.length - from);
+                System.arraycopy(x, from, part, 0, nSamples);
+                double[] predicted = this.mlp.predict(part, nSamples, context);
+                for (int r = 0; r < nSamples; r++) {
+                    System.arraycopy(predicted, r * no, output[from + r], 0, no);
+                }
+            }
+            return output;
+        } finally {
+            this.contexts.offer(context);
+        }
+    }
+
+    /**
+     * Handler of /metrics
+     *
+     * @param exchange request and its response
+     * @throws IOException if the client can't be reached
+     */
+    private void metrics(HttpExchange exchange) throws IOException {
+        try {
+            String text = "predict_requests " + this.latency.count() + "\n" +
+                    "predict_rejected " + this.rejected.get() + "\n" +
+                    "predict_failed " + this.failed.get() + "\n" +
+                    "predict_latency_us_p50 " + this.latency.quantileMicros(0.5) + "\n" +
+                    "predict_latency_us_p99 " + this.latency.quantileMicros(0.99) + "\n" +
+                    "predict_latency_us_p999 " + this.latency.quantileMicros(0.999) + "\n" +
+                    this.latency.format("predict_latency_us");
+            respond(exchange, 200, "text/plain", bytes(text));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * @param in body of a request
+     * @return bytes of the body. Null if it is larger than `MAX_BODY`.
+     * @throws IOException if the body can't be read
+     */
+    private static byte[] readBody(InputStream in) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int n;
+        while ((n = in.read(buffer)) > 0) {
+            if (body.size() + n > MAX_BODY) {
+                return null;
+            }
+            body.write(buffer, 0, n);
+        }
+        return body.toByteArray();
+    }
+
+    /**
+     * @param body rows in the binary format
+     * @return rows
+     */
+    private double[][] readBinary(byte[] body) {
+        ByteBuffer buffer = ByteBuffer.wrap(body).order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            int rows = buffer.getInt();
+            int columns = buffer.getInt();
+            //Checked before anything is allocated, else a few bytes could ask for billions of empty rows
+            if (columns != this.mlp.getInputSize()) {
+                throw new MLPException(String.format("Expected no of units in input: %s but found %s",
+                        this.mlp.getInputSize(), columns));
+            }
+            if (rows < 1 || (long) rows * columns * 8 != buffer.remaining()) {
+                throw new MLPException(String.format("Expected %s rows of %s doubles but found %s bytes", rows,
+                        columns, buffer.remaining()));
+            }
+            double[][] x = new double[rows][columns];
+            DoubleBuffer values = buffer.asDoubleBuffer();
+            for (double[] row : x) {
+                values.get(row);
+            }
+            return x;
+        } catch (BufferUnderflowException e) {
+            throw new MLPException("Binary rows should start with the number of rows and of columns");
+        }
+    }
+
+    private static byte[] binaryOutputs(double[][] output) {
+        int columns = output.length > 0 ? output[0].length : 0;
+        ByteBuffer buffer = ByteBuffer.allocate(8 + 8 * output.length * columns).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(output.length);
+        buffer.putInt(columns);
+        DoubleBuffer values = buffer.asDoubleBuffer();
+        for (double[] row : output) {
+            values.put(row);
+        }
+        return buffer.array();
+    }
+
+    private static byte[] binaryClasses(double[][] output) {
+        ByteBuffer buffer = ByteBuffer.allocate(4 + 4 * output.length).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(output.length);
+        for (double[] row : output) {
+            buffer.putInt(argmax(row));
+        }
+        return buffer.array();
+    }
+
+    private static String jsonOutputs(double[][] output) {
+        StringBuilder json = new StringBuilder("[");
+        for (int r = 0; r < output.length; r++) {
+            json.append(r > 0 ? ",[" : "[");
+            for (int j = 0; j < output[r].length; j++) {
+                if (j > 0) {
+                    json.append(',');
+                }
+                //JSON has no NaN or infinities
+                double value = output[r][j];
+                json.append(Double.isNaN(value) || Double.isInfinite(value) ? "null" : Double.toString(value));
+            }
+            json.append(']');
+        }
+        return json.append(']').toString();
+    }
+
+    private static String jsonClasses(double[][] output) {
+        StringBuilder json = new StringBuilder("[");
+        for (int r = 0; r < output.length; r++) {
+            if (r > 0) {
+                json.append(',');
+            }
+            json.append(argmax(output[r]));
+        }
+        return json.append(']').toString();
+    }
+
+    /**
+     * @param row outputs of a row
+     * @return index of the largest output, the first one on ties
+     */
+    private static int argmax(double[] row) {
+        int max = 0;
+        for (int j = 1; j < row.length; j++) {
+            if (row[j] > row[max]) {
+                max = j;
+            }
+        }
+        return max;
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, byte[] body)
+            throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * Stop listening. Requests being served are dropped.
+     */
+    @Override
+    public void close() {
+        this.server.stop(0);
+        this.executor.shutdownNow();
+    }
+
+    /**
+     * Parser of rows sent as a JSON array of arrays of numbers
+     */
+    private static final class JsonRows {
+        private final String text; //JSON text
+        private int position; //Index of the next character to read
+
+        JsonRows(String text) {
+            this.text = text;
+        }
+
+        /**
+         * @return rows of the text
+         */
+        double[][] parse() {
+            List<double[]> rows = new ArrayList<>();
+            this.expect('[');
+            if (!this.consume(']')) {
+                do {
+                    rows.add(this.row());
+                } while (this.consume(','));
+                this.expect(']');
+            }
+            this.skipSpaces();
+            if (this.position != this.text.length()) {
+                throw this.error("end of the rows");
+            }
+            return rows.toArray(new double[0][]);
+        }
+
+        private double[] row() {
+            List<Double> values = new ArrayList<>();
+            this.expect('[');
+            if (!this.consume(']')) {
+                do {
+                    values.add(this.number());
+                } while (this.consume(','));
+                this.expect(']');
+            }
+            double[] row = new double[values.size()];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = values.get(i);
+            }
+            return row;
+        }
+
+        private double number() {
+            this.skipSpaces();
+            int start = this.position;
+            while (this.position < this.text.length() &&
+                    "+-0123456789.eE".indexOf(this.text.charAt(this.position)) >= 0) {
+                this.position++;
+            }
+            try {
+                return Double.parseDouble(this.text.substring(start, this.position));
+            } catch (NumberFormatException e) {
+                this.position = start;
+                throw this.error("a number");
+            }
+        }
+
+        private void expect(char c) {
+            if (!this.consume(c)) {
+                throw this.error("'" + c + "'");
+            }
+        }
+
+        private boolean consume(char c) {
+            this.skipSpaces();
+            if (this.position < this.text.length() && this.text.charAt(this.position) == c) {
+                this.position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void skipSpaces() {
+            while (this.position < this.text.length() && Character.isWhitespace(this.text.charAt(this.position))) {
+                this.position++;
+            }
+        }
+
+        private MLPException error(String expected) {
+            return new MLPException(String.format("Expected %s at character %s of the JSON rows", expected,
+                    this.position));
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: java mlp.serving.InferenceServer model port [maxConcurrent]");
+            System.exit(1);
+        }
+        MultilayerPerceptron mlp = MultilayerPerceptron.load(Paths.get(args[0]));
+        int maxConcurrent = args.length > 2 ? Integer.parseInt(args[2]) :
+                4 * Runtime.getRuntime().availableProcessors();
+        InferenceServer server = new InferenceServer(mlp, Integer.parseInt(args[1]), maxConcurrent);
+        System.out.println("Serving " + args[0] + " on port " + server.getPort());
+    }
+}
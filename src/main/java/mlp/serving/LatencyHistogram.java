@@ -0,0 +1,89 @@
+package mlp.serving;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 21:50
+ * Purpose: Histogram of latencies which can be recorded from many threads without locks. Bucket b counts the latencies
+ * of less than 2^b microseconds not counted by the buckets below it, so the buckets span from a microsecond to about
+ * 18 minutes with a relative error of at most 2x, in a fixed amount of memory.
+ **/
+public class LatencyHistogram {
+    private static final int BUCKETS = 31; //Bucket b holds latencies below 2^b microseconds
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS); //Latencies in each bucket
+
+    /**
+     * @param nanos latency in nanoseconds
+     */
+    public void record(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+        this.counts.incrementAndGet(bucket);
+    }
+
+    /**
+     * @return number of latencies recorded
+     */
+    public long count() {
+        long count = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            count += this.counts.get(b);
+        }
+        return count;
+    }
+
+    /**
+     * @param quantile quantile between 0 and 1
+     * @return upper bound in microseconds of the bucket holding the quantile. 0 if nothing is recorded.
+     */
+    public long quantileMicros(double quantile) {
+        long[] counts = this.snapshot();
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += counts[b];
+            if (seen >= Math.max(1, rank)) {
+                return 1L << b;
+            }
+        }
+        return 1L << (BUCKETS - 1);
+    }
+
+    /**
+     * Cumulative counts of the buckets in the text format of Prometheus, one line per bucket
+     *
+     * @param name name of the metric
+     * @return lines of the histogram
+     */
+    public String format(String name) {
+        long[] counts = this.snapshot();
+        StringBuilder text = new StringBuilder();
+        long cumulative = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            cumulative += counts[b];
+            text.append(name).append("_bucket{le=\"").append(1L << b).append("\"} ").append(cumulative).append('\n');
+        }
+        text.append(name).append("_count ").append(cumulative).append('\n');
+        return text.toString();
+    }
+
+    /**
+     * @return count of each bucket. Buckets are read one at a time, so it isn't an atomic view of the histogram.
+     */
+    private long[] snapshot() {
+        long[] counts = new long[BUCKETS];
+        for (int b = 0; b < BUCKETS; b++) {
+            counts[b] = this.counts.get(b);
+        }
+        return counts;
+    }
+}
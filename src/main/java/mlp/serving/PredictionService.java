@@ -0,0 +1,189 @@
+package mlp.serving;
+
+import mlp.InferenceContext;
+import mlp.MultilayerPerceptron;
+import mlp.exceptions.MLPException;
+
+import java.io.Closeable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 21:20
+ * Purpose: Predicts single samples submitted from any number of threads in batches. The samples are put on a lock-free
+ * queue and a dedicated thread takes them off in batches of up to a maximum size, waiting at most a given time after
+ * the oldest sample of a batch for more samples to come. Each batch goes through the mlp with matrix-matrix products,
+ * so under load the weights are read once per batch instead of once per sample, at the cost of up to the wait time of
+ * latency when there is little traffic.
+ **/
+public class PredictionService implements Closeable {
+    private final MultilayerPerceptron mlp; //Mlp predicting the samples
+    private final int maxBatchSize; //Maximum number of samples in a batch
+    private final long maxWaitNanos; //Longest time a batch waits for more samples after its oldest sample
+    private final ConcurrentLinkedQueue<Request> queue = new ConcurrentLinkedQueue<>(); //Samples waiting
+    private final Thread worker; //Thread predicting the batches
+    private volatile boolean running = true; //False once the service is closed
+    private volatile boolean parked; //True while the worker waits for a sample on an empty queue
+    private volatile long batches; //Number of batches predicted. Only written by the worker.
+    private volatile long samples; //Number of samples predicted. Only written by the worker.
+
+    /**
+     * A sample waiting to be predicted
+     */
+    private static final class Request {
+        final double x[]; //Input
+        final long submitted; //Time of the submission
+        final CompletableFuture<double[]> result = new CompletableFuture<>(); //Predicted output
+
+        Request(double[] x, long submitted) {
+            this.x = x;
+            this.submitted = submitted;
+        }
+    }
+
+    /**
+     * @param mlp          mlp predicting the samples. It can only be trained meanwhile if it uses snapshots.
+     * @param maxBatchSize maximum number of samples in a batch
+     * @param maxWait      longest time a batch waits for more samples after its oldest sample
+     * @param unit         unit of the wait time
+     */
+    public PredictionService(MultilayerPerceptron mlp, int maxBatchSize, long maxWait, TimeUnit unit) {
+        if (maxBatchSize < 1) {
+            throw new MLPException(String.format("Maximum batch size should be at least 1 but found %s",
+                    maxBatchSize));
+        }
+        if (maxWait < 0) {
+            throw new MLPException(String.format("Maximum wait should not be negative but found %s", maxWait));
+        }
+        this.mlp = mlp;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = unit.toNanos(maxWait);
+        this.worker = new Thread(this::serve, "prediction-service");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Queue a sample for prediction. Never blocks.
+     *
+     * @param x input. It must not be changed until the prediction is done.
+     * @return future completed with the predicted output, or with an `MLPException` if the input doesn't fit the mlp
+     * or the service is closed
+     */
+    public CompletableFuture<double[]> submit(double[] x) {
+        Request request = new Request(x, System.nanoTime());
+        if (x.length != this.mlp.getInputSize()) {
+            request.result.completeExceptionally(new MLPException(String.format(
+                    "Expected no of units in input: %s but found %s", this.mlp.getInputSize(), x.length)));
+            return request.result;
+        }
+        this.queue.offer(request);
+        //Closed meanwhile. If the sample is still queued the worker may have stopped, else it was taken and predicted.
+        if (!this.running && this.queue.remove(request)) {
+            request.result.completeExceptionally(new MLPException("Prediction service is closed"));
+            return request.result;
+        }
+        //The worker sets the flag before it checks the queue a last time, so either it sees this sample or it is woken
+        if (this.parked) {
+            LockSupport.unpark(this.worker);
+        }
+        return request.result;
+    }
+
+    /**
+     * @return number of batches predicted so far
+     */
+    public long getBatches() {
+        return this.batches;
+    }
+
+    /**
+     * @return number of samples predicted so far
+     */
+    public long getSamples() {
+        return this.samples;
+    }
+
+    /**
+     * Loop of the worker: take a batch off the queue, predict it and complete its futures
+     */
+    private void serve() {
+        InferenceContext context = this.mlp.createInferenceContext(this.maxBatchSize);
+        Request[] batch = new Request[this.maxBatchSize];
+        double[][] x = new double[this.maxBatchSize][];
+        int no = this.mlp.getOutputSize();
+        //Samples submitted before `close` are still predicted
+        while (this.running || !this.queue.isEmpty()) {
+            Request first = this.queue.poll();
+            if (first == null) {
+                this.parked = true;
+                if (this.running && this.queue.isEmpty()) {
+                    LockSupport.park(this);
+                }
+                this.parked = false;
+                continue;
+            }
+
+            //Fill the batch until it is full or the oldest sample has waited long enough
+            batch[0] = first;
+            int n = 1;
+            long deadline = first.submitted + this.maxWaitNanos;
+            while (n < this.maxBatchSize) {
+                Request next = this.queue.poll();
+                if (next != null) {
+                    batch[n++] = next;
+                    continue;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || !this.running) {
+                    break;
+                }
+                this.parked = true;
+                if (this.queue.isEmpty()) {
+                    LockSupport.parkNanos(this, remaining);
+                }
+                this.parked = false;
+            }
+
+            for (int r = 0; r < n; r++) {
+                x[r] = batch[r].x;
+            }
+            //Counted before the futures complete, so that a caller seeing its prediction also sees its batch counted
+            this.batches++;
+            this.samples += n;
+            try {
+                double[] output = this.mlp.predict(x, n, context);
+                for (int r = 0; r < n; r++) {
+                    double[] y = new double[no];
+                    System.arraycopy(output, r * no, y, 0, no);
+                    batch[r].result.complete(y);
+                }
+            } catch (RuntimeException e) {
+                for (int r = 0; r < n; r++) {
+                    batch[r].result.completeExceptionally(e);
+                }
+            }
+            for (int r = 0; r < n; r++) {
+                batch[r] = null;
+                x[r] = null;
+            }
+        }
+    }
+
+    /**
+     * Stop taking samples. The samples already submitted are predicted before this returns.
+     */
+    @Override
+    public void close() {
+        this.running = false;
+        LockSupport.unpark(this.worker);
+        try {
+            this.worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
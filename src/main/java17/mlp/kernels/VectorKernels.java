@@ -0,0 +1,414 @@
+package mlp.kernels;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 19:05
+ * Purpose: Kernels on the SIMD registers of the CPU through the incubating Vector API of JDK 17+. It is compiled
+ * separately from the rest of the sources (profile `vector` of the pom) and only loaded by `MatrixKernels` when the
+ * JVM has the module `jdk.incubator.vector`.
+ * <p>
+ * The products of `gemm` and `gemmTransA` run along the rows of B and C, so every element of C receives the same
+ * products in the same order as in the scalar loops and the values are identical. A multiplication and an addition
+ * are used rather than a fused multiply-add for the same reason. The dot products of `gemmTransB` keep one partial sum
+ * per lane which are added up lane by lane at the end, so they are repeatable but round differently from the scalar
+ * loop.
+ **/
+final class VectorKernels implements Kernels {
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Float> FLOATS = FloatVector.SPECIES_PREFERRED;
+    //Floats filling half a register, which become as many doubles as `DOUBLES` when they are widened
+    private static final VectorSpecies<Float> HALF_FLOATS = VectorSpecies.of(float.class,
+            VectorShape.forBitSize(DOUBLES.vectorBitSize() / 2));
+    //Bytes which become a full register of ints when they are widened
+    private static final VectorSpecies<Byte> QUARTER_BYTES = VectorSpecies.of(byte.class,
+            VectorShape.forBitSize(Math.max(64, IntVector.SPECIES_PREFERRED.vectorBitSize() / 4)));
+    private static final VectorSpecies<Integer> INTS = VectorSpecies.of(int.class,
+            VectorShape.forBitSize(QUARTER_BYTES.vectorBitSize() * 4));
+
+    VectorKernels() {
+        if (DOUBLES.length() < 2) {
+            throw new UnsupportedOperationException("No SIMD registers");
+        }
+    }
+
+    @Override
+    public String name() {
+        return "vector";
+    }
+
+    @Override
+    public void gemm(double[] a, double[] b, double[] c, int m, int k, int n) {
+        for (int kk = 0; kk < k; kk += TILE_K) {
+            int kEnd = Math.min(kk + TILE_K, k);
+            for (int jj = 0; jj < n; jj += TILE_N) {
+                int jEnd = Math.min(jj + TILE_N, n);
+                int jVector = jj + DOUBLES.loopBound(jEnd - jj);
+                for (int r = 0; r < m; r++) {
+                    int aRow = r * k;
+                    int cRow = r * n;
+                    for (int p = kk; p < kEnd; p++) {
+                        double x = a[aRow + p];
+                        DoubleVector xs = DoubleVector.broadcast(DOUBLES, x);
+                        int bRow = p * n;
+                        int j = jj;
+                        for (; j < jVector; j += DOUBLES.length()) {
+                            DoubleVector.fromArray(DOUBLES, c, cRow + j)
+                                    .add(xs.mul(DoubleVector.fromArray(DOUBLES, b, bRow + j)))
+                                    .intoArray(c, cRow + j);
+                        }
+                        for (; j < jEnd; j++) {
+                            c[cRow + j] += x * b[bRow + j];
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void gemmTransA(double[] a, double[] b, double[] c, int k, int m, int n) {
+        for (int ii = 0; ii < m; ii += TILE_M) {
+            int iEnd = Math.min(ii + TILE_M, m);
+            for (int jj = 0; jj < n; jj += TILE_N) {
+                int jEnd = Math.min(jj + TILE_N, n);
+                int jVector = jj + DOUBLES.loopBound(jEnd - jj);
+                for (int p = 0; p < k; p++) {
+                    int aRow = p * m;
+                    int bRow = p * n;
+                    for (int i = ii; i < iEnd; i++) {
+                        double x = a[aRow + i];
+                        DoubleVector xs = DoubleVector.broadcast(DOUBLES, x);
+                        int cRow = i * n;
+                        int j = jj;
+                        for (; j < jVector; j += DOUBLES.length()) {
+                            DoubleVector.fromArray(DOUBLES, c, cRow + j)
+                                    .add(xs.mul(DoubleVector.fromArray(DOUBLES, b, bRow + j)))
+                                    .intoArray(c, cRow + j);
+                        }
+                        for (; j < jEnd; j++) {
+                            c[cRow + j] += x * b[bRow + j];
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void gemmTransB(double[] a, double[] b, double[] c, int m, int k, int n) {
+        int pVector = DOUBLES.loopBound(k);
+        for (int ii = 0; ii < n; ii += TILE_M) {
+            int iEnd = Math.min(ii + TILE_M, n);
+            for (int r = 0; r < m; r++) {
+                int aRow = r * k;
+                int cRow = r * n;
+                for (int i = ii; i < iEnd; i++) {
+                    int bRow = i * k;
+                    DoubleVector sums = DoubleVector.zero(DOUBLES);
+                    int p = 0;
+                    for (; p < pVector; p += DOUBLES.length()) {
+                        sums = sums.add(DoubleVector.fromArray(DOUBLES, a, aRow + p)
+                                .mul(DoubleVector.fromArray(DOUBLES, b, bRow + p)));
+                    }
+                    double sum = addLanes(sums);
+                    for (; p < k; p++) {
+                        sum += a[aRow + p] * b[bRow + p];
+                    }
+                    c[cRow + i] += sum;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void gemm(float[] a, float[] b, float[] c, int m, int k, int n) {
+        for (int kk = 0; kk < k; kk += TILE_K) {
+            int kEnd = Math.min(kk + TILE_K, k);
+            for (int jj = 0; jj < n; jj += TILE_N) {
+                int jEnd = Math.min(jj + TILE_N, n);
+                int jVector = jj + FLOATS.loopBound(jEnd - jj);
+                for (int r = 0; r < m; r++) {
+                    int aRow = r * k;
+                    int cRow = r * n;
+                    for (int p = kk; p < kEnd; p++) {
+                        float x = a[aRow + p];
+                        FloatVector xs = FloatVector.broadcast(FLOATS, x);
+                        int bRow = p * n;
+                        int j = jj;
+                        for (; j < jVector; j += FLOATS.length()) {
+                            FloatVector.fromArray(FLOATS, c, cRow + j)
+                                    .add(xs.mul(FloatVector.fromArray(FLOATS, b, bRow + j)))
+                                    .intoArray(c, cRow + j);
+                        }
+                        for (; j < jEnd; j++) {
+                            c[cRow + j] += x * b[bRow + j];
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void gemmTransA(float[] a, float[] b, float[] c, int k, int m, int n) {
+        for (int ii = 0; ii < m; ii += TILE_M) {
+            int iEnd = Math.min(ii + TILE_M, m);
+            for (int jj = 0; jj < n; jj += TILE_N) {
+                int jEnd = Math.min(jj + TILE_N, n);
+                int jVector = jj + FLOATS.loopBound(jEnd - jj);
+                for (int p = 0; p < k; p++) {
+                    int aRow = p * m;
+                    int bRow = p * n;
+                    for (int i = ii; i < iEnd; i++) {
+                        float x = a[aRow + i];
+                        FloatVector xs = FloatVector.broadcast(FLOATS, x);
+                        int cRow = i * n;
+                        int j = jj;
+                        for (; j < jVector; j += FLOATS.length()) {
+                            FloatVector.fromArray(FLOATS, c, cRow + j)
+                                    .add(xs.mul(FloatVector.fromArray(FLOATS, b, bRow + j)))
+                                    .intoArray(c, cRow + j);
+                        }
+                        for (; j < jEnd; j++) {
+                            c[cRow + j] += x * b[bRow + j];
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void gemmTransB(float[] a, float[] b, float[] c, int m, int k, int n) {
+        //The floats are widened to doubles before they are multiplied, like the scalar loop does
+        int pVector = HALF_FLOATS.loopBound(k);
+        for (int ii = 0; ii < n; ii += TILE_M) {
+            int iEnd = Math.min(ii + TILE_M, n);
+            for (int r = 0; r < m; r++) {
+                int aRow = r * k;
+                int cRow = r * n;
+                for (int i = ii; i < iEnd; i++) {
+                    int bRow = i * k;
+                    DoubleVector sums = DoubleVector.zero(DOUBLES);
+                    int p = 0;
+                    for (; p < pVector; p += HALF_FLOATS.length()) {
+                        sums = sums.add(widen(a, aRow + p).mul(widen(b, bRow + p)));
+                    }
+                    double sum = addLanes(sums);
+                    for (; p < k; p++) {
+                        sum += (double) a[aRow + p] * b[bRow + p];
+                    }
+                    c[cRow + i] += sum;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void gemmTransB(byte[] a, byte[] b, int[] c, int m, int k, int n) {
+        //The integer sums are exact, so the order of the additions doesn't matter
+        int pVector = QUARTER_BYTES.loopBound(k);
+        for (int ii = 0; ii < n; ii += TILE_M) {
+            int iEnd = Math.min(ii + TILE_M, n);
+            for (int r = 0; r < m; r++) {
+                int aRow = r * k;
+                int cRow = r * n;
+                for (int i = ii; i < iEnd; i++) {
+                    int bRow = i * k;
+                    IntVector sums = IntVector.zero(INTS);
+                    int p = 0;
+                    for (; p < pVector; p += QUARTER_BYTES.length()) {
+                        sums = sums.add(widen(a, aRow + p).mul(widen(b, bRow + p)));
+                    }
+                    int sum = sums.reduceLanes(VectorOperators.ADD);
+                    for (; p < k; p++) {
+                        sum += a[aRow + p] * b[bRow + p];
+                    }
+                    c[cRow + i] += sum;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void addRows(double[] c, double[] row, int m, int n) {
+        int jVector = DOUBLES.loopBound(n);
+        for (int r = 0; r < m; r++) {
+            int cRow = r * n;
+            int j = 0;
+            for (; j < jVector; j += DOUBLES.length()) {
+                DoubleVector.fromArray(DOUBLES, c, cRow + j).add(DoubleVector.fromArray(DOUBLES, row, j))
+                        .intoArray(c, cRow + j);
+            }
+            for (; j < n; j++) {
+                c[cRow + j] += row[j];
+            }
+        }
+    }
+
+    @Override
+    public void sumRows(double[] a, double[] sums, int m, int n) {
+        int jVector = DOUBLES.loopBound(n);
+        for (int r = 0; r < m; r++) {
+            int aRow = r * n;
+            int j = 0;
+            for (; j < jVector; j += DOUBLES.length()) {
+                DoubleVector.fromArray(DOUBLES, sums, j).add(DoubleVector.fromArray(DOUBLES, a, aRow + j))
+                        .intoArray(sums, j);
+            }
+            for (; j < n; j++) {
+                sums[j] += a[aRow + j];
+            }
+        }
+    }
+
+    @Override
+    public void multiply(double[] a, double[] b, int length) {
+        int i = 0;
+        for (int end = DOUBLES.loopBound(length); i < end; i += DOUBLES.length()) {
+            DoubleVector.fromArray(DOUBLES, a, i).mul(DoubleVector.fromArray(DOUBLES, b, i)).intoArray(a, i);
+        }
+        for (; i < length; i++) {
+            a[i] *= b[i];
+        }
+    }
+
+    @Override
+    public void multiply(float[] a, float[] b, int length) {
+        int i = 0;
+        for (int end = FLOATS.loopBound(length); i < end; i += FLOATS.length()) {
+            FloatVector.fromArray(FLOATS, a, i).mul(FloatVector.fromArray(FLOATS, b, i)).intoArray(a, i);
+        }
+        for (; i < length; i++) {
+            a[i] *= b[i];
+        }
+    }
+
+    @Override
+    public void relu(double[] x, double[] output, int offset, int length) {
+        int i = offset;
+        for (int end = offset + DOUBLES.loopBound(length); i < end; i += DOUBLES.length()) {
+            DoubleVector.fromArray(DOUBLES, x, i).max(0).intoArray(output, i);
+        }
+        for (; i < offset + length; i++) {
+            output[i] = Math.max(0, x[i]);
+        }
+    }
+
+    @Override
+    public void relu(float[] x, float[] output, int offset, int length) {
+        int i = offset;
+        for (int end = offset + FLOATS.loopBound(length); i < end; i += FLOATS.length()) {
+            FloatVector.fromArray(FLOATS, x, i).max(0).intoArray(output, i);
+        }
+        for (; i < offset + length; i++) {
+            output[i] = Math.max(0, x[i]);
+        }
+    }
+
+    @Override
+    public void reluDerivative(double[] x, double[] output, int offset, int length) {
+        this.leakyReluDerivative(x, output, offset, length, 0);
+    }
+
+    @Override
+    public void reluDerivative(float[] x, float[] output, int offset, int length) {
+        this.leakyReluDerivative(x, output, offset, length, 0);
+    }
+
+    @Override
+    public void leakyRelu(double[] x, double[] output, int offset, int length, double slope) {
+        int i = offset;
+        for (int end = offset + DOUBLES.loopBound(length); i < end; i += DOUBLES.length()) {
+            DoubleVector values = DoubleVector.fromArray(DOUBLES, x, i);
+            values.mul(slope).max(values).intoArray(output, i);
+        }
+        for (; i < offset + length; i++) {
+            output[i] = Math.max(slope * x[i], x[i]);
+        }
+    }
+
+    @Override
+    public void leakyRelu(float[] x, float[] output, int offset, int length, float slope) {
+        int i = offset;
+        for (int end = offset + FLOATS.loopBound(length); i < end; i += FLOATS.length()) {
+            FloatVector values = FloatVector.fromArray(FLOATS, x, i);
+            values.mul(slope).max(values).intoArray(output, i);
+        }
+        for (; i < offset + length; i++) {
+            output[i] = Math.max(slope * x[i], x[i]);
+        }
+    }
+
+    @Override
+    public void leakyReluDerivative(double[] x, double[] output, int offset, int length, double slope) {
+        DoubleVector ones = DoubleVector.broadcast(DOUBLES, 1);
+        DoubleVector slopes = DoubleVector.broadcast(DOUBLES, slope);
+        int i = offset;
+        for (int end = offset + DOUBLES.loopBound(length); i < end; i += DOUBLES.length()) {
+            VectorMask<Double> negative = DoubleVector.fromArray(DOUBLES, x, i).compare(VectorOperators.LE, 0);
+            ones.blend(slopes, negative).intoArray(output, i);
+        }
+        for (; i < offset + length; i++) {
+            output[i] = x[i] <= 0 ? slope : 1;
+        }
+    }
+
+    @Override
+    public void leakyReluDerivative(float[] x, float[] output, int offset, int length, float slope) {
+        FloatVector ones = FloatVector.broadcast(FLOATS, 1);
+        FloatVector slopes = FloatVector.broadcast(FLOATS, slope);
+        int i = offset;
+        for (int end = offset + FLOATS.loopBound(length); i < end; i += FLOATS.length()) {
+            VectorMask<Float> negative = FloatVector.fromArray(FLOATS, x, i).compare(VectorOperators.LE, 0);
+            ones.blend(slopes, negative).intoArray(output, i);
+        }
+        for (; i < offset + length; i++) {
+            output[i] = x[i] <= 0 ? slope : 1;
+        }
+    }
+
+    /**
+     * Add up the lanes of a vector one after the other. The order is fixed, unlike `reduceLanes` whose order depends
+     * on the platform and on whether the code is compiled.
+     *
+     * @param vector partial sums
+     * @return sum of the lanes
+     */
+    private static double addLanes(DoubleVector vector) {
+        double sum = 0;
+        for (int lane = 0; lane < DOUBLES.length(); lane++) {
+            sum += vector.lane(lane);
+        }
+        return sum;
+    }
+
+    /**
+     * @param values floats
+     * @param offset index of the first float
+     * @return as many floats as there are lanes in `DOUBLES` widened to doubles
+     */
+    private static DoubleVector widen(float[] values, int offset) {
+        return (DoubleVector) FloatVector.fromArray(HALF_FLOATS, values, offset).convertShape(VectorOperators.F2D,
+                DOUBLES, 0);
+    }
+
+    /**
+     * @param values bytes
+     * @param offset index of the first byte
+     * @return as many bytes as there are lanes in `INTS` widened to ints
+     */
+    private static IntVector widen(byte[] values, int offset) {
+        return (IntVector) ByteVector.fromArray(QUARTER_BYTES, values, offset).convertShape(VectorOperators.B2I, INTS,
+                0);
+    }
+}
@@ -56,6 +56,147 @@ public class TestActivationFn {
 
         assert Arrays.equals(roundTo4Places(activationFn.squash(new double[]{3.0, 1.0, 0.2})), new double[]{0.836, 0.1131,
                 0.0508});
+        //Large activations don't overflow
+        assert Arrays.equals(roundTo4Places(activationFn.squash(new double[]{1003.0, 1001.0, 1000.2})),
+                new double[]{0.836, 0.1131, 0.0508});
+    }
+
+    @Test
+    public void testSquashIntoBuffer() {
+        double[] input = {-1.5, -0.5, 0, 0.5, 2.0};
+        ActivationFn[] activationFns = {new LinearActivationFn(), new ReluActivationFn(), new SigmoidActivationFn(),
+                new TanhActivationFn(), new LeakyReluActivationFn(), new SoftmaxActivationFn()};
+
+        for (ActivationFn activationFn : activationFns) {
+            //Writing into a separate buffer and into the input itself should give the allocated result
+            double[] expected = activationFn.squash(input);
+            double[] output = new double[input.length];
+            activationFn.squash(input, output);
+            assert Arrays.equals(expected, output);
+
+            double[] inPlace = input.clone();
+            activationFn.squash(inPlace, inPlace);
+            assert Arrays.equals(expected, inPlace);
+
+            //Derivative of softmax is never calculated explicitly
+            if (activationFn instanceof SoftmaxActivationFn) {
+                continue;
+            }
+            expected = activationFn.squashDerivative(input);
+            activationFn.squashDerivative(input, output);
+            assert Arrays.equals(expected, output);
+        }
+    }
+
+    @Test
+    public void testSquashRange() {
+        //Two samples of three units in one flat matrix. Each range should be squashed as a separate sample.
+        double[] matrix = {3.0, 1.0, 0.2, -1.0, 0.5, 2.0};
+        double[] output = new double[matrix.length];
+        ActivationFn activationFn = new SoftmaxActivationFn();
+        activationFn.squash(matrix, output, 0, 3);
+        activationFn.squash(matrix, output, 3, 3);
+
+        assert Arrays.equals(Arrays.copyOfRange(output, 0, 3), activationFn.squash(new double[]{3.0, 1.0, 0.2}));
+        assert Arrays.equals(Arrays.copyOfRange(output, 3, 6), activationFn.squash(new double[]{-1.0, 0.5, 2.0}));
+    }
+
+    @Test
+    public void testSinglePrecision() {
+        double[] input = {-1.5, -0.5, 0, 0.5, 2.0};
+        float[] floatInput = new float[input.length];
+        for (int i = 0; i < input.length; i++) {
+            floatInput[i] = (float) input[i];
+        }
+        ActivationFn[] activationFns = {new LinearActivationFn(), new ReluActivationFn(), new SigmoidActivationFn(),
+                new TanhActivationFn(), new LeakyReluActivationFn(), new SoftmaxActivationFn()};
+
+        for (ActivationFn activationFn : activationFns) {
+            //The values are the double ones rounded to float
+            double[] expected = activationFn.squash(input);
+            float[] output = new float[input.length];
+            activationFn.squash(floatInput, output, 0, input.length);
+            for (int i = 0; i < input.length; i++) {
+                assert Math.abs(output[i] - expected[i]) <= Math.ulp((float) expected[i]);
+            }
+
+            if (activationFn instanceof SoftmaxActivationFn) {
+                continue;
+            }
+            expected = activationFn.squashDerivative(input);
+            activationFn.squashDerivative(floatInput, output, 0, input.length);
+            for (int i = 0; i < input.length; i++) {
+                assert Math.abs(output[i] - expected[i]) <= Math.ulp((float) expected[i]);
+            }
+        }
+    }
+
+    @Test
+    public void testFastActivationFns() {
+        //Largest difference from the exact functions over a dense sweep, including the saturated range
+        double[] x = new double[40001];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = -20 + i * 0.001;
+        }
+        double[] tanhErrors = maxErrors(new FastTanhActivationFn(), new TanhActivationFn(), x);
+        double[] sigmoidErrors = maxErrors(new FastSigmoidActivationFn(), new SigmoidActivationFn(), x);
+        assert tanhErrors[0] < 1.5e-6 && tanhErrors[1] < 3e-6;
+        assert sigmoidErrors[0] < 7.5e-7 && sigmoidErrors[1] < 1.5e-6;
+
+        //Odd and bounded like tanh
+        ActivationFn fastTanh = new FastTanhActivationFn();
+        double tanh = fastTanh.squash(new double[]{0.3})[0];
+        assert Arrays.equals(fastTanh.squash(new double[]{-0.3, 0, 0.3, 100, -100}), new double[]{-tanh, 0, tanh, 1,
+                -1});
+        assert Double.isNaN(fastTanh.squash(new double[]{Double.NaN})[0]);
+    }
+
+    @Test
+    public void testDerivativeFromValues() {
+        //The derivative from the values of the forward pass is the derivative from the inputs
+        double[] input = {-1.5, -0.5, 0, 0.5, 2.0};
+        ActivationFn[] activationFns = {new LinearActivationFn(), new ReluActivationFn(), new SigmoidActivationFn(),
+                new TanhActivationFn(), new LeakyReluActivationFn(), new FastTanhActivationFn(),
+                new FastSigmoidActivationFn()};
+        for (ActivationFn activationFn : activationFns) {
+            double[] values = activationFn.squash(input);
+            double[] output = new double[input.length];
+            activationFn.squashDerivative(input, values, output, 0, input.length);
+            assert Arrays.equals(output, activationFn.squashDerivative(input));
+
+            float[] floatInput = new float[input.length];
+            for (int i = 0; i < input.length; i++) {
+                floatInput[i] = (float) input[i];
+            }
+            float[] floatValues = new float[input.length];
+            float[] floatOutput = new float[input.length];
+            float[] expected = new float[input.length];
+            activationFn.squash(floatInput, floatValues, 0, input.length);
+            activationFn.squashDerivative(floatInput, floatValues, floatOutput, 0, input.length);
+            activationFn.squashDerivative(floatInput, expected, 0, input.length);
+            for (int i = 0; i < input.length; i++) {
+                assert Math.abs(floatOutput[i] - expected[i]) < 1e-6;
+            }
+        }
+    }
+
+    /**
+     * @param approximation approximation of a function
+     * @param exact         exact function
+     * @param x             inputs
+     * @return largest difference of the values and of the derivatives
+     */
+    private double[] maxErrors(ActivationFn approximation, ActivationFn exact, double[] x) {
+        double[] errors = new double[2];
+        double[] values = approximation.squash(x);
+        double[] expectedValues = exact.squash(x);
+        double[] derivatives = approximation.squashDerivative(x);
+        double[] expectedDerivatives = exact.squashDerivative(x);
+        for (int i = 0; i < x.length; i++) {
+            errors[0] = Math.max(errors[0], Math.abs(values[i] - expectedValues[i]));
+            errors[1] = Math.max(errors[1], Math.abs(derivatives[i] - expectedDerivatives[i]));
+        }
+        return errors;
     }
 
     private double[] roundTo4Places(double[] x) {
@@ -0,0 +1,175 @@
+import mlp.data.CsvLoader;
+import mlp.data.Dataset;
+import mlp.data.DatasetFile;
+import mlp.exceptions.MLPException;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 14:50
+ * Purpose: Test-cases for `CsvLoader`
+ **/
+public class TestCsvLoader {
+
+    @Test
+    public void testLoad() throws IOException {
+        //Header, windows line endings, spaces around values, an empty line and no line ending at the end
+        String content = "label,a,b,c\r\nB, 1.5,-2,3e-2\r\n\r\nA,0,.25,-1E3\nC,7, 8 ,9";
+        CsvLoader loader = new CsvLoader(',');
+        loader.setHeader(true);
+        loader.setLabelColumn(0, "A", "B", "C");
+        Dataset dataset = load(loader, content);
+
+        assert dataset.rows == 3 && dataset.inputSize == 3 && dataset.outputSize == 3;
+        assert Arrays.equals(dataset.inputs, new double[]{1.5, -2, 3e-2, 0, 0.25, -1e3, 7, 8, 9});
+        assert Arrays.equals(dataset.outputs, new double[]{0, 1, 0, 1, 0, 0, 0, 0, 1});
+
+        //Numeric targets placed after the inputs are taken out of them
+        loader = new CsvLoader('\t');
+        loader.setTargetColumns(2);
+        dataset = load(loader, "1\t2\t3\n4\t5\t6\n");
+        assert Arrays.equals(dataset.inputs, new double[]{1, 2, 4, 5});
+        assert Arrays.equals(dataset.outputs, new double[]{3, 6});
+    }
+
+    @Test
+    public void testSameAsParseDouble() throws IOException {
+        //Enough rows to span many reads of the file
+        Random random = new Random(20);
+        StringBuilder content = new StringBuilder();
+        int rows = 20000;
+        String[] values = new String[rows * 3];
+        for (int i = 0; i < values.length; i++) {
+            switch (i % 3) {
+                case 0:
+                    values[i] = Integer.toString(random.nextInt(100) - 50);
+                    break;
+                case 1:
+                    values[i] = Double.toString(random.nextGaussian());
+                    break;
+                default:
+                    values[i] = Double.toString(random.nextDouble() * Math.pow(10, random.nextInt(80) - 40));
+            }
+            content.append(values[i]).append(i % 3 == 2 ? "\n" : ",");
+        }
+        Dataset dataset = load(new CsvLoader(','), content.toString());
+
+        assert dataset.rows == rows && dataset.inputSize == 3;
+        for (int i = 0; i < values.length; i++) {
+            assert dataset.inputs[i] == Double.parseDouble(values[i]);
+        }
+    }
+
+    @Test
+    public void testConvert() throws IOException {
+        //More rows than a block parsed by the conversion
+        StringBuilder content = new StringBuilder();
+        int rows = 10000;
+        for (int i = 0; i < rows; i++) {
+            content.append(i).append(',').append(i % 2 == 0 ? "even" : "odd").append(',').append(i * 0.5).append('\n');
+        }
+        CsvLoader loader = new CsvLoader(',');
+        loader.setLabelColumn(1, "even", "odd");
+        Path csv = Files.createTempFile("dataset", ".csv");
+        Path binary = Files.createTempFile("dataset", ".bin");
+        try {
+            Files.write(csv, content.toString().getBytes(StandardCharsets.UTF_8));
+            loader.convert(csv, binary);
+            Dataset expected = loader.load(csv);
+
+            try (DatasetFile data = DatasetFile.open(binary, 1000)) {
+                assert data.getRows() == rows && data.getInputSize() == 2 && data.getOutputSize() == 2;
+                //Read it twice to go through the chunks again after rewinding
+                for (int pass = 0; pass < 2; pass++) {
+                    data.rewind();
+                    double[][] x = new double[7][2];
+                    double[][] y = new double[7][2];
+                    int row = 0;
+                    int n;
+                    while ((n = data.read(x, y)) > 0) {
+                        for (int r = 0; r < n; r++, row++) {
+                            assert Arrays.equals(x[r], Arrays.copyOfRange(expected.inputs, row * 2, row * 2 + 2));
+                            assert Arrays.equals(y[r], Arrays.copyOfRange(expected.outputs, row * 2, row * 2 + 2));
+                        }
+                    }
+                    assert row == rows;
+                }
+            }
+        } finally {
+            Files.delete(csv);
+            Files.delete(binary);
+        }
+    }
+
+    @Test
+    public void testInvalidRows() throws IOException {
+        CsvLoader loader = new CsvLoader(',');
+        try {
+            load(loader, "1,2,3\n4,5\n");
+            assert false;
+        } catch (MLPException e) {
+            assert e.getMessage().equals("Expected 3 columns in row 2");
+        }
+        try {
+            load(loader, "1,2,3\n4,5,x\n");
+            assert false;
+        } catch (MLPException e) {
+            assert e.getMessage().equals("Invalid number 'x' in row 2");
+        }
+        loader.setLabelColumn(2, "yes", "no");
+        try {
+            load(loader, "1,2,yes\n4,5,maybe\n");
+            assert false;
+        } catch (MLPException e) {
+            assert e.getMessage().equals("Unknown class 'maybe' in row 2");
+        }
+    }
+
+    /**
+     * Load the content through a temporary file
+     *
+     * @param loader  loader to use
+     * @param content content of the file
+     * @return loaded data-set
+     */
+    private Dataset load(CsvLoader loader, String content) throws IOException {
+        Path path = Files.createTempFile("dataset", ".csv");
+        try {
+            Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+            return loader.load(path);
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testCorruptDatasetFile() throws IOException {
+        Path binary = Files.createTempFile("dataset", ".bin");
+        try {
+            //Headers matching the size of the file but not describing rows
+            int[][] sizes = {{0, 0}, {-1, 1}, {2, -2}};
+            for (int[] size : sizes) {
+                ByteBuffer header = ByteBuffer.allocate(32).order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(0x3153_444D).putInt(1).putLong(0).putInt(size[0]).putInt(size[1]);
+                Files.write(binary, header.array());
+                try {
+                    DatasetFile.open(binary).close();
+                    assert false;
+                } catch (MLPException e) {
+                    assert e.getMessage().endsWith("is corrupt");
+                }
+            }
+        } finally {
+            Files.delete(binary);
+        }
+    }
+}
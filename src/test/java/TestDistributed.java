@@ -0,0 +1,230 @@
+import mlp.MultilayerPerceptron;
+import mlp.activations.ActivationType;
+import mlp.distributed.Coordinator;
+import mlp.distributed.RingCommunicator;
+import mlp.layers.Layer;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 21:05
+ * Purpose: Tests for the distributed training of package `mlp.distributed`. The workers are threads or processes
+ * talking over TCP on localhost.
+ **/
+public class TestDistributed {
+    private static final int SHARD = 50; //Samples of the shard of rank 0. The shard of rank 1 has 5 less.
+    private static final int BATCH_SIZE = 5; //Batch size of each worker
+
+    @Test
+    public void testAllReduce() throws Exception {
+        //Fewer values than workers too, so that some chunks are empty
+        for (int length : new int[]{10, 2}) {
+            List<double[]> sums = runWorkers(3, communicator -> {
+                double[] values = new double[length];
+                for (int i = 0; i < length; i++) {
+                    values[i] = (communicator.getRank() + 1) * (i + 0.5);
+                }
+                communicator.allReduce(values);
+                return values;
+            });
+            for (double[] values : sums) {
+                for (int i = 0; i < length; i++) {
+                    assert values[i] == 6 * (i + 0.5);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMatchesSingleProcess() throws Exception {
+        //Two workers with batches of 5 train like one process with batches of 10 made of a batch of each shard
+        List<MultilayerPerceptron> workers = runWorkers(2, communicator -> {
+            MultilayerPerceptron mlp = newMlp(BATCH_SIZE);
+            mlp.fit(shardX(communicator.getRank()), shardY(communicator.getRank()), communicator);
+            return mlp;
+        });
+        MultilayerPerceptron single = trainSingle();
+
+        assert maxDifference(workers.get(0), workers.get(1)) == 0;
+        assert maxDifference(workers.get(0), single) < 1e-9;
+    }
+
+    @Test
+    public void testProcesses() throws Exception {
+        Path dir = Files.createTempDirectory("distributed");
+        try (Coordinator coordinator = new Coordinator(0, 2, 20)) {
+            String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+            List<Process> processes = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                processes.add(new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                        TestDistributed.class.getName(), String.valueOf(coordinator.getPort()), dir.toString())
+                        .inheritIO().start());
+            }
+            coordinator.rendezvous();
+            for (Process process : processes) {
+                assert process.waitFor(60, TimeUnit.SECONDS) && process.exitValue() == 0;
+            }
+
+            MultilayerPerceptron first = MultilayerPerceptron.load(dir.resolve("0.mlp"));
+            MultilayerPerceptron second = MultilayerPerceptron.load(dir.resolve("1.mlp"));
+            assert maxDifference(first, second) == 0;
+            //The processes may use other kernels than this one, which add up the changes in another order
+            assert maxDifference(first, trainSingle()) < 1e-9;
+        } finally {
+            Files.deleteIfExists(dir.resolve("0.mlp"));
+            Files.deleteIfExists(dir.resolve("1.mlp"));
+            Files.delete(dir);
+        }
+    }
+
+    /**
+     * Worker process of `testProcesses`. Trains on the shard of its rank and saves the mlp as rank.mlp.
+     *
+     * @param args port of the coordinator on localhost and directory to save the mlp in
+     * @throws IOException if the coordinator or the other worker can't be reached
+     */
+    public static void main(String[] args) throws IOException {
+        try (RingCommunicator communicator = RingCommunicator.join("localhost", Integer.parseInt(args[0]))) {
+            MultilayerPerceptron mlp = newMlp(BATCH_SIZE);
+            mlp.fit(shardX(communicator.getRank()), shardY(communicator.getRank()), communicator);
+            mlp.save(Paths.get(args[1], communicator.getRank() + ".mlp"));
+        }
+    }
+
+    /**
+     * Work of a worker of a test
+     *
+     * @param <T> type of the result
+     */
+    private interface Worker<T> {
+        T run(RingCommunicator communicator) throws Exception;
+    }
+
+    /**
+     * Run workers on threads with a coordinator
+     *
+     * @param n      number of workers
+     * @param worker work of each worker
+     * @param <T>    type of the results
+     * @return result of each worker by rank
+     * @throws Exception if a worker fails
+     */
+    private static <T> List<T> runWorkers(int n, Worker<T> worker) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(n);
+        try (Coordinator coordinator = new Coordinator(0, n, 20)) {
+            List<Future<Object[]>> futures = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                futures.add(executor.submit((Callable<Object[]>) () -> {
+                    try (RingCommunicator communicator = RingCommunicator.join("localhost", coordinator.getPort())) {
+                        return new Object[]{communicator.getRank(), worker.run(communicator)};
+                    }
+                }));
+            }
+            coordinator.rendezvous();
+            List<T> results = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                results.add(null);
+            }
+            for (Future<Object[]> future : futures) {
+                Object[] result = future.get(60, TimeUnit.SECONDS);
+                @SuppressWarnings("unchecked")
+                T value = (T) result[1];
+                results.set((Integer) result[0], value);
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @return mlp trained in a single process on the batches the two workers train on together
+     */
+    private static MultilayerPerceptron trainSingle() {
+        double[][][] x = {shardX(0), shardX(1)};
+        double[][][] y = {shardY(0), shardY(1)};
+        List<double[]> singleX = new ArrayList<>();
+        List<double[]> singleY = new ArrayList<>();
+        for (int from = 0; from < SHARD; from += BATCH_SIZE) {
+            for (int rank = 0; rank < 2; rank++) {
+                for (int i = from; i < Math.min(from + BATCH_SIZE, x[rank].length); i++) {
+                    singleX.add(x[rank][i]);
+                    singleY.add(y[rank][i]);
+                }
+            }
+        }
+        MultilayerPerceptron single = newMlp(2 * BATCH_SIZE);
+        single.fit(singleX.toArray(new double[0][]), singleY.toArray(new double[0][]));
+        return single;
+    }
+
+    /**
+     * @param batchSize batch size
+     * @return mlp classifying the points inside a circle
+     */
+    private static MultilayerPerceptron newMlp(int batchSize) {
+        return new MultilayerPerceptron(2, 8, 1, 20, 0.1, 20, ActivationType.TANH, true, false, batchSize);
+    }
+
+    /**
+     * @param rank rank of a worker
+     * @return inputs of the shard of the worker
+     */
+    private static double[][] shardX(int rank) {
+        Random random = new Random(rank);
+        double[][] x = new double[SHARD - 5 * rank][2];
+        for (double[] row : x) {
+            row[0] = 2 * random.nextDouble() - 1;
+            row[1] = 2 * random.nextDouble() - 1;
+        }
+        return x;
+    }
+
+    /**
+     * @param rank rank of a worker
+     * @return outputs of the shard of the worker. 1 inside the circle of radius 0.7.
+     */
+    private static double[][] shardY(int rank) {
+        double[][] x = shardX(rank);
+        double[][] y = new double[x.length][1];
+        for (int i = 0; i < x.length; i++) {
+            y[i][0] = x[i][0] * x[i][0] + x[i][1] * x[i][1] < 0.49 ? 1 : 0;
+        }
+        return y;
+    }
+
+    /**
+     * @param first  an mlp
+     * @param second another mlp
+     * @return largest absolute difference between their weights and biases
+     */
+    private static double maxDifference(MultilayerPerceptron first, MultilayerPerceptron second) {
+        Layer[] firstLayers = first.getLayers();
+        Layer[] secondLayers = second.getLayers();
+        double max = 0;
+        for (int l = 0; l < firstLayers.length; l++) {
+            double[][] firstValues = {firstLayers[l].getWeights(), firstLayers[l].getBiases()};
+            double[][] secondValues = {secondLayers[l].getWeights(), secondLayers[l].getBiases()};
+            for (int j = 0; j < firstValues.length; j++) {
+                for (int i = 0; i < firstValues[j].length; i++) {
+                    max = Math.max(max, Math.abs(firstValues[j][i] - secondValues[j][i]));
+                }
+            }
+        }
+        return max;
+    }
+}
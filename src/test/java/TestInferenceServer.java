@@ -0,0 +1,180 @@
+import mlp.MultilayerPerceptron;
+import mlp.activations.ActivationType;
+import mlp.serving.InferenceServer;
+import mlp.serving.LatencyHistogram;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 22:25
+ * Purpose: Tests for class `mlp.serving.InferenceServer`. A client on localhost sends the requests.
+ **/
+public class TestInferenceServer {
+    private static final double[][] X = {{0.1, 0.5, 0.9}, {0.3, 0.2, 0.7}, {0.8, 0.1, 0.4}};
+
+    @Test
+    public void testJson() throws IOException {
+        MultilayerPerceptron mlp = newMlp();
+        double[][] expected = mlp.predict(X);
+        try (InferenceServer server = new InferenceServer(mlp, 0, 4)) {
+            String json = "[[0.1, 0.5, 0.9], [0.3,0.2,0.7],\n [8e-1, 0.1, 0.4]]";
+            Response response = post(server, "/predict", "application/json", json.getBytes(StandardCharsets.UTF_8));
+            assert response.status == 200;
+            String[] rows = response.text().substring(2, response.text().length() - 2).split("],\\[");
+            assert rows.length == X.length;
+            for (int r = 0; r < rows.length; r++) {
+                String[] values = rows[r].split(",");
+                for (int j = 0; j < values.length; j++) {
+                    assert Double.parseDouble(values[j]) == expected[r][j];
+                }
+            }
+
+            response = post(server, "/predict?classes", "application/json", json.getBytes(StandardCharsets.UTF_8));
+            assert response.text().equals("[" + argmax(expected[0]) + "," + argmax(expected[1]) + "," +
+                    argmax(expected[2]) + "]");
+        }
+    }
+
+    @Test
+    public void testBinary() throws IOException {
+        MultilayerPerceptron mlp = newMlp();
+        double[][] expected = mlp.predict(X);
+        ByteBuffer request = ByteBuffer.allocate(8 + 8 * 9).order(ByteOrder.LITTLE_ENDIAN);
+        request.putInt(3).putInt(3);
+        for (double[] row : X) {
+            for (double value : row) {
+                request.putDouble(value);
+            }
+        }
+        try (InferenceServer server = new InferenceServer(mlp, 0, 4)) {
+            Response response = post(server, "/predict", "application/octet-stream", request.array());
+            assert response.status == 200;
+            ByteBuffer outputs = ByteBuffer.wrap(response.body).order(ByteOrder.LITTLE_ENDIAN);
+            assert outputs.getInt() == 3 && outputs.getInt() == 4;
+            for (double[] row : expected) {
+                for (double value : row) {
+                    assert outputs.getDouble() == value;
+                }
+            }
+
+            response = post(server, "/predict?classes", "application/octet-stream", request.array());
+            ByteBuffer classes = ByteBuffer.wrap(response.body).order(ByteOrder.LITTLE_ENDIAN);
+            assert classes.getInt() == 3;
+            for (double[] row : expected) {
+                assert classes.getInt() == argmax(row);
+            }
+        }
+    }
+
+    @Test
+    public void testErrorsAndMetrics() throws IOException {
+        try (InferenceServer server = new InferenceServer(newMlp(), 0, 4)) {
+            assert post(server, "/predict", "application/json", "[[0.1, 0.2]]".getBytes()).status == 400;
+            assert post(server, "/predict", "application/json", "[[0.1, 0.2, oops]]".getBytes()).status == 400;
+            assert post(server, "/predict", "application/octet-stream", new byte[]{1, 0, 0, 0}).status == 400;
+            //A large request is predicted in parts
+            StringBuilder json = new StringBuilder("[[0, 0, 0]");
+            for (int i = 1; i < 200; i++) {
+                json.append(",[").append(i / 200.0).append(",0.5,0.5]");
+            }
+            Response response = post(server, "/predict?classes", "application/json",
+                    json.append(']').toString().getBytes());
+            assert response.status == 200 && response.text().split(",").length == 200;
+
+            HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + server.getPort() +
+                    "/metrics").openConnection();
+            String metrics = new Response(connection).text();
+            assert metrics.contains("predict_requests 1\n");
+            assert metrics.contains("predict_failed 3\n");
+            assert metrics.contains("predict_latency_us_count 1\n");
+        }
+    }
+
+    @Test
+    public void testBinaryShape() throws IOException {
+        try (InferenceServer server = new InferenceServer(newMlp(), 0, 4)) {
+            //Without the check of the shape this would ask for 2^31 empty rows
+            byte[] empty = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putInt(Integer.MAX_VALUE).putInt(0)
+                    .array();
+            assert post(server, "/predict", "application/octet-stream", empty).status == 400;
+            byte[] noRows = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putInt(0).putInt(3).array();
+            assert post(server, "/predict", "application/octet-stream", noRows).status == 400;
+        }
+    }
+
+    @Test
+    public void testLatencyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 98; i++) {
+            histogram.record(3_000); //3 microseconds, below 4
+        }
+        histogram.record(1_000_000); //1 millisecond, below 1024 microseconds
+        histogram.record(1_000_000);
+        assert histogram.count() == 100;
+        assert histogram.quantileMicros(0.5) == 4;
+        assert histogram.quantileMicros(0.99) == 1024;
+        assert histogram.format("latency").contains("latency_bucket{le=\"4\"} 98\n");
+    }
+
+    private static MultilayerPerceptron newMlp() {
+        return new MultilayerPerceptron(3, 8, 4, 20, 0.1, 1, ActivationType.TANH, true, true);
+    }
+
+    private static int argmax(double[] row) {
+        int max = 0;
+        for (int j = 1; j < row.length; j++) {
+            if (row[j] > row[max]) {
+                max = j;
+            }
+        }
+        return max;
+    }
+
+    private static Response post(InferenceServer server, String path, String contentType, byte[] body)
+            throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + server.getPort() + path)
+                .openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", contentType);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(body);
+        }
+        return new Response(connection);
+    }
+
+    /**
+     * Status and body of a response
+     */
+    private static final class Response {
+        final int status;
+        final byte[] body;
+
+        Response(HttpURLConnection connection) throws IOException {
+            this.status = connection.getResponseCode();
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            try (InputStream in = this.status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+                byte[] buffer = new byte[8192];
+                int n;
+                while ((n = in.read(buffer)) > 0) {
+                    body.write(buffer, 0, n);
+                }
+            }
+            this.body = body.toByteArray();
+        }
+
+        String text() {
+            return new String(this.body, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+import org.junit.Test;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 19:15
+ * Purpose: Test-cases comparing the SIMD kernels with the scalar ones. The sizes aren't multiples of the vector length
+ * or of the tiles so the tails are exercised too. Nothing is compared when the JVM has no Vector API.
+ **/
+public class TestKernels {
+    private static final int M = 7;
+    private static final int K = 131;
+    private static final int N = 69;
+
+    @Test
+    public void testSameAsScalar() throws Exception {
+        Object scalar = create("mlp.kernels.ScalarKernels");
+        Object vector;
+        try {
+            vector = create("mlp.kernels.VectorKernels");
+        } catch (ReflectiveOperationException | LinkageError | UnsupportedOperationException e) {
+            return;
+        }
+        Random random = new Random(17);
+        double[] a = random(random, M * K);
+        double[] b = random(random, K * N);
+        double[] bt = random(random, N * K);
+        double[] at = random(random, K * M);
+
+        //Rows of the products and the element-wise operations get the same values
+        assert same(call(scalar, "gemm", a, b, new double[M * N], M, K, N),
+                call(vector, "gemm", a, b, new double[M * N], M, K, N));
+        assert same(call(scalar, "gemmTransA", at, b, new double[M * N], K, M, N),
+                call(vector, "gemmTransA", at, b, new double[M * N], K, M, N));
+        assert same(call(scalar, "addRows", a.clone(), b, M, N),
+                call(vector, "addRows", a.clone(), b, M, N));
+        assert same(call(scalar, "sumRows", a, b.clone(), M, N),
+                call(vector, "sumRows", a, b.clone(), M, N));
+        assert same(call(scalar, "multiply", a.clone(), b, a.length),
+                call(vector, "multiply", a.clone(), b, a.length));
+        assert same(call(scalar, "relu", a, new double[a.length], 3, a.length - 3),
+                call(vector, "relu", a, new double[a.length], 3, a.length - 3));
+        assert same(call(scalar, "reluDerivative", a, new double[a.length], 3, a.length - 3),
+                call(vector, "reluDerivative", a, new double[a.length], 3, a.length - 3));
+        assert same(call(scalar, "leakyRelu", a, new double[a.length], 3, a.length - 3, 0.01),
+                call(vector, "leakyRelu", a, new double[a.length], 3, a.length - 3, 0.01));
+        assert same(call(scalar, "leakyReluDerivative", a, new double[a.length], 3, a.length - 3, 0.01),
+                call(vector, "leakyReluDerivative", a, new double[a.length], 3, a.length - 3, 0.01));
+
+        //Integer dot products are exact
+        byte[] bytesA = toBytes(random, M * K);
+        byte[] bytesB = toBytes(random, N * K);
+        assert same(call(scalar, "gemmTransB", bytesA, bytesB, new int[M * N], M, K, N),
+                call(vector, "gemmTransB", bytesA, bytesB, new int[M * N], M, K, N));
+
+        //The dot products are added up in another order
+        double[] expected = (double[]) call(scalar, "gemmTransB", a, bt, new double[M * N], M, K, N);
+        double[] actual = (double[]) call(vector, "gemmTransB", a, bt, new double[M * N], M, K, N);
+        for (int i = 0; i < expected.length; i++) {
+            assert Math.abs(expected[i] - actual[i]) < 1e-12;
+        }
+    }
+
+    @Test
+    public void testSinglePrecisionSameAsScalar() throws Exception {
+        Object scalar = create("mlp.kernels.ScalarKernels");
+        Object vector;
+        try {
+            vector = create("mlp.kernels.VectorKernels");
+        } catch (ReflectiveOperationException | LinkageError | UnsupportedOperationException e) {
+            return;
+        }
+        Random random = new Random(17);
+        float[] a = toFloat(random(random, M * K));
+        float[] b = toFloat(random(random, K * N));
+        float[] bt = toFloat(random(random, N * K));
+        float[] at = toFloat(random(random, K * M));
+
+        assert same(call(scalar, "gemm", a, b, new float[M * N], M, K, N),
+                call(vector, "gemm", a, b, new float[M * N], M, K, N));
+        assert same(call(scalar, "gemmTransA", at, b, new float[M * N], K, M, N),
+                call(vector, "gemmTransA", at, b, new float[M * N], K, M, N));
+        assert same(call(scalar, "multiply", a.clone(), b, a.length),
+                call(vector, "multiply", a.clone(), b, a.length));
+        assert same(call(scalar, "relu", a, new float[a.length], 3, a.length - 3),
+                call(vector, "relu", a, new float[a.length], 3, a.length - 3));
+        assert same(call(scalar, "leakyRelu", a, new float[a.length], 3, a.length - 3, 0.01f),
+                call(vector, "leakyRelu", a, new float[a.length], 3, a.length - 3, 0.01f));
+        assert same(call(scalar, "leakyReluDerivative", a, new float[a.length], 3, a.length - 3, 0.01f),
+                call(vector, "leakyReluDerivative", a, new float[a.length], 3, a.length - 3, 0.01f));
+
+        float[] expected = (float[]) call(scalar, "gemmTransB", a, bt, new float[M * N], M, K, N);
+        float[] actual = (float[]) call(vector, "gemmTransB", a, bt, new float[M * N], M, K, N);
+        for (int i = 0; i < expected.length; i++) {
+            assert Math.abs(expected[i] - actual[i]) < 1e-5;
+        }
+    }
+
+    /**
+     * @param name name of the class of the backend
+     * @return instance of the backend
+     */
+    private Object create(String name) throws ReflectiveOperationException {
+        Constructor<?> constructor = Class.forName(name).getDeclaredConstructor();
+        constructor.setAccessible(true);
+        return constructor.newInstance();
+    }
+
+    /**
+     * Call a kernel of a backend
+     *
+     * @param backend backend
+     * @param name    name of the kernel
+     * @param args    arguments of the kernel. The first one is an array and the others are the sizes.
+     * @return array written by the kernel: the last array argument
+     */
+    private Object call(Object backend, String name, Object... args) throws ReflectiveOperationException {
+        Class<?>[] types = new Class<?>[args.length];
+        Object output = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i] instanceof Integer) {
+                types[i] = int.class;
+            } else if (args[i] instanceof Double) {
+                types[i] = double.class;
+            } else if (args[i] instanceof Float) {
+                types[i] = float.class;
+            } else {
+                types[i] = args[i].getClass();
+                output = args[i];
+            }
+        }
+        //The kernels which write in their first array
+        if (name.equals("addRows") || name.equals("multiply")) {
+            output = args[0];
+        }
+        Method method = Class.forName("mlp.kernels.Kernels").getDeclaredMethod(name, types);
+        method.setAccessible(true);
+        method.invoke(backend, args);
+        return output;
+    }
+
+    /**
+     * @param expected array of doubles or floats
+     * @param actual   array of doubles or floats
+     * @return true if the arrays hold the same values
+     */
+    private boolean same(Object expected, Object actual) {
+        return Arrays.deepEquals(new Object[]{expected}, new Object[]{actual});
+    }
+
+    private double[] random(Random random, int length) {
+        double[] values = new double[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = random.nextGaussian();
+        }
+        return values;
+    }
+
+    private byte[] toBytes(Random random, int length) {
+        byte[] values = new byte[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = (byte) (random.nextInt(255) - 127);
+        }
+        return values;
+    }
+
+    private float[] toFloat(double[] values) {
+        float[] output = new float[values.length];
+        for (int i = 0; i < values.length; i++) {
+            output[i] = (float) values[i];
+        }
+        return output;
+    }
+}
@@ -1,9 +1,15 @@
+import mlp.activations.ActivationFn;
+import mlp.activations.LinearActivationFn;
+import mlp.activations.SigmoidActivationFn;
+import mlp.activations.SoftmaxActivationFn;
 import mlp.loss_functions.BinaryCrossEntropyLossFn;
 import mlp.loss_functions.CategoricalCrossEntropyLossFn;
 import mlp.loss_functions.LossFn;
 import mlp.loss_functions.SquaredErrorLossFn;
 import org.junit.Test;
 
+import java.util.Arrays;
+
 /**
  * Created By: Prashant Chaubey
  * Created On: 13-05-2020 02:17
@@ -33,4 +39,77 @@ public class TestLossFn {
         //will be 1.
         assert lossFn.calculate(new double[]{0.05, 0.2, 0.6, 0.1, 0.05}, new double[]{0, 0, 1, 0, 0}) == 0.5108256237659907;
     }
+
+    @Test
+    public void testLossAtOffset() {
+        LossFn lossFn = new SquaredErrorLossFn();
+        //Outputs of two samples in one flat matrix. The second sample starts at index 3.
+        double[] predicted = {0, 0, 0, 3, 0.5, 2};
+
+        assert lossFn.calculate(predicted, 3, new double[]{4, 1, 2}) == 0.625;
+    }
+
+    @Test
+    public void testSinglePrecision() {
+        //Same loss as the outputs converted to double
+        float[] predicted = {0.05f, 0.2f, 0.6f, 0.1f, 0.05f};
+        double[] converted = new double[predicted.length];
+        for (int i = 0; i < predicted.length; i++) {
+            converted[i] = predicted[i];
+        }
+        double[] target = {0, 0, 1, 0, 0};
+        LossFn[] lossFns = {new SquaredErrorLossFn(), new BinaryCrossEntropyLossFn(),
+                new CategoricalCrossEntropyLossFn()};
+        for (LossFn lossFn : lossFns) {
+            assert lossFn.calculate(predicted, 0, target) == lossFn.calculate(converted, target);
+        }
+    }
+
+    @Test
+    public void testCalculateWithDelta() {
+        //Same loss as from the outputs and delta = target - output, for each loss with its output activation
+        double[] z = {0, 0, -1.5, 0.3, 2.0, -0.7};
+        double[] target = {0, 1, 0, 0};
+        LossFn[] lossFns = {new SquaredErrorLossFn(), new BinaryCrossEntropyLossFn(),
+                new CategoricalCrossEntropyLossFn()};
+        ActivationFn[] activationFns = {new LinearActivationFn(), new SigmoidActivationFn(), new SoftmaxActivationFn()};
+        for (int f = 0; f < lossFns.length; f++) {
+            double[] a = new double[z.length];
+            activationFns[f].squash(z, a, 2, 4);
+            double[] delta = new double[z.length];
+            double loss = lossFns[f].calculateWithDelta(z, a, 2, target, delta);
+
+            assert Math.abs(loss - lossFns[f].calculate(a, 2, target)) < 1e-12;
+            for (int i = 0; i < target.length; i++) {
+                assert delta[2 + i] == target[i] - a[2 + i];
+            }
+
+            float[] floatZ = new float[z.length];
+            for (int i = 0; i < z.length; i++) {
+                floatZ[i] = (float) z[i];
+            }
+            float[] floatA = new float[z.length];
+            activationFns[f].squash(floatZ, floatA, 2, 4);
+            float[] floatDelta = new float[z.length];
+            assert Math.abs(lossFns[f].calculateWithDelta(floatZ, floatA, 2, target, floatDelta) - loss) < 1e-6;
+        }
+    }
+
+    @Test
+    public void testCalculateWithDeltaOfSaturatedOutputs() {
+        //The output of the class of the sample rounds to 0, which would make the loss from the outputs infinite
+        double[] z = {-800, 0, 800};
+        double[] target = {1, 0, 0};
+        double[] a = new double[3];
+        double[] delta = new double[3];
+        new SoftmaxActivationFn().squash(z, a, 0, 3);
+        assert a[0] == 0 && a[2] == 1;
+        assert new CategoricalCrossEntropyLossFn().calculateWithDelta(z, a, 0, target, delta) == 1600;
+        assert Arrays.equals(delta, new double[]{1, 0, -1});
+
+        new SigmoidActivationFn().squash(z, a, 0, 3);
+        assert a[0] == 0 && a[2] == 1;
+        assert new BinaryCrossEntropyLossFn().calculateWithDelta(z, a, 0, target, delta) == 800 + Math.log(2) + 800;
+        assert Arrays.equals(delta, new double[]{1, -0.5, -1});
+    }
 }
@@ -1,14 +1,41 @@
+import mlp.InferenceContext;
 import mlp.MultilayerPerceptron;
+import mlp.Precision;
 import mlp.activations.ActivationType;
 import mlp.activations.SigmoidActivationFn;
+import mlp.data.Dataset;
+import mlp.data.DatasetFile;
+import mlp.exceptions.MLPException;
+import mlp.layers.FloatLayer;
+import mlp.layers.Layer;
+import mlp.layers.LayerWorkspace;
+import mlp.listeners.EpochMetrics;
+import mlp.listeners.TrainingListener;
 import mlp.loss_functions.LossFn;
 import mlp.loss_functions.SquaredErrorLossFn;
+import mlp.optimizers.AdamOptimizer;
+import mlp.optimizers.NesterovOptimizer;
+import mlp.optimizers.SgdOptimizer;
+import mlp.schedules.ReduceOnPlateauSchedule;
+import mlp.schedules.StepSchedule;
 import org.junit.Test;
 
+import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Created By: Prashant Chaubey
@@ -26,8 +53,8 @@ public class TestMLP {
         int no = 2;
         double[] input = {0.05, 0.1};
         double[] target = {0.01, 0.99};
-        double[][] w1 = {{0.15, 0.25}, {0.2, 0.3}};
-        double[][] w2 = {{0.4, 0.5}, {0.45, 0.55}};
+        double[] w1 = {0.15, 0.25, 0.2, 0.3};
+        double[] w2 = {0.4, 0.5, 0.45, 0.55};
         double[] b1 = {0.35, 0.35};
         double[] b2 = {0.60, 0.60};
 
@@ -39,7 +66,9 @@ public class TestMLP {
         //Setting the initial values
         MultilayerPerceptron mlp = new MultilayerPerceptron(ni, nh, no, 20, 0.1,
                 500, ActivationType.SIGMOID, true, false);
-        initializedFields(mlp, new String[]{"w1", "w2", "b1", "b2"}, new Object[]{w1, w2, b1, b2});
+        Layer[] layers = mlp.getLayers();
+        initializedArrays(new double[][]{layers[0].getWeights(), layers[1].getWeights(), layers[0].getBiases(),
+                layers[1].getBiases()}, new double[][]{w1, w2, b1, b2});
 
         //At the time of writing test cases we used squared loss for binary/multi-label classification for getting the
         //values for the tests. This is changed and we are now using binary-cross entropy in those scenarios. Until
@@ -52,13 +81,10 @@ public class TestMLP {
         forwardMethod.setAccessible(true);
         forwardMethod.invoke(mlp, new Object[]{input});
 
-        //Getting the fields that need to be checked
-        Field hField = mlp.getClass().getDeclaredField("h");
-        hField.setAccessible(true);
-        double[] h = (double[]) hField.get(mlp);
-        Field oField = mlp.getClass().getDeclaredField("o");
-        oField.setAccessible(true);
-        double[] o = (double[]) oField.get(mlp);
+        //Getting the values that need to be checked
+        LayerWorkspace[] workspaces = layerWorkspaces(mlp);
+        double[] h = Arrays.copyOf(workspaces[0].a, nh);
+        double[] o = Arrays.copyOf(workspaces[1].a, no);
 
         //Checking that activations at hidden layer and output layer are expected.
         assert Arrays.equals(expectedH, round(h, 9));
@@ -67,7 +93,7 @@ public class TestMLP {
         Field lossFunctionField = mlp.getClass().getDeclaredField("lossFn");
         lossFunctionField.setAccessible(true);
         LossFn lossFnFunction = (LossFn) lossFunctionField.get(mlp);
-        double loss = lossFnFunction.calculate((double[]) oField.get(mlp), target);
+        double loss = lossFnFunction.calculate(o, target);
 
         //Rounding to 9 decimal places
         loss = Math.round(loss * 1000_000_000) / 1000_000_000.0;
@@ -89,14 +115,14 @@ public class TestMLP {
         double[] z1 = {0.3775, 0.3925};
         double[] z2 = {1.105905967, 1.2249};
         double[] o = {0.75136507, 0.772928465};
-        double[][] w1 = {{0.15, 0.25}, {0.2, 0.3}};
-        double[][] w2 = {{0.4, 0.5}, {0.45, 0.55}};
+        double[] w1 = {0.15, 0.25, 0.2, 0.3};
+        double[] w2 = {0.4, 0.5, 0.45, 0.55};
         double learningRate = 0.5;
         int epochs = 1000;
 
         //Expected parameters
-        double[][] expectedDw2 = {{-0.082, 0.023}, {-0.083, 0.023}};
-        double[][] expectedDw1 = {{-0.000439, -0.000498}, {-0.000877, -0.000995}};
+        double[] expectedDw2 = {-0.082, 0.023, -0.083, 0.023};
+        double[] expectedDw1 = {-0.000439, -0.000498, -0.000877, -0.000995};
         double[] expectedDb1 = {-0.008771, -0.009954};
         double[] expectedDb2 = {-0.138499, 0.038099};
 
@@ -112,7 +138,11 @@ public class TestMLP {
         //Setting the initial values
         MultilayerPerceptron mlp = new MultilayerPerceptron(ni, nh, no, 20, learningRate, epochs,
                 ActivationType.SIGMOID, true, false);
-        initializedFields(mlp, new String[]{"w1", "w2", "h", "o", "input", "z1", "z2"}, new Object[]{w1, w2, h, o, input, z1, z2});
+        Layer[] layers = mlp.getLayers();
+        LayerWorkspace[] workspaces = layerWorkspaces(mlp);
+        initializedArrays(new double[][]{layers[0].getWeights(), layers[1].getWeights(), workspaces[0].a,
+                        workspaces[1].a, workspaceInput(mlp), workspaces[0].z, workspaces[1].z},
+                new double[][]{w1, w2, h, o, input, z1, z2});
 
         //At the time of writing test cases we used squared loss for binary/mulit-label classification for getting the
         //values for the tests. This is changed and we are now using binary-cross entropy in those scenarios. Until
@@ -124,23 +154,15 @@ public class TestMLP {
         backwardMethod.setAccessible(true);
         backwardMethod.invoke(mlp, new Object[]{target});
 
-        //Getting the fields that need to be checked
-        Field dw1Field = mlp.getClass().getDeclaredField("dw1");
-        dw1Field.setAccessible(true);
-        double[][] dw1 = (double[][]) dw1Field.get(mlp);
-        Field dw2Field = mlp.getClass().getDeclaredField("dw2");
-        dw2Field.setAccessible(true);
-        double[][] dw2 = (double[][]) dw2Field.get(mlp);
-        Field db1Field = mlp.getClass().getDeclaredField("db1");
-        db1Field.setAccessible(true);
-        double db1[] = (double[]) db1Field.get(mlp);
-        Field db2Field = mlp.getClass().getDeclaredField("db2");
-        db2Field.setAccessible(true);
-        double db2[] = (double[]) db2Field.get(mlp);
+        //Getting the values that need to be checked
+        double[] dw1 = workspaces[0].dw;
+        double[] dw2 = workspaces[1].dw;
+        double db1[] = workspaces[0].db;
+        double db2[] = workspaces[1].db;
 
         //Checking that activations at hidden layer and output layer are expected.
-        assert Arrays.deepEquals(expectedDw2, round(dw2, 3));
-        assert Arrays.deepEquals(expectedDw1, round(dw1, 6));
+        assert Arrays.equals(expectedDw2, round(dw2, 3));
+        assert Arrays.equals(expectedDw1, round(dw1, 6));
         assert Arrays.equals(expectedDb1, round(db1, 6));
         assert Arrays.equals(expectedDb2, round(db2, 6));
     }
@@ -154,25 +176,30 @@ public class TestMLP {
         int no = 2;
         int epochs = 1000;
         double learningRate = 0.5;
-        double[][] w1 = {{0.15, 0.25}, {0.2, 0.3}};
-        double[][] w2 = {{0.4, 0.5}, {0.45, 0.55}};
-        double[][] dw2 = {{-0.082, 0.023}, {-0.083, 0.023}};
-        double[][] dw1 = {{-0.000439, -0.000498}, {-0.000877, -0.000995}};
+        double[] w1 = {0.15, 0.25, 0.2, 0.3};
+        double[] w2 = {0.4, 0.5, 0.45, 0.55};
+        double[] dw2 = {-0.082, 0.023, -0.083, 0.023};
+        double[] dw1 = {-0.000439, -0.000498, -0.000877, -0.000995};
         double[] b1 = {0.35, 0.35};
         double[] b2 = {0.60, 0.60};
         double[] db1 = {-0.008771, -0.009954};
         double[] db2 = {-0.138499, 0.038099};
 
         //Expected parameters
-        double[][] expectedW1 = {{0.14978, 0.249751}, {0.199562, 0.299503}};
-        double[][] expectedW2 = {{0.359, 0.511}, {0.409, 0.562}};
+        double[] expectedW1 = {0.14978, 0.249751, 0.199562, 0.299503};
+        double[] expectedW2 = {0.359, 0.511, 0.409, 0.562};
         double[] expectedB1 = {0.345615, 0.345023};
         double[] expectedB2 = {0.530751, 0.61905};
 
         //Setting the initial values
         MultilayerPerceptron mlp = new MultilayerPerceptron(ni, nh, no, 20, learningRate, epochs,
                 ActivationType.SIGMOID, true, false);
-        initializedFields(mlp, new String[]{"w1", "w2", "dw1", "dw2", "b1", "b2", "db1", "db2"}, new Object[]{w1, w2, dw1, dw2, b1, b2, db1, db2});
+        Layer[] layers = mlp.getLayers();
+        LayerWorkspace[] workspaces = layerWorkspaces(mlp);
+        initializedArrays(new double[][]{layers[0].getWeights(), layers[1].getWeights(), workspaces[0].dw,
+                        workspaces[1].dw, layers[0].getBiases(), layers[1].getBiases(), workspaces[0].db,
+                        workspaces[1].db},
+                new double[][]{w1, w2, dw1, dw2, b1, b2, db1, db2});
 
         //At the time of writing test cases we used squared loss for binary/mulit-label classification for getting the
         //values for the tests. This is changed and we are now using binary-cross entropy in those scenarios. Until
@@ -186,42 +213,669 @@ public class TestMLP {
         backwardMethod.setAccessible(true);
         backwardMethod.invoke(mlp, 1);
 
-        //Getting the fields that need to be checked
-        Field w1Field = mlp.getClass().getDeclaredField("w1");
-        w1Field.setAccessible(true);
-        w1 = (double[][]) w1Field.get(mlp);
-        Field w2Field = mlp.getClass().getDeclaredField("w2");
-        w2Field.setAccessible(true);
-        w2 = (double[][]) w2Field.get(mlp);
-        Field b1Field = mlp.getClass().getDeclaredField("b1");
-        b1Field.setAccessible(true);
-        b1 = (double[]) b1Field.get(mlp);
-        Field b2Field = mlp.getClass().getDeclaredField("b2");
-        b2Field.setAccessible(true);
-        b2 = (double[]) b2Field.get(mlp);
+        //Getting the values that need to be checked
+        w1 = layers[0].getWeights();
+        w2 = layers[1].getWeights();
+        b1 = layers[0].getBiases();
+        b2 = layers[1].getBiases();
 
         //Checking that activations at hidden layer and output layer are expected.
-        assert Arrays.deepEquals(expectedW2, round(w2, 3));
-        assert Arrays.deepEquals(expectedW1, round(w1, 6));
+        assert Arrays.equals(expectedW2, round(w2, 3));
+        assert Arrays.equals(expectedW1, round(w1, 6));
         assert Arrays.equals(expectedB1, round(b1, 6));
         assert Arrays.equals(expectedB2, round(b2, 6));
+
+        //The buffers of the changes are reset to zeroes and reused
+        for (LayerWorkspace workspace : layerWorkspaces(mlp)) {
+            assert Arrays.equals(workspace.dw, new double[workspace.dw.length]);
+            assert Arrays.equals(workspace.db, new double[workspace.db.length]);
+        }
+        assert layerWorkspaces(mlp) == workspaces;
     }
 
-    /**
-     * Round values of a 2d array
-     *
-     * @param arr    input 2d array
-     * @param places places to round each value in the array
-     * @return rounded 2d array
-     */
-    private double[][] round(double[][] arr, int places) {
-        double[][] output = new double[arr.length][arr[0].length];
-        for (int i = 0; i < arr.length; i++) {
-            for (int j = 0; j < arr[0].length; j++) {
-                output[i][j] = Math.round(arr[i][j] * Math.pow(10, places)) / Math.pow(10, places);
+    @Test
+    public void testBatchedFit() throws NoSuchFieldException, IllegalAccessException, NoSuchMethodException,
+            InvocationTargetException {
+        //Initialization parameters
+        int ni = 3;
+        int nh = 5;
+        int no = 2;
+        int batchSize = 4;
+        double[][] x = {{0.1, 0.5, 0.9}, {0.3, 0.2, 0.7}, {0.8, 0.1, 0.4}, {0.6, 0.9, 0.2}, {0.4, 0.4, 0.4},
+                {0.9, 0.3, 0.1}, {0.2, 0.8, 0.6}, {0.5, 0.7, 0.3}, {0.7, 0.6, 0.8}, {0.1, 0.2, 0.3}};
+        double[][] y = {{1, 0}, {0, 1}, {0, 1}, {1, 0}, {1, 0}, {0, 1}, {1, 0}, {0, 1}, {1, 0}, {0, 1}};
+
+        //Training with the batched engine
+        MultilayerPerceptron batched = new MultilayerPerceptron(ni, nh, no, 20, 0.1, 1, ActivationType.TANH,
+                true, true, batchSize);
+        batched.fit(x, y);
+
+        //Training the same mlp sample by sample
+        MultilayerPerceptron perSample = new MultilayerPerceptron(ni, nh, no, 20, 0.1, 1, ActivationType.TANH,
+                true, true, batchSize);
+        Method forwardMethod = perSample.getClass().getDeclaredMethod("forward", double[].class);
+        forwardMethod.setAccessible(true);
+        Method backwardMethod = perSample.getClass().getDeclaredMethod("backward", double[].class);
+        backwardMethod.setAccessible(true);
+        Method updateWeightsMethod = perSample.getClass().getDeclaredMethod("updateWeights", int.class);
+        updateWeightsMethod.setAccessible(true);
+        for (int from = 0; from < x.length; from += batchSize) {
+            int nSamples = Math.min(batchSize, x.length - from);
+            for (int i = from; i < from + nSamples; i++) {
+                forwardMethod.invoke(perSample, new Object[]{x[i]});
+                backwardMethod.invoke(perSample, new Object[]{y[i]});
             }
+            updateWeightsMethod.invoke(perSample, nSamples);
+        }
+
+        //Both should end up with exactly the same weights and biases
+        assert sameParameters(batched, perSample, 0);
+    }
+
+    @Test
+    public void testParallelFit() {
+        //Initialization parameters
+        int ni = 3;
+        int nh = 5;
+        int no = 2;
+        int batchSize = 5;
+        int threads = 3;
+        double[][] x = {{0.1, 0.5, 0.9}, {0.3, 0.2, 0.7}, {0.8, 0.1, 0.4}, {0.6, 0.9, 0.2}, {0.4, 0.4, 0.4},
+                {0.9, 0.3, 0.1}, {0.2, 0.8, 0.6}, {0.5, 0.7, 0.3}, {0.7, 0.6, 0.8}, {0.1, 0.2, 0.3}, {0.3, 0.3, 0.9}};
+        double[][] y = {{1, 0}, {0, 1}, {0, 1}, {1, 0}, {1, 0}, {0, 1}, {1, 0}, {0, 1}, {1, 0}, {0, 1}, {1, 0}};
+
+        //Two runs with the same random state and number of threads
+        MultilayerPerceptron first = new MultilayerPerceptron(ni, nh, no, 20, 0.1, 20, ActivationType.RELU,
+                true, true, batchSize);
+        first.setThreads(threads);
+        first.fit(x, y);
+        MultilayerPerceptron second = new MultilayerPerceptron(ni, nh, no, 20, 0.1, 20, ActivationType.RELU,
+                true, true, batchSize);
+        second.setThreads(threads);
+        second.fit(x, y);
+
+        //Training on a single thread only differs in the order in which the changes are added up
+        MultilayerPerceptron serial = new MultilayerPerceptron(ni, nh, no, 20, 0.1, 20, ActivationType.RELU,
+                true, true, batchSize);
+        serial.fit(x, y);
+
+        assert sameParameters(first, second, 0);
+        assert sameParameters(first, serial, 9);
+
+        //More threads after a training on one thread, whose workspace holds a whole batch
+        MultilayerPerceptron regrown = new MultilayerPerceptron(ni, nh, no, 20, 0.1, 20, ActivationType.RELU,
+                true, true, batchSize);
+        regrown.fit(x, y);
+        regrown.setThreads(threads);
+        regrown.fit(x, y);
+        serial.fit(x, y);
+        assert sameParameters(regrown, serial, 9);
+    }
+
+    @Test
+    public void testConcurrentPredict() throws InterruptedException {
+        //Initialization parameters
+        int ni = 3;
+        int nh = 8;
+        int no = 4;
+        int nThreads = 4;
+        double[][] x = new double[200][ni];
+        for (int i = 0; i < x.length; i++) {
+            for (int j = 0; j < ni; j++) {
+                x[i][j] = ((i * 7 + j * 13) % 17) / 17.0;
+            }
+        }
+        MultilayerPerceptron mlp = new MultilayerPerceptron(ni, nh, no, 20, 0.1, 10, ActivationType.TANH,
+                true, true);
+        double[][] expected = mlp.predict(x);
+
+        //Every thread predicts all the inputs with its own context
+        boolean[] matched = new boolean[nThreads];
+        Thread[] threads = new Thread[nThreads];
+        for (int t = 0; t < nThreads; t++) {
+            int id = t;
+            threads[t] = new Thread(() -> {
+                InferenceContext context = mlp.createInferenceContext();
+                boolean ok = true;
+                for (int repeat = 0; repeat < 50; repeat++) {
+                    for (int i = 0; i < x.length; i++) {
+                        ok &= Arrays.equals(expected[i], mlp.predict(x[i], context));
+                    }
+                }
+                matched[id] = ok;
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (boolean ok : matched) {
+            assert ok;
+        }
+    }
+
+    @Test
+    public void testBatchPredict() {
+        double[][] x = new double[20][3];
+        for (int i = 0; i < x.length; i++) {
+            for (int j = 0; j < 3; j++) {
+                x[i][j] = ((i * 7 + j * 13) % 17) / 17.0;
+            }
+        }
+        for (Precision precision : Precision.values()) {
+            MultilayerPerceptron mlp = new MultilayerPerceptron(3, new int[]{8, 5}, new ActivationType[]{
+                    ActivationType.TANH, ActivationType.RELU}, 4, 20, 0.1, 1, true, true, 1, precision);
+            double[][] expected = mlp.predict(x);
+
+            //A batch gives the rows of the predictions of its samples one by one
+            InferenceContext context = mlp.createInferenceContext(8);
+            for (int from = 0; from < x.length; from += 8) {
+                int nSamples = Math.min(8, x.length - from);
+                double[] output = mlp.predict(Arrays.copyOfRange(x, from, from + nSamples), nSamples, context);
+                for (int r = 0; r < nSamples; r++) {
+                    assert Arrays.equals(round(Arrays.copyOfRange(output, 4 * r, 4 * r + 4), 12),
+                            round(expected[from + r], 12));
+                }
+            }
+            try {
+                mlp.predict(x, 9, context);
+                assert false;
+            } catch (MLPException e) {
+                assert e.getMessage().contains("context for 8 samples");
+            }
+        }
+    }
+
+    @Test
+    public void testDeepNetwork() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        double[][] x = {{0.1, 0.5, 0.9}, {0.3, 0.2, 0.7}, {0.8, 0.1, 0.4}, {0.6, 0.9, 0.2}, {0.4, 0.4, 0.4},
+                {0.9, 0.3, 0.1}, {0.2, 0.8, 0.6}, {0.5, 0.7, 0.3}, {0.7, 0.6, 0.8}, {0.1, 0.2, 0.3}};
+        double[][] y = {{1, 0}, {0, 1}, {0, 1}, {1, 0}, {1, 0}, {0, 1}, {1, 0}, {0, 1}, {1, 0}, {0, 1}};
+
+        //A single hidden layer is the special case of the 3-layer constructors
+        MultilayerPerceptron classic = new MultilayerPerceptron(3, 5, 2, 20, 0.1, 5, ActivationType.TANH,
+                true, true, 4);
+        classic.fit(x, y);
+        MultilayerPerceptron stacked = new MultilayerPerceptron(3, new int[]{5}, new ActivationType[]{
+                ActivationType.TANH}, 2, 20, 0.1, 5, true, true, 4);
+        stacked.fit(x, y);
+        assert sameParameters(classic, stacked, 0);
+
+        //A deeper network trained in batches gives the same weights as trained sample by sample
+        int[] hiddenUnits = {6, 4, 3};
+        ActivationType[] types = {ActivationType.RELU, ActivationType.TANH, ActivationType.SIGMOID};
+        int batchSize = 4;
+        MultilayerPerceptron batched = new MultilayerPerceptron(3, hiddenUnits, types, 2, 20, 0.1, 1, true, true,
+                batchSize);
+        batched.fit(x, y);
+        MultilayerPerceptron perSample = new MultilayerPerceptron(3, hiddenUnits, types, 2, 20, 0.1, 1, true, true,
+                batchSize);
+        assert perSample.getLayers().length == hiddenUnits.length + 1;
+        Method forwardMethod = perSample.getClass().getDeclaredMethod("forward", double[].class);
+        forwardMethod.setAccessible(true);
+        Method backwardMethod = perSample.getClass().getDeclaredMethod("backward", double[].class);
+        backwardMethod.setAccessible(true);
+        Method updateWeightsMethod = perSample.getClass().getDeclaredMethod("updateWeights", int.class);
+        updateWeightsMethod.setAccessible(true);
+        for (int from = 0; from < x.length; from += batchSize) {
+            int nSamples = Math.min(batchSize, x.length - from);
+            for (int i = from; i < from + nSamples; i++) {
+                forwardMethod.invoke(perSample, new Object[]{x[i]});
+                backwardMethod.invoke(perSample, new Object[]{y[i]});
+            }
+            updateWeightsMethod.invoke(perSample, nSamples);
+        }
+        assert sameParameters(batched, perSample, 0);
+
+        //The deeper network learns
+        MultilayerPerceptron deep = new MultilayerPerceptron(3, hiddenUnits, types, 2, 20, 0.1, 200, true, true, 1);
+        double before = deep.loss(deep.predict(x), y);
+        deep.fit(x, y);
+        assert deep.loss(deep.predict(x), y) < before;
+    }
+
+    @Test
+    public void testShuffledFit() {
+        double[][] x = {{0.1, 0.5, 0.9}, {0.3, 0.2, 0.7}, {0.8, 0.1, 0.4}, {0.6, 0.9, 0.2}, {0.4, 0.4, 0.4},
+                {0.9, 0.3, 0.1}, {0.2, 0.8, 0.6}, {0.5, 0.7, 0.3}, {0.7, 0.6, 0.8}, {0.1, 0.2, 0.3}};
+        double[][] y = {{1, 0}, {0, 1}, {0, 1}, {1, 0}, {1, 0}, {0, 1}, {1, 0}, {0, 1}, {1, 0}, {0, 1}};
+        double[][] original = new double[x.length][];
+        for (int i = 0; i < x.length; i++) {
+            original[i] = x[i].clone();
+        }
+
+        //An epoch visits the samples in a permutation drawn from the random state
+        MultilayerPerceptron shuffled = new MultilayerPerceptron(3, 5, 2, 20, 0.1, 1, ActivationType.TANH, true,
+                true, 4);
+        shuffled.setShuffle(true);
+        shuffled.fit(x, y);
+        int[] order = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+        Random random = new Random(20);
+        for (int i = order.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        double[][] permutedX = new double[x.length][];
+        double[][] permutedY = new double[y.length][];
+        for (int i = 0; i < order.length; i++) {
+            permutedX[i] = x[order[i]];
+            permutedY[i] = y[order[i]];
+        }
+        MultilayerPerceptron permuted = new MultilayerPerceptron(3, 5, 2, 20, 0.1, 1, ActivationType.TANH, true,
+                true, 4);
+        permuted.fit(permutedX, permutedY);
+        assert sameParameters(shuffled, permuted, 0);
+
+        //The samples are not moved
+        assert Arrays.deepEquals(x, original);
+
+        //Repeatable for the same random state, with one thread or several
+        MultilayerPerceptron first = new MultilayerPerceptron(3, 5, 2, 20, 0.1, 5, ActivationType.TANH, true, true,
+                4);
+        first.setShuffle(true);
+        first.fit(x, y);
+        MultilayerPerceptron second = new MultilayerPerceptron(3, 5, 2, 20, 0.1, 5, ActivationType.TANH, true, true,
+                4);
+        second.setShuffle(true);
+        second.setThreads(2);
+        second.fit(x, y);
+        assert sameParameters(first, second, 9);
+    }
+
+    @Test
+    public void testHogwild() {
+        //Two classes split by a line
+        Random random = new Random(20);
+        double[][] x = new double[2000][2];
+        double[][] y = new double[2000][2];
+        for (int i = 0; i < x.length; i++) {
+            x[i][0] = random.nextDouble();
+            x[i][1] = random.nextDouble();
+            y[i][x[i][0] > x[i][1] ? 0 : 1] = 1;
+        }
+        List<Double> losses = new ArrayList<>();
+        MultilayerPerceptron hogwild = new MultilayerPerceptron(2, 8, 2, 20, 0.05, 10, ActivationType.TANH, true,
+                true, 1);
+        hogwild.setThreads(4);
+        hogwild.setHogwild(true);
+        hogwild.setShuffle(true);
+        hogwild.addListener(new TrainingListener() {
+            @Override
+            public void epochFinished(EpochMetrics metrics) {
+                losses.add(metrics.loss);
+                //The updates are made by the threads but still measured
+                assert metrics.gradientNorm > 0 && metrics.updateNanos > 0;
+            }
+        });
+        hogwild.fit(x, y);
+
+        //Every sample is trained on in every epoch and it learns like a single thread does
+        assert losses.size() == 10;
+        assert losses.get(9) < losses.get(0) / 2;
+        double[][] predicted = hogwild.predict(x);
+        int correct = 0;
+        for (int i = 0; i < x.length; i++) {
+            if ((predicted[i][0] > predicted[i][1]) == (y[i][0] == 1)) {
+                correct++;
+            }
+        }
+        assert correct > 0.95 * x.length;
+
+        //With a single thread it is the usual training
+        MultilayerPerceptron single = new MultilayerPerceptron(2, 8, 2, 20, 0.05, 2, ActivationType.TANH, true, true,
+                1);
+        single.setHogwild(true);
+        single.fit(x, y);
+        MultilayerPerceptron usual = new MultilayerPerceptron(2, 8, 2, 20, 0.05, 2, ActivationType.TANH, true, true,
+                1);
+        usual.fit(x, y);
+        assert sameParameters(single, usual, 0);
+
+        //The state of the other optimizers can't be shared without locks
+        hogwild.setOptimizer(new AdamOptimizer());
+        try {
+            hogwild.fit(x, y);
+            assert false;
+        } catch (MLPException e) {
+            assert e.getMessage().equals("Hogwild training only supports the SgdOptimizer");
+        }
+    }
+
+    @Test
+    public void testOptimizer() {
+        double[][] x = {{0.1, 0.5, 0.9}, {0.3, 0.2, 0.7}, {0.8, 0.1, 0.4}, {0.6, 0.9, 0.2}, {0.4, 0.4, 0.4},
+                {0.9, 0.3, 0.1}, {0.2, 0.8, 0.6}, {0.5, 0.7, 0.3}, {0.7, 0.6, 0.8}, {0.1, 0.2, 0.3}};
+        double[][] y = {{1, 0}, {0, 1}, {0, 1}, {1, 0}, {1, 0}, {0, 1}, {1, 0}, {0, 1}, {1, 0}, {0, 1}};
+
+        //Plain gradient descent is the default
+        MultilayerPerceptron sgd = new MultilayerPerceptron(3, 5, 2, 20, 0.05, 30, ActivationType.TANH, true, true, 2);
+        sgd.fit(x, y);
+        MultilayerPerceptron explicit = new MultilayerPerceptron(3, 5, 2, 20, 0.05, 30, ActivationType.TANH, true,
+                true, 2);
+        explicit.setOptimizer(new SgdOptimizer());
+        explicit.fit(x, y);
+        assert sameParameters(sgd, explicit, 0);
+
+        //Adaptive optimizers get further in the same number of epochs
+        MultilayerPerceptron adam = new MultilayerPerceptron(3, 5, 2, 20, 0.05, 30, ActivationType.TANH, true, true,
+                2);
+        adam.setOptimizer(new AdamOptimizer());
+        adam.fit(x, y);
+        assert adam.loss(adam.predict(x), y) < sgd.loss(sgd.predict(x), y);
+        MultilayerPerceptron momentum = new MultilayerPerceptron(3, 5, 2, 20, 0.05, 30, ActivationType.TANH, true,
+                true, 2);
+        momentum.setOptimizer(new NesterovOptimizer());
+        momentum.fit(x, y);
+        assert momentum.loss(momentum.predict(x), y) < sgd.loss(sgd.predict(x), y);
+    }
+
+    @Test
+    public void testSnapshots() throws InterruptedException {
+        double[][] x = new double[100][3];
+        double[][] y = new double[100][2];
+        for (int i = 0; i < x.length; i++) {
+            for (int j = 0; j < 3; j++) {
+                x[i][j] = ((i * 7 + j * 13) % 17) / 17.0;
+            }
+            y[i][(i * 7) % 2] = 1;
+        }
+        MultilayerPerceptron mlp = new MultilayerPerceptron(3, 8, 2, 20, 0.1, 50, ActivationType.TANH, true, true, 10);
+        String initial = Arrays.deepToString(mlp.predict(x));
+        mlp.setSnapshots(true);
+        assert mlp.getSnapshotVersion() == 1;
+
+        //Predictions of every snapshot, recorded on the training thread just after it is published
+        Set<String> published = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        published.add(initial);
+        mlp.addListener(new TrainingListener() {
+            @Override
+            public void epochFinished(EpochMetrics metrics) {
+                assert mlp.getSnapshotVersion() == metrics.epoch + 1;
+                published.add(Arrays.deepToString(mlp.predict(x)));
+            }
+        });
+
+        //Another thread keeps predicting while training. Every prediction comes from a single published snapshot.
+        List<String> seen = new ArrayList<>();
+        AtomicBoolean training = new AtomicBoolean(true);
+        Thread reader = new Thread(() -> {
+            while (training.get()) {
+                seen.add(Arrays.deepToString(mlp.predict(x)));
+            }
+        });
+        reader.start();
+        mlp.fit(x, y);
+        training.set(false);
+        reader.join();
+        assert published.size() > 1;
+        assert published.containsAll(seen);
+
+        //Changes made directly to the weights are only seen once published
+        String trained = Arrays.deepToString(mlp.predict(x));
+        mlp.getLayers()[0].getWeights()[0] += 1;
+        assert Arrays.deepToString(mlp.predict(x)).equals(trained);
+        mlp.publishSnapshot();
+        assert !Arrays.deepToString(mlp.predict(x)).equals(trained);
+        mlp.setSnapshots(false);
+        assert mlp.getSnapshotVersion() == 0;
+        try {
+            mlp.publishSnapshot();
+            assert false;
+        } catch (MLPException e) {
+            assert e.getMessage().contains("setSnapshots");
+        }
+    }
+
+    @Test
+    public void testEarlyStopping() {
+        double[][] x = {{0.1, 0.5, 0.9}, {0.3, 0.2, 0.7}, {0.8, 0.1, 0.4}, {0.6, 0.9, 0.2}, {0.4, 0.4, 0.4},
+                {0.9, 0.3, 0.1}, {0.2, 0.8, 0.6}, {0.5, 0.7, 0.3}, {0.7, 0.6, 0.8}, {0.1, 0.2, 0.3}};
+        double[][] y = {{1, 0}, {0, 1}, {0, 1}, {1, 0}, {1, 0}, {0, 1}, {1, 0}, {0, 1}, {1, 0}, {0, 1}};
+        double[][] validationX = {{0.2, 0.4, 0.8}, {0.7, 0.2, 0.3}, {0.5, 0.8, 0.3}, {0.3, 0.3, 0.5}};
+        double[][] validationY = {{1, 0}, {0, 1}, {1, 0}, {0, 1}};
+
+        //Training stops long before the epochs run out as the mlp overfits the few samples
+        int patience = 3;
+        MultilayerPerceptron stopped = new MultilayerPerceptron(3, 8, 2, 20, 0.5, 2000, ActivationType.TANH, true,
+                true, 2);
+        stopped.setEarlyStopping(validationX, validationY, 1, patience);
+        stopped.fit(x, y);
+        assert stopped.getTrainedEpochs() < 2000;
+
+        //The weights of the best epoch are restored. It is the one `patience` checks before the end.
+        int bestEpoch = stopped.getTrainedEpochs() - patience;
+        MultilayerPerceptron best = new MultilayerPerceptron(3, 8, 2, 20, 0.5, bestEpoch, ActivationType.TANH, true,
+                true, 2);
+        best.fit(x, y);
+        assert best.getTrainedEpochs() == bestEpoch;
+        assert sameParameters(stopped, best, 0);
+    }
+
+    @Test
+    public void testLearningRateSchedule() {
+        double[][] x = {{0.1, 0.5, 0.9}, {0.3, 0.2, 0.7}, {0.8, 0.1, 0.4}, {0.6, 0.9, 0.2}};
+        double[][] y = {{1, 0}, {0, 1}, {0, 1}, {1, 0}};
+
+        //A schedule giving the base rate is the same as no schedule
+        MultilayerPerceptron constant = new MultilayerPerceptron(3, 5, 2, 20, 0.1, 5, ActivationType.TANH, true,
+                true, 2);
+        constant.fit(x, y);
+        MultilayerPerceptron scheduled = new MultilayerPerceptron(3, 5, 2, 20, 0.1, 5, ActivationType.TANH, true,
+                true, 2);
+        scheduled.setLearningRateSchedule(new StepSchedule(10, 0.5));
+        scheduled.fit(x, y);
+        assert sameParameters(constant, scheduled, 0);
+
+        //A decayed rate changes the weights
+        MultilayerPerceptron decayed = new MultilayerPerceptron(3, 5, 2, 20, 0.1, 5, ActivationType.TANH, true,
+                true, 2);
+        decayed.setLearningRateSchedule(new StepSchedule(1, 0.5));
+        decayed.fit(x, y);
+        assert !sameParameters(constant, decayed, 0);
+
+        //A schedule keeping state starts every fit from the base rate. The large rate makes the loss go up and down.
+        List<Double> rates = new ArrayList<>();
+        MultilayerPerceptron plateau = new MultilayerPerceptron(3, 5, 2, 20, 5, 20, ActivationType.TANH, true,
+                true, 2);
+        plateau.setLearningRateSchedule(new ReduceOnPlateauSchedule(0.5, 1, 0));
+        plateau.addListener(new TrainingListener() {
+            @Override
+            public void epochFinished(EpochMetrics metrics) {
+                rates.add(metrics.learningRate);
+            }
+        });
+        plateau.fit(x, y);
+        assert rates.get(rates.size() - 1) < 5;
+        rates.clear();
+        plateau.fit(x, y);
+        assert rates.get(0) == 5;
+    }
+
+    @Test
+    public void testListener() {
+        double[][] x = {{0.1, 0.5, 0.9}, {0.3, 0.2, 0.7}, {0.8, 0.1, 0.4}, {0.6, 0.9, 0.2}, {0.4, 0.4, 0.4}};
+        double[][] y = {{1, 0}, {0, 1}, {0, 1}, {1, 0}, {1, 0}};
+        List<EpochMetrics> metrics = new ArrayList<>();
+        int[] started = {0};
+        TrainingListener listener = new TrainingListener() {
+            @Override
+            public void trainingStarted(MultilayerPerceptron mlp) {
+                started[0]++;
+            }
+
+            @Override
+            public void epochFinished(EpochMetrics epochMetrics) {
+                metrics.add(epochMetrics);
+            }
+        };
+
+        MultilayerPerceptron mlp = new MultilayerPerceptron(3, 5, 2, 20, 0.1, 3, ActivationType.TANH, true, true, 2);
+        mlp.addListener(listener);
+        mlp.setEarlyStopping(x, y, 2, 10);
+        mlp.fit(x, y);
+        assert started[0] == 1 && metrics.size() == 3;
+        for (int i = 0; i < metrics.size(); i++) {
+            EpochMetrics epoch = metrics.get(i);
+            assert epoch.epoch == i + 1 && epoch.samples == x.length && epoch.learningRate == 0.1;
+            assert epoch.loss > 0 && epoch.gradientNorm > 0;
+            assert epoch.nanos > 0 && epoch.forwardNanos > 0 && epoch.backwardNanos > 0 && epoch.updateNanos > 0;
+            //The validation loss is only computed every 2 epochs
+            assert Double.isNaN(epoch.validationLoss) == (epoch.epoch % 2 != 0);
+        }
+
+        //Listening doesn't change the training
+        MultilayerPerceptron silent = new MultilayerPerceptron(3, 5, 2, 20, 0.1, 3, ActivationType.TANH, true, true,
+                2);
+        silent.setEarlyStopping(x, y, 2, 10);
+        silent.fit(x, y);
+        assert sameParameters(mlp, silent, 0);
+        mlp.removeListener(listener);
+        mlp.fit(x, y);
+        assert metrics.size() == 3;
+    }
+
+    @Test
+    public void testFitOnDisk() throws IOException {
+        double[][] x = {{0.1, 0.5, 0.9}, {0.3, 0.2, 0.7}, {0.8, 0.1, 0.4}, {0.6, 0.9, 0.2}, {0.4, 0.4, 0.4},
+                {0.9, 0.3, 0.1}, {0.2, 0.8, 0.6}, {0.5, 0.7, 0.3}, {0.7, 0.6, 0.8}, {0.1, 0.2, 0.3}};
+        double[][] y = {{1, 0}, {0, 1}, {0, 1}, {1, 0}, {1, 0}, {0, 1}, {1, 0}, {0, 1}, {1, 0}, {0, 1}};
+        Dataset dataset = new Dataset(x.length, 3, 2);
+        for (int i = 0; i < x.length; i++) {
+            System.arraycopy(x[i], 0, dataset.inputs, i * 3, 3);
+            System.arraycopy(y[i], 0, dataset.outputs, i * 2, 2);
+        }
+
+        Path path = Files.createTempFile("dataset", ".bin");
+        try {
+            DatasetFile.write(path, dataset);
+            for (int threads : new int[]{1, 2}) {
+                MultilayerPerceptron inMemory = new MultilayerPerceptron(3, 5, 2, 20, 0.1, 3, ActivationType.TANH,
+                        true, true, 4);
+                inMemory.setThreads(threads);
+                inMemory.fit(x, y);
+
+                //Chunks of 3 rows, so batches of 4 samples span two chunks
+                MultilayerPerceptron onDisk = new MultilayerPerceptron(3, 5, 2, 20, 0.1, 3, ActivationType.TANH,
+                        true, true, 4);
+                onDisk.setThreads(threads);
+                try (DatasetFile data = DatasetFile.open(path, 3 * 5 * 8)) {
+                    onDisk.fit(data);
+                }
+                assert sameParameters(inMemory, onDisk, 0);
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        double[][] x = {{0.1, 0.5, 0.9}, {0.3, 0.2, 0.7}, {0.8, 0.1, 0.4}, {0.6, 0.9, 0.2}, {0.4, 0.4, 0.4}};
+        double[][] y = {{1, 0}, {0, 1}, {0, 1}, {1, 0}, {1, 0}};
+        MultilayerPerceptron mlp = new MultilayerPerceptron(3, new int[]{5, 4}, new ActivationType[]{
+                ActivationType.LEAKY_RELU, ActivationType.SIGMOID}, 2, 20, 0.1, 3, true, true, 2);
+        mlp.fit(x, y);
+
+        Path path = Files.createTempFile("mlp", ".bin");
+        try {
+            mlp.save(path);
+            MultilayerPerceptron loaded = MultilayerPerceptron.load(path);
+
+            //Same configuration, weights and predictions
+            assert loaded.getInputSize() == 3 && loaded.getOutputSize() == 2;
+            assert Arrays.equals(loaded.getHiddenActivationTypes(), mlp.getHiddenActivationTypes());
+            assert loaded.isClassification() && loaded.isMultiClass();
+            assert loaded.getRandomState() == 20 && loaded.getEpochs() == 3 && loaded.getBatchSize() == 2;
+            assert loaded.getLearningRate() == 0.1;
+            assert sameParameters(mlp, loaded, 0);
+            assert Arrays.deepEquals(loaded.predict(x), mlp.predict(x));
+
+            //Anything else is rejected
+            Files.write(path, new byte[64]);
+            try {
+                MultilayerPerceptron.load(path);
+                assert false;
+            } catch (MLPException e) {
+                assert e.getMessage().startsWith("Not a saved mlp");
+            }
+
+            //Sizes of a corrupt header are rejected before the layers are allocated
+            for (int ni : new int[]{2_000_000_000, -5}) {
+                mlp.save(path);
+                byte[] bytes = Files.readAllBytes(path);
+                ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(12, ni);
+                Files.write(path, bytes);
+                try {
+                    MultilayerPerceptron.load(path);
+                    assert false;
+                } catch (MLPException e) {
+                    assert e.getMessage().startsWith(ni > 0 ? "Expected saved mlp" : "Saved mlp has -5 units");
+                }
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testSinglePrecision() throws IOException {
+        double[][] x = {{0.1, 0.5, 0.9}, {0.3, 0.2, 0.7}, {0.8, 0.1, 0.4}, {0.6, 0.9, 0.2}, {0.4, 0.4, 0.4},
+                {0.9, 0.3, 0.1}, {0.2, 0.8, 0.6}, {0.5, 0.7, 0.3}, {0.7, 0.6, 0.8}, {0.1, 0.2, 0.3}};
+        double[][] y = {{1, 0}, {0, 1}, {0, 1}, {1, 0}, {1, 0}, {0, 1}, {1, 0}, {0, 1}, {1, 0}, {0, 1}};
+        int[] hiddenUnits = {6, 4};
+        ActivationType[] types = {ActivationType.TANH, ActivationType.RELU};
+        MultilayerPerceptron double64 = new MultilayerPerceptron(3, hiddenUnits, types, 2, 20, 0.1, 1, true, true, 4);
+        MultilayerPerceptron float32 = new MultilayerPerceptron(3, hiddenUnits, types, 2, 20, 0.1, 1, true, true, 4,
+                Precision.FLOAT);
+
+        //Same initial values rounded to float
+        Layer[] layers = double64.getLayers();
+        FloatLayer[] floatLayers = float32.getFloatLayers();
+        for (int l = 0; l < layers.length; l++) {
+            for (int i = 0; i < layers[l].getWeights().length; i++) {
+                assert floatLayers[l].getWeights()[i] == (float) layers[l].getWeights()[i];
+            }
+        }
+        try {
+            float32.getLayers();
+            assert false;
+        } catch (MLPException e) {
+            assert e.getMessage().contains("getFloatLayers");
+        }
+
+        //Training gives nearly the same predictions, on one thread or several
+        double64 = new MultilayerPerceptron(3, hiddenUnits, types, 2, 20, 0.1, 50, true, true, 4);
+        double64.fit(x, y);
+        for (int threads = 1; threads <= 2; threads++) {
+            float32 = new MultilayerPerceptron(3, hiddenUnits, types, 2, 20, 0.1, 50, true, true, 4,
+                    Precision.FLOAT);
+            float32.setThreads(threads);
+            float32.setOptimizer(new SgdOptimizer());
+            float32.fit(x, y);
+            double[][] expected = double64.predict(x);
+            double[][] actual = float32.predict(x);
+            for (int i = 0; i < x.length; i++) {
+                assert Arrays.equals(round(actual[i], 3), round(expected[i], 3));
+            }
+        }
+
+        //Saved as floats and loaded back as they were
+        Path path = Files.createTempFile("mlp", ".bin");
+        Path doublePath = Files.createTempFile("mlp", ".bin");
+        try {
+            float32.save(path);
+            double64.save(doublePath);
+            MultilayerPerceptron loaded = MultilayerPerceptron.load(path);
+            assert loaded.getPrecision() == Precision.FLOAT;
+            assert Arrays.deepEquals(loaded.predict(x), float32.predict(x));
+            assert Files.size(path) < Files.size(doublePath);
+        } finally {
+            Files.delete(path);
+            Files.delete(doublePath);
         }
-        return output;
     }
 
     /**
@@ -239,6 +893,85 @@ public class TestMLP {
         return output;
     }
 
+    /**
+     * Check two mlps have the same weights and biases
+     *
+     * @param first  an mlp
+     * @param second another mlp
+     * @param places places to round each value before comparing. 0 compares exact values.
+     * @return true if all the weights and biases are same
+     */
+    private boolean sameParameters(MultilayerPerceptron first, MultilayerPerceptron second, int places) {
+        Layer[] firstLayers = first.getLayers();
+        Layer[] secondLayers = second.getLayers();
+        boolean same = firstLayers.length == secondLayers.length;
+        for (int i = 0; same && i < firstLayers.length; i++) {
+            double[][] firstValues = {firstLayers[i].getWeights(), firstLayers[i].getBiases()};
+            double[][] secondValues = {secondLayers[i].getWeights(), secondLayers[i].getBiases()};
+            for (int j = 0; j < firstValues.length; j++) {
+                same &= places == 0 ? Arrays.equals(firstValues[j], secondValues[j]) :
+                        Arrays.equals(round(firstValues[j], places), round(secondValues[j], places));
+            }
+        }
+        return same;
+    }
+
+    /**
+     * Get the workspaces of the layers used by an mlp on the calling thread
+     *
+     * @param mlp mlp
+     * @return workspace of each layer
+     * @throws NoSuchFieldException   if no field with the name
+     * @throws IllegalAccessException if not allowed to get values using reflection
+     */
+    private LayerWorkspace[] layerWorkspaces(MultilayerPerceptron mlp) throws NoSuchFieldException,
+            IllegalAccessException {
+        Object workspace = getField(mlp, "workspace");
+        return (LayerWorkspace[]) getField(workspace, "layers");
+    }
+
+    /**
+     * Get the buffer holding the inputs of the forward pass of an mlp on the calling thread
+     *
+     * @param mlp mlp
+     * @return input buffer
+     * @throws NoSuchFieldException   if no field with the name
+     * @throws IllegalAccessException if not allowed to get values using reflection
+     */
+    private double[] workspaceInput(MultilayerPerceptron mlp) throws NoSuchFieldException, IllegalAccessException {
+        Object workspace = getField(mlp, "workspace");
+        return (double[]) getField(workspace, "input");
+    }
+
+    /**
+     * Get a field using reflection
+     *
+     * @param obj  obj whose field is read
+     * @param name name of the field
+     * @return value of the field
+     * @throws NoSuchFieldException   if no field with the name
+     * @throws IllegalAccessException if not allowed to get values using reflection
+     */
+    private Object getField(Object obj, String name) throws NoSuchFieldException, IllegalAccessException {
+        Field field = obj.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(obj);
+    }
+
+    /**
+     * Copy values into arrays used by the mlp
+     *
+     * @param arrays arrays of the mlp
+     * @param values values to copy into each of the arrays
+     */
+    private void initializedArrays(double[][] arrays, double[][] values) {
+        assert arrays.length == values.length;
+
+        for (int i = 0; i < arrays.length; i++) {
+            System.arraycopy(values[i], 0, arrays[i], 0, values[i].length);
+        }
+    }
+
     /**
      * Set fields using reflection
      *
@@ -0,0 +1,154 @@
+import mlp.optimizers.*;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 16:45
+ * Purpose: Test-cases for implementations of interface `Optimizer`. The changes are the negative gradients summed
+ * over 2 samples, so the gradients are -dw / 2.
+ **/
+public class TestOptimizer {
+
+    @Test
+    public void testSgdOptimizer() {
+        double[] w = {1, 2};
+        double[] dw = {0.4, -0.2};
+        Optimizer optimizer = new SgdOptimizer();
+        optimizer.initialize(new int[]{2});
+        optimizer.nextStep();
+        optimizer.update(0, w, dw, 2, 0.5);
+
+        assert Arrays.equals(w, new double[]{1.1, 1.95});
+        assert Arrays.equals(dw, new double[]{0, 0});
+    }
+
+    @Test
+    public void testMomentumOptimizer() {
+        double[] w = {1, 2};
+        Optimizer optimizer = new MomentumOptimizer(0.5);
+        optimizer.initialize(new int[]{2});
+        //Velocity 0.1 after the first step and 0.5 * 0.1 + 0.1 after the second
+        step(optimizer, w, new double[]{0.4, 0});
+        step(optimizer, w, new double[]{0.4, 0});
+
+        assert Arrays.equals(w, new double[]{1 + 0.1 + (0.5 * 0.1 + 0.1), 2});
+    }
+
+    @Test
+    public void testNesterovOptimizer() {
+        double[] w = {1, 2};
+        Optimizer optimizer = new NesterovOptimizer(0.5);
+        optimizer.initialize(new int[]{2});
+        step(optimizer, w, new double[]{0.4, 0});
+
+        //Velocity of 0.1 and a look-ahead of 0.5 * 0.1
+        assert Arrays.equals(w, new double[]{1 + (0.5 * 0.1 + 0.1), 2});
+    }
+
+    @Test
+    public void testRmsPropOptimizer() {
+        double[] w = {1, 2};
+        Optimizer optimizer = new RmsPropOptimizer(0.9, 0);
+        optimizer.initialize(new int[]{2});
+        step(optimizer, w, new double[]{0.4, -0.2});
+
+        //The average of the squares is 0.1 * g^2, so every step is learning rate / sqrt(0.1) in the gradient direction
+        double step = 0.5 / Math.sqrt(0.1);
+        assert Arrays.equals(round(w), round(new double[]{1 + step, 2 - step}));
+    }
+
+    @Test
+    public void testAdamOptimizer() {
+        double[] w = {1, 2};
+        Optimizer optimizer = new AdamOptimizer(0.9, 0.999, 0);
+        optimizer.initialize(new int[]{2});
+        step(optimizer, w, new double[]{0.4, -0.2});
+        step(optimizer, w, new double[]{0.4, -0.2});
+
+        //With a constant gradient and bias correction every step is the learning rate in the gradient direction
+        assert Arrays.equals(round(w), round(new double[]{1 + 2 * 0.5, 2 - 2 * 0.5}));
+    }
+
+    @Test
+    public void testAdamWOptimizer() {
+        double[] w = {1, 2};
+        Optimizer optimizer = new AdamWOptimizer(0.9, 0.999, 0, 0.1);
+        optimizer.initialize(new int[]{2});
+        step(optimizer, w, new double[]{0.4, -0.2});
+
+        //The weights shrink by learning rate * decay before the Adam step
+        assert Arrays.equals(round(w), round(new double[]{1 * (1 - 0.05) + 0.5, 2 * (1 - 0.05) - 0.5}));
+
+        //The biases only take the Adam step
+        double[] b = {1, 2};
+        optimizer.initialize(new int[]{2, 2});
+        optimizer.nextStep();
+        optimizer.update(1, b, new double[]{0.4, -0.2}, 2, 0.5);
+        assert Arrays.equals(round(b), round(new double[]{1 + 0.5, 2 - 0.5}));
+    }
+
+    @Test
+    public void testSlots() {
+        //The state of a slot doesn't affect another slot
+        double[] first = {1};
+        double[] second = {1};
+        Optimizer optimizer = new MomentumOptimizer(0.5);
+        optimizer.initialize(new int[]{1, 1});
+        optimizer.nextStep();
+        optimizer.update(0, first, new double[]{0.4}, 2, 0.5);
+        optimizer.update(1, second, new double[]{0}, 2, 0.5);
+
+        assert first[0] == 1.1 && second[0] == 1;
+    }
+
+    @Test
+    public void testSinglePrecision() {
+        //The same steps as in double precision rounded to float
+        Optimizer[] doubles = {new SgdOptimizer(), new MomentumOptimizer(0.5), new NesterovOptimizer(0.5),
+                new RmsPropOptimizer(0.9, 1e-8), new AdamOptimizer(), new AdamWOptimizer(0.1)};
+        Optimizer[] floats = {new SgdOptimizer(), new MomentumOptimizer(0.5), new NesterovOptimizer(0.5),
+                new RmsPropOptimizer(0.9, 1e-8), new AdamOptimizer(), new AdamWOptimizer(0.1)};
+        for (int o = 0; o < doubles.length; o++) {
+            double[] w = {1, 2};
+            float[] floatW = {1, 2};
+            doubles[o].initialize(new int[]{2});
+            floats[o].initialize(new int[]{2});
+            for (int t = 0; t < 3; t++) {
+                step(doubles[o], w, new double[]{0.4, -0.2});
+                floats[o].nextStep();
+                float[] dw = {0.4f, -0.2f};
+                floats[o].update(0, floatW, dw, 2, 0.5);
+                assert dw[0] == 0 && dw[1] == 0;
+            }
+            for (int i = 0; i < w.length; i++) {
+                assert Math.abs(floatW[i] - w[i]) < 1e-6;
+            }
+        }
+    }
+
+    /**
+     * A step of an optimizer with a single slot, 2 samples and a learning rate of 0.5
+     *
+     * @param optimizer optimizer
+     * @param w         parameters
+     * @param dw        changes
+     */
+    private void step(Optimizer optimizer, double[] w, double[] dw) {
+        optimizer.nextStep();
+        optimizer.update(0, w, dw, 2, 0.5);
+    }
+
+    /**
+     * @param arr input array
+     * @return array rounded to 10 places
+     */
+    private double[] round(double[] arr) {
+        double[] output = new double[arr.length];
+        for (int i = 0; i < arr.length; i++) {
+            output[i] = Math.round(arr[i] * 1e10) / 1e10;
+        }
+        return output;
+    }
+}
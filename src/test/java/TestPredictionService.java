@@ -0,0 +1,108 @@
+import mlp.MultilayerPerceptron;
+import mlp.activations.ActivationType;
+import mlp.exceptions.MLPException;
+import mlp.serving.PredictionService;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 21:35
+ * Purpose: Tests for class `mlp.serving.PredictionService`
+ **/
+public class TestPredictionService {
+
+    @Test
+    public void testConcurrentSubmit() throws Exception {
+        double[][] x = new double[400][3];
+        for (int i = 0; i < x.length; i++) {
+            for (int j = 0; j < 3; j++) {
+                x[i][j] = ((i * 7 + j * 13) % 17) / 17.0;
+            }
+        }
+        MultilayerPerceptron mlp = new MultilayerPerceptron(3, 8, 4, 20, 0.1, 1, ActivationType.TANH, true, true);
+        double[][] expected = mlp.predict(x);
+
+        //Every thread submits a quarter of the samples without waiting for the predictions
+        List<CompletableFuture<double[]>> futures = new ArrayList<>();
+        for (int i = 0; i < x.length; i++) {
+            futures.add(null);
+        }
+        try (PredictionService service = new PredictionService(mlp, 16, 1, TimeUnit.MILLISECONDS)) {
+            Thread[] threads = new Thread[4];
+            for (int t = 0; t < threads.length; t++) {
+                int id = t;
+                threads[t] = new Thread(() -> {
+                    for (int i = id; i < x.length; i += threads.length) {
+                        futures.set(i, service.submit(x[i]));
+                    }
+                });
+                threads[t].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            for (int i = 0; i < x.length; i++) {
+                double[] actual = futures.get(i).get(10, TimeUnit.SECONDS);
+                for (int j = 0; j < actual.length; j++) {
+                    assert Math.abs(actual[j] - expected[i][j]) < 1e-12;
+                }
+            }
+
+            //Samples waiting together were predicted together
+            assert service.getSamples() == x.length;
+            assert service.getBatches() < x.length;
+        }
+    }
+
+    @Test
+    public void testBatchWait() throws Exception {
+        MultilayerPerceptron mlp = new MultilayerPerceptron(3, 8, 4, 20, 0.1, 1, ActivationType.TANH, true, true);
+        try (PredictionService service = new PredictionService(mlp, 4, 100, TimeUnit.MILLISECONDS)) {
+            //A lone sample is predicted once its wait is over
+            long start = System.nanoTime();
+            service.submit(new double[]{0.1, 0.2, 0.3}).get(10, TimeUnit.SECONDS);
+            assert System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100);
+
+            //A full batch doesn't wait
+            List<CompletableFuture<double[]>> futures = new ArrayList<>();
+            start = System.nanoTime();
+            for (int i = 0; i < 4; i++) {
+                futures.add(service.submit(new double[]{0.1 * i, 0.2, 0.3}));
+            }
+            for (CompletableFuture<double[]> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+            assert System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(100);
+            assert service.getBatches() == 2;
+        }
+    }
+
+    @Test
+    public void testFailures() throws Exception {
+        MultilayerPerceptron mlp = new MultilayerPerceptron(3, 8, 4, 20, 0.1, 1, ActivationType.TANH, true, true);
+        PredictionService service = new PredictionService(mlp, 4, 1, TimeUnit.MILLISECONDS);
+        try {
+            service.submit(new double[]{0.1, 0.2}).get();
+            assert false;
+        } catch (ExecutionException e) {
+            assert e.getCause() instanceof MLPException;
+        }
+
+        //Samples submitted before closing are predicted, those after fail
+        CompletableFuture<double[]> before = service.submit(new double[]{0.1, 0.2, 0.3});
+        service.close();
+        assert before.isDone() && before.get().length == 4;
+        try {
+            service.submit(new double[]{0.1, 0.2, 0.3}).get(10, TimeUnit.SECONDS);
+            assert false;
+        } catch (ExecutionException e) {
+            assert e.getCause().getMessage().contains("closed");
+        }
+    }
+}
@@ -0,0 +1,103 @@
+import mlp.MultilayerPerceptron;
+import mlp.Precision;
+import mlp.activations.ActivationType;
+import mlp.exceptions.MLPException;
+import mlp.layers.Layer;
+import mlp.quantization.QuantizationReport;
+import mlp.quantization.QuantizedInferenceContext;
+import mlp.quantization.QuantizedMultilayerPerceptron;
+import mlp.quantization.ScaleGranularity;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 19:55
+ * Purpose: Test-cases for `QuantizedMultilayerPerceptron`
+ **/
+public class TestQuantization {
+
+    @Test
+    public void testAgreesWithTrainedMlp() {
+        //3 classes split by the sign of two linear functions of the input
+        Random random = new Random(20);
+        double[][] x = new double[600][4];
+        double[][] y = new double[600][3];
+        for (int r = 0; r < x.length; r++) {
+            for (int i = 0; i < 4; i++) {
+                x[r][i] = random.nextDouble() * 2 - 1;
+            }
+            y[r][x[r][0] + x[r][1] > 0 ? 0 : x[r][2] - x[r][3] > 0 ? 1 : 2] = 1;
+        }
+        double[][] train = Arrays.copyOfRange(x, 0, 400);
+        double[][] test = Arrays.copyOfRange(x, 400, 600);
+        for (Precision precision : Precision.values()) {
+            MultilayerPerceptron mlp = new MultilayerPerceptron(4, new int[]{32}, new ActivationType[]{
+                    ActivationType.RELU}, 3, 20, 0.05, 50, true, true, 10, precision);
+            mlp.fit(train, Arrays.copyOfRange(y, 0, 400));
+            for (ScaleGranularity granularity : ScaleGranularity.values()) {
+                QuantizedMultilayerPerceptron quantized = QuantizedMultilayerPerceptron.quantize(mlp, train,
+                        granularity);
+                QuantizationReport report = quantized.compare(mlp, test);
+
+                assert report.samples == 200;
+                assert report.maxAbsoluteError < 0.1 && report.meanAbsoluteError < 0.01 : report;
+                assert report.agreement >= 0.97 : report;
+                assert report.quantizedBytes == quantized.getBytes();
+                //The weights take a byte instead of 8 (or 4) and the biases and scales 4 bytes each
+                assert report.referenceBytes > (precision == Precision.DOUBLE ? 3.5 : 1.75) * report.quantizedBytes;
+            }
+        }
+    }
+
+    @Test
+    public void testPerChannelScales() {
+        //The weights of the second output are too small for the scale of the first one
+        MultilayerPerceptron mlp = new MultilayerPerceptron(2, 2, 2, 20, 0.1, 1, ActivationType.LINEAR, false,
+                false);
+        Layer[] layers = mlp.getLayers();
+        System.arraycopy(new double[]{1, 0, 0, 1}, 0, layers[0].getWeights(), 0, 4);
+        System.arraycopy(new double[]{10, 0.01, -10, 0.02}, 0, layers[1].getWeights(), 0, 4);
+        Arrays.fill(layers[0].getBiases(), 0);
+        Arrays.fill(layers[1].getBiases(), 0);
+        double[][] x = {{1, 1}, {-1, 1}, {0.5, -0.25}};
+
+        double[][] expected = mlp.predict(x);
+        double[][] perLayer = QuantizedMultilayerPerceptron.quantize(mlp, x, ScaleGranularity.PER_LAYER).predict(x);
+        double[][] perChannel = QuantizedMultilayerPerceptron.quantize(mlp, x, ScaleGranularity.PER_CHANNEL)
+                .predict(x);
+        for (int r = 0; r < x.length; r++) {
+            //A scale per layer rounds all the small weights to 0
+            assert perLayer[r][1] == 0;
+            assert Math.abs(perChannel[r][1] - expected[r][1]) < 1e-3;
+        }
+        assert Double.isNaN(QuantizedMultilayerPerceptron.quantize(mlp, x, ScaleGranularity.PER_CHANNEL)
+                .compare(mlp, x).agreement);
+    }
+
+    @Test
+    public void testInvalidInput() {
+        MultilayerPerceptron mlp = new MultilayerPerceptron(2, 2, 1, 20, 0.1, 1, ActivationType.SIGMOID, true,
+                false);
+        try {
+            QuantizedMultilayerPerceptron.quantize(mlp, new double[0][], ScaleGranularity.PER_LAYER);
+            assert false;
+        } catch (MLPException e) {
+            assert e.getMessage().equals("At least one calibration sample is needed");
+        }
+        QuantizedMultilayerPerceptron quantized = QuantizedMultilayerPerceptron.quantize(mlp, new double[][]{{1, 0}},
+                ScaleGranularity.PER_LAYER);
+        QuantizedInferenceContext context = quantized.createInferenceContext();
+        try {
+            quantized.predict(new double[3], context);
+            assert false;
+        } catch (MLPException e) {
+            assert e.getMessage().equals("Expected no of units in input: 2 but found 3");
+        }
+        //Inputs outside of the calibrated range are saturated rather than wrapped around
+        double[] large = quantized.predict(new double[]{100, 0}, context).clone();
+        assert Arrays.equals(large, quantized.predict(new double[]{1, 0}, context));
+    }
+}
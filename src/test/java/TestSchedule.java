@@ -0,0 +1,88 @@
+import mlp.exceptions.MLPException;
+import mlp.schedules.*;
+import org.junit.Test;
+
+/**
+ * Created By: Prashant Chaubey
+ * Created On: 18-10-2026 17:40
+ * Purpose: Test-cases for implementations of interface `LearningRateSchedule`
+ **/
+public class TestSchedule {
+
+    @Test
+    public void testConstantSchedule() {
+        LearningRateSchedule schedule = new ConstantSchedule();
+
+        assert schedule.learningRate(1, 0.1) == 0.1;
+        assert schedule.learningRate(500, 0.1) == 0.1;
+    }
+
+    @Test
+    public void testStepSchedule() {
+        LearningRateSchedule schedule = new StepSchedule(10, 0.5);
+
+        assert schedule.learningRate(1, 0.8) == 0.8;
+        assert schedule.learningRate(10, 0.8) == 0.8;
+        assert schedule.learningRate(11, 0.8) == 0.4;
+        assert schedule.learningRate(21, 0.8) == 0.2;
+    }
+
+    @Test
+    public void testCosineSchedule() {
+        LearningRateSchedule schedule = new CosineSchedule(11, 0.1);
+
+        assert schedule.learningRate(1, 0.9) == 0.9;
+        //Half way the rate is half way between the base rate and the minimum
+        assert Math.abs(schedule.learningRate(6, 0.9) - 0.5) < 1e-12;
+        assert schedule.learningRate(11, 0.9) == 0.1;
+        assert schedule.learningRate(20, 0.9) == 0.1;
+    }
+
+    @Test
+    public void testStepSizeValidation() {
+        for (int stepSize : new int[]{0, -1}) {
+            try {
+                new StepSchedule(stepSize, 0.5);
+                assert false;
+            } catch (MLPException e) {
+                assert e.getMessage().equals("Step size should be at least 1 but found " + stepSize);
+            }
+        }
+    }
+
+    @Test
+    public void testWarmupSchedule() {
+        LearningRateSchedule schedule = new WarmupSchedule(4, new StepSchedule(1, 0.5));
+
+        assert schedule.learningRate(1, 0.8) == 0.2;
+        assert schedule.learningRate(4, 0.8) == 0.8;
+        //The step schedule counts its epochs from the end of the warmup
+        assert schedule.learningRate(5, 0.8) == 0.8;
+        assert schedule.learningRate(6, 0.8) == 0.4;
+    }
+
+    @Test
+    public void testReduceOnPlateauSchedule() {
+        LearningRateSchedule schedule = new ReduceOnPlateauSchedule(0.5, 2, 0.1);
+
+        schedule.epochEnd(1, 1.0);
+        schedule.epochEnd(2, 0.9);
+        assert schedule.learningRate(3, 0.8) == 0.8;
+        //Two reports without improvement halve the rate
+        schedule.epochEnd(3, 0.95);
+        schedule.epochEnd(4, 0.9);
+        assert schedule.learningRate(5, 0.8) == 0.4;
+        //The rate doesn't go below the minimum
+        for (int epoch = 5; epoch < 20; epoch++) {
+            schedule.epochEnd(epoch, 1.0);
+        }
+        assert schedule.learningRate(20, 0.8) == 0.1;
+
+        //A new training starts from the base rate and forgets the best loss
+        schedule.reset();
+        assert schedule.learningRate(1, 0.8) == 0.8;
+        schedule.epochEnd(1, 5.0);
+        schedule.epochEnd(2, 4.0);
+        assert schedule.learningRate(3, 0.8) == 0.8;
+    }
+}